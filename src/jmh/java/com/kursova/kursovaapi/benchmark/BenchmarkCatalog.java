@@ -0,0 +1,100 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.KursovaApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Піднімає контекст застосунку на вбудованій H2 (режим сумісності з PostgreSQL)
+ * і заповнює каталог турів детермінованими даними для бенчмарків.
+ */
+final class BenchmarkCatalog {
+
+    static final String[] TYPES = {"Beach", "Ski", "Excursion", "Cruise", "Hiking"};
+    static final String[] MEAL_OPTIONS = {"All inclusive", "Breakfast", "Half board", "No meals"};
+    static final String[] TRANSPORTS = {"Bus", "Plane", "Train", "Ship"};
+
+    // Кожен десятий тур — в обраному
+    static final int FAVORITE_EVERY = 10;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkCatalog() {
+    }
+
+    /**
+     * Стартує застосунок без веб-сервера з окремою in-memory БД і заповнює її catalogSize турами.
+     */
+    static ConfigurableApplicationContext start(int catalogSize) {
+        return start(catalogSize, WebApplicationType.NONE, Map.of());
+    }
+
+    /**
+     * Те саме, але з вибраним типом веб-застосунку і додатковими властивостями, що мають пріоритет
+     * над типовими (наприклад, інша БД або профіль). Каталог заповнюється лише в порожній БД.
+     */
+    static ConfigurableApplicationContext start(int catalogSize, WebApplicationType webType, Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench" + catalogSize
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.config", "classpath:logback-benchmark.xml");
+        properties.putAll(overrides);
+        // Лише системна властивість: інакше devtools перезапускає main() класу, що викликав start
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(KursovaApiApplication.class)
+                .web(webType)
+                // аргументи командного рядка мають пріоритет над application.properties;
+                // кожна властивість — рівно один раз, бо повтори склеюються через кому
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Integer tours = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tour", Integer.class);
+        if (tours == null || tours == 0) {
+            seed(jdbcTemplate, catalogSize);
+        }
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int catalogSize) {
+        for (String transport : TRANSPORTS) {
+            jdbcTemplate.update("INSERT INTO transport (name) VALUES (?)", transport);
+        }
+        List<Integer> transportIds = jdbcTemplate.queryForList("SELECT id FROM transport ORDER BY id", Integer.class);
+
+        // Фіксований seed, щоб розподіл даних був однаковим між запусками й релізами
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(new Object[]{
+                    "Tour " + i,
+                    TYPES[random.nextInt(TYPES.length)],
+                    transportIds.get(random.nextInt(transportIds.size())),
+                    MEAL_OPTIONS[random.nextInt(MEAL_OPTIONS.length)],
+                    3 + random.nextInt(14),
+                    200 + random.nextInt(9_800),
+                    Math.round((1.0 + random.nextDouble() * 4.0) * 10) / 10.0
+            });
+            if (batch.size() == BATCH_SIZE || i == catalogSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO tour (name, type, transport_id, meal_option, number_of_days, price, rating) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.update("INSERT INTO favorite (tour_id) SELECT id FROM tour WHERE MOD(id, ?) = 0", FAVORITE_EVERY);
+    }
+}
@@ -0,0 +1,104 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.TourRepository;
+import com.kursova.kursovaapi.service.FavoriteIdIndex;
+import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourCatalogVersion;
+import com.kursova.kursovaapi.service.TourColumnIndex;
+import com.kursova.kursovaapi.service.TourColumnSearchService;
+import com.kursova.kursovaapi.service.TourSearchCache;
+import com.kursova.kursovaapi.service.TourSearchCacheProperties;
+import com.kursova.kursovaapi.service.TourSearchProperties;
+import com.kursova.kursovaapi.service.TourService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цикл позначення обраних у searchToursWithPaging: маппінг сторінки в DTO + перевірка FavoriteIdIndex.
+ * Репозиторій підмінено заглушкою з готовою сторінкою, тож вимірюється лише робота сервісу, без БД.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FavoriteMarkingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private TourService tourService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        TransportEntity transport = new TransportEntity("Bus");
+        transport.setId(1);
+        List<TourEntity> tours = new ArrayList<>(pageSize);
+        List<Integer> favoriteIds = new ArrayList<>();
+        for (int i = 1; i <= pageSize; i++) {
+            TourEntity tour = new TourEntity("Tour " + i, "Beach", transport, "All inclusive", 7, 1_000 + i, 4.0);
+            tour.setId(i);
+            tours.add(tour);
+            if (i % BenchmarkCatalog.FAVORITE_EVERY == 0) {
+                favoriteIds.add(i);
+            }
+        }
+        pageable = PageRequest.of(0, pageSize);
+        Page<TourEntity> page = new PageImpl<>(tours, pageable, 1_000_000);
+
+        FavoriteIdIndex favoriteIdIndex = new FavoriteIdIndex();
+        favoriteIdIndex.reset(favoriteIds);
+        FavoriteService favoriteService = new FavoriteService(null, null, favoriteIdIndex, new SimpleMeterRegistry());
+        // Рушій SQL: сторінку віддає заглушка репозиторію
+        TourColumnSearchService columnSearch = new TourColumnSearchService(null, null, favoriteService,
+                new TourColumnIndex(), new TourSearchProperties(TourSearchProperties.Engine.SQL));
+        TourSearchCache searchCache = new TourSearchCache(
+                new TourSearchCacheProperties(false, DataSize.ofMegabytes(16)), new SimpleMeterRegistry());
+        tourService = new TourService(pageRepository(page), null, favoriteService,
+                new TourCatalogVersion(), columnSearch, searchCache, event -> { }, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Page<TourDTO> searchToursWithPaging() {
+        return tourService.searchToursWithPaging(TourFilter.empty(), pageable);
+    }
+
+    // Заглушка TourRepository: findAll(spec, pageable) завжди повертає ту саму сторінку
+    private static TourRepository pageRepository(Page<TourEntity> page) {
+        return (TourRepository) Proxy.newProxyInstance(
+                TourRepository.class.getClassLoader(),
+                new Class<?>[]{TourRepository.class},
+                (proxy, method, args) -> {
+                    if ("findAll".equals(method.getName()) && args != null && args.length == 2) {
+                        return page;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
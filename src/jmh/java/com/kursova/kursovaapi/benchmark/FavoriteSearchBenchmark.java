@@ -0,0 +1,73 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.FavoriteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FavoriteService.searchFavorites з реальним SQL (EXISTS + фільтри + COUNT) на H2
+ * для каталогів різного розміру. Кожен десятий тур — в обраному.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FavoriteSearchBenchmark {
+
+    private static final TourFilter SELECTIVE_FILTER = new TourFilter(
+            null, "Beach", null, 5, 10, 1_000, 3_000, 4.0, null, "plane");
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private FavoriteService favoriteService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkCatalog.start(catalogSize);
+        favoriteService = context.getBean(FavoriteService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TourDTO> firstPageNoFilters() {
+        return favoriteService.searchFavorites(TourFilter.empty(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<TourDTO> deepPageSortedByPrice() {
+        Pageable pageable = PageRequest.of(20, 20, Sort.by("price"));
+        return favoriteService.searchFavorites(TourFilter.empty(), pageable);
+    }
+
+    @Benchmark
+    public Page<TourDTO> selectiveFilter() {
+        return favoriteService.searchFavorites(SELECTIVE_FILTER, PageRequest.of(0, 20));
+    }
+}
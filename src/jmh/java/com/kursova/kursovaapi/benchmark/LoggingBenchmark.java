@@ -0,0 +1,173 @@
+package com.kursova.kursovaapi.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.filter.LevelFilter;
+import ch.qos.logback.classic.net.SMTPAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.util.FileSize;
+import com.kursova.kursovaapi.logging.ErrorDigestAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Скільки часу потік запиту витрачає на логування типового запиту (три рядки INFO:
+ * вхід у контролер, фільтри, результат) у старій і новій конфігурації logback.
+ *
+ * sync  — як було: FileAppender + SMTPAppender з LevelFilter напряму на root
+ *         (обидва синхронізовані, тож усі потоки проходять через їхні блокування);
+ * async — як зараз: AsyncAppender над RollingFileAppender + ErrorDigestAppender.
+ *
+ * Пошта не надсилається: бенчмарк логує лише INFO, а SMTP-хост недосяжний.
+ * При насиченні async може відкидати INFO (discardingThreshold) — саме так він захищає запити.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n";
+
+    @Param({"sync", "async"})
+    private String pipeline;
+
+    private LoggerContext loggerContext;
+    private Logger controllerLogger;
+    private Logger serviceLogger;
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+
+        if ("sync".equals(pipeline)) {
+            FileAppender<ILoggingEvent> file = new FileAppender<>();
+            file.setFile(directory.resolve("app.log").toString());
+            root.addAppender(startWithEncoder(file));
+            root.addAppender(smtp());
+        } else {
+            RollingFileAppender<ILoggingEvent> file = new RollingFileAppender<>();
+            file.setFile(directory.resolve("app.log").toString());
+            SizeAndTimeBasedRollingPolicy<ILoggingEvent> policy = new SizeAndTimeBasedRollingPolicy<>();
+            policy.setContext(loggerContext);
+            policy.setParent(file);
+            policy.setFileNamePattern(directory.resolve("app.%d{yyyy-MM-dd}.%i.log.gz").toString());
+            policy.setMaxFileSize(FileSize.valueOf("50MB"));
+            policy.start();
+            file.setRollingPolicy(policy);
+            startWithEncoder(file);
+
+            AsyncAppender async = new AsyncAppender();
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            root.addAppender(start(async));
+
+            ErrorDigestAppender digest = new ErrorDigestAppender();
+            digest.addFilter(errorsOnly());
+            ListAppender<ILoggingEvent> mail = new ListAppender<>();
+            digest.addAppender(start(mail));
+            root.addAppender(start(digest));
+        }
+
+        controllerLogger = loggerContext.getLogger("com.kursova.kursovaapi.controller.TourController");
+        serviceLogger = loggerContext.getLogger("com.kursova.kursovaapi.service.TourService");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void typicalRequest() {
+        controllerLogger.info("GET /api/tours called with filters");
+        serviceLogger.info("Searching tours with filters: type='Beach', price=[500-1500]");
+        serviceLogger.info("Returning page {} with {} elements out of {}", 0, 20, 1834);
+    }
+
+    private SMTPAppender smtp() {
+        SMTPAppender smtp = new SMTPAppender();
+        smtp.setContext(loggerContext);
+        smtp.setSMTPHost("127.0.0.1");
+        smtp.setSMTPPort(9); // discard: з'єднання не встановиться, але лист і не надсилається
+        smtp.addTo("alerts@example.com");
+        smtp.setFrom("app@example.com");
+        smtp.setSubject("[ERROR LOG] %logger{20}");
+        PatternLayout layout = new PatternLayout();
+        layout.setContext(loggerContext);
+        layout.setPattern(PATTERN);
+        layout.start();
+        smtp.setLayout(layout);
+        smtp.addFilter(errorsOnly());
+        return start(smtp);
+    }
+
+    private LevelFilter errorsOnly() {
+        LevelFilter filter = new LevelFilter();
+        filter.setLevel(Level.ERROR);
+        filter.setOnMatch(FilterReply.ACCEPT);
+        filter.setOnMismatch(FilterReply.DENY);
+        filter.start();
+        return filter;
+    }
+
+    private <A extends OutputStreamAppender<ILoggingEvent>> A startWithEncoder(A appender) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        appender.setEncoder(encoder);
+        return start(appender);
+    }
+
+    private <A extends Appender<ILoggingEvent>> A start(A appender) {
+        appender.setContext(loggerContext);
+        appender.start();
+        return appender;
+    }
+}
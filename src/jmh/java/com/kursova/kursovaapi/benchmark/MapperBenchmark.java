@@ -0,0 +1,53 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.mapper.TourMapper;
+import com.kursova.kursovaapi.mapper.TransportMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускна здатність мапперів Entity -> DTO (викликаються для кожного рядка кожної сторінки).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private TourEntity tour;
+    private TransportEntity transport;
+
+    @Setup
+    public void setUp() {
+        transport = new TransportEntity("Plane");
+        transport.setId(2);
+        tour = new TourEntity("Carpathian weekend", "Hiking", transport, "Breakfast", 7, 1_250, 4.6);
+        tour.setId(42);
+    }
+
+    @Benchmark
+    public TourDTO tourToDto() {
+        return TourMapper.toDto(tour);
+    }
+
+    @Benchmark
+    public TransportDTO transportToDto() {
+        return TransportMapper.toDto(transport);
+    }
+}
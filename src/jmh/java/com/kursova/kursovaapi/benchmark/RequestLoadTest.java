@@ -0,0 +1,193 @@
+package com.kursova.kursovaapi.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Навантажувальний тест REST-шару: однаковий сценарій у звичайному режимі (пул платформних потоків Tomcat)
+ * і з профілем virtual-threads. Кожен клієнт — окремий віртуальний потік, що надсилає запити один за одним
+ * без пауз (закрита модель навантаження), тому пропускна здатність і затримки порівнювані між режимами.
+ *
+ * Запуск: mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="clients=1000 duration=30"
+ * Параметри (ім'я=значення):
+ *   modes     — platform,virtual (типово обидва, по черзі)
+ *   clients   — кількість одночасних клієнтів (1000)
+ *   warmup    — секунди прогріву, результати яких відкидаються (10)
+ *   duration  — секунди вимірювання (30)
+ *   catalog   — кількість турів у БД (100000)
+ *   paths     — шляхи запитів через ';', {page} замінюється випадковою сторінкою 0..49
+ *               (/api/tours/search лише з PostgreSQL: H2 не має повнотекстового пошуку)
+ *   jdbc-url, jdbc-user, jdbc-password — порожня PostgreSQL замість H2 (схему створює Flyway)
+ */
+public final class RequestLoadTest {
+
+    private static final String DEFAULT_PATHS =
+            "/api/tours?type=Beach&page={page}&size=20;/api/tours/facets?maxPrice=3000;/api/transports";
+
+    private RequestLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int catalogSize = Integer.parseInt(options.getOrDefault("catalog", "100000"));
+        List<String> paths = List.of(options.getOrDefault("paths", DEFAULT_PATHS).split(";"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+            Map<String, String> overrides = new HashMap<>();
+            overrides.put("server.port", "0");
+            if ("virtual".equals(mode)) {
+                overrides.put("spring.profiles.active", "virtual-threads");
+            }
+            if (options.containsKey("jdbc-url")) {
+                overrides.put("spring.datasource.url", options.get("jdbc-url"));
+                overrides.put("spring.datasource.username", options.getOrDefault("jdbc-user", "postgres"));
+                overrides.put("spring.datasource.password", options.getOrDefault("jdbc-password", ""));
+                overrides.put("spring.jpa.hibernate.ddl-auto", "validate");
+                overrides.put("spring.flyway.enabled", "true");
+            }
+
+            try (ConfigurableApplicationContext context =
+                         BenchmarkCatalog.start(catalogSize, WebApplicationType.SERVLET, overrides)) {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                System.out.printf("%s: warming up %d clients for %d s%n", mode, clients, warmupSeconds);
+                runClients(mode, baseUrl, paths, clients, warmupSeconds);
+                System.out.printf("%s: measuring %d clients for %d s%n", mode, clients, durationSeconds);
+                results.add(runClients(mode, baseUrl, paths, clients, durationSeconds));
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-10s %8s %10s %8s %10s %8s %8s %8s %8s%n",
+                "mode", "clients", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            System.out.println(result);
+        }
+    }
+
+    private static Result runClients(String mode, String baseUrl, List<String> paths, int clients, int seconds) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<LatencyRecorder>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                SplittableRandom random = new SplittableRandom(client);
+                futures.add(executor.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < endNanos) {
+                        String path = paths.get(random.nextInt(paths.size()))
+                                .replace("{page}", Integer.toString(random.nextInt(50)))
+                                .replace(" ", "%20");
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.record(System.nanoTime() - sent);
+                    }
+                    return recorder;
+                }));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        LatencyRecorder all = new LatencyRecorder();
+        for (Future<LatencyRecorder> future : futures) {
+            all.addAll(future.get());
+        }
+        return new Result(mode, clients, all.sorted(), errors.get(), elapsedNanos);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /**
+     * Затримки одного клієнта в наносекундах; масив росте без боксингу.
+     */
+    private static final class LatencyRecorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.values[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private record Result(String mode, int clients, long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile / 100 * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-10s %8d %10d %8d %10.0f %8.1f %8.1f %8.1f %8.1f",
+                    mode, clients, sortedLatencies.length, errors,
+                    sortedLatencies.length * 1_000_000_000.0 / elapsedNanos,
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+        }
+    }
+}
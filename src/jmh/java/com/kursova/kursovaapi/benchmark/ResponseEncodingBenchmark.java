@@ -0,0 +1,120 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.kursovaapi.dto.PageDTO;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.TourService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сторінка /api/tours (20 турів) через справжній Tomcat: повна відповідь без стиснення і з gzip
+ * та умовний запит з актуальним If-None-Match (304 без пошуку). Середня затримка на запит.
+ *
+ * Під час підготовки друкується розмір тієї самої сторінки: PageImpl проти PageDTO, без стиснення і з gzip.
+ * HttpClient не розпаковує gzip сам, тож розмір тіла відповіді — це байти, що пройшли мережею.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private static final String PAGE_PATH = "/api/tours?type=Beach&page=3&size=20&sort=price,asc";
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest fullRequest;
+    private HttpRequest conditionalRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkCatalog.start(100_000, WebApplicationType.SERVLET, Map.of("server.port", "0"));
+        URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + PAGE_PATH);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        fullRequest = HttpRequest.newBuilder(uri).header("Accept-Encoding", encoding).build();
+
+        HttpResponse<byte[]> first = httpClient.send(fullRequest, HttpResponse.BodyHandlers.ofByteArray());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        conditionalRequest = HttpRequest.newBuilder(uri)
+                .header("Accept-Encoding", encoding)
+                .header("If-None-Match", etag)
+                .build();
+        System.out.printf("%n%s: %d bytes on the wire, Content-Encoding=%s, ETag=%s%n", encoding, first.body().length,
+                first.headers().firstValue("Content-Encoding").orElse("-"), etag);
+        printPayloadSizes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int fullPage() throws Exception {
+        return send(fullRequest, 200);
+    }
+
+    @Benchmark
+    public int notModified() throws Exception {
+        return send(conditionalRequest, 304);
+    }
+
+    private int send(HttpRequest request, int expectedStatus) throws Exception {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Expected " + expectedStatus + ", got " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private void printPayloadSizes() throws IOException {
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        Page<TourDTO> page = context.getBean(TourService.class).searchToursWithPaging(
+                new TourFilter(null, "Beach", null, null, null, null, null, null, null, null),
+                PageRequest.of(3, 20, Sort.by("price")));
+        byte[] pageImpl = objectMapper.writeValueAsBytes(page);
+        byte[] pageDto = objectMapper.writeValueAsBytes(PageDTO.of(page));
+        System.out.printf("PageImpl %d B (gzip %d B), PageDTO %d B (gzip %d B)%n",
+                pageImpl.length, gzip(pageImpl).length, pageDto.length, gzip(pageDto).length);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
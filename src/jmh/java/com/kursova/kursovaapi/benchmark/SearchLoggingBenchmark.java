@@ -0,0 +1,107 @@
+package com.kursova.kursovaapi.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.helpers.NOPAppender;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.logging.FilterLogging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Логування фільтрів пошуку в потоці запиту: старий StringBuilder-опис (describe, без перевірки рівня)
+ * проти пар ключ/значення FilterLogging. Алокації на операцію — з профайлером GC:
+ * mvn -Pbenchmark verify -Djmh.args="SearchLogging -prof gc" (рядок gc.alloc.rate.norm, B/op).
+ *
+ * level=INFO — логування увімкнене, WARN — вимкнене (як у проді з підвищеним рівнем).
+ * Події йдуть через AsyncAppender у NOPAppender: вимірюється лише робота потоку запиту.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchLoggingBenchmark {
+
+    private static final TourFilter FILTER = new TourFilter(
+            null, "Beach", "All inclusive", 5, 10, 1_000, 3_000, 4.0, null, "plane");
+
+    @Param({"INFO", "WARN"})
+    private String level;
+
+    private LoggerContext loggerContext;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+
+        NOPAppender<ILoggingEvent> sink = new NOPAppender<>();
+        sink.setContext(loggerContext);
+        sink.start();
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(async);
+        root.setLevel(Level.toLevel(level));
+        logger = loggerContext.getLogger("com.kursova.kursovaapi.service.TourService");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void stringBuilder() {
+        logger.info(describe("Searching tours with filters:", FILTER));
+    }
+
+    @Benchmark
+    public void keyValues() {
+        FilterLogging.withFilter(logger.atInfo(), FILTER).log("Searching tours");
+    }
+
+    // Копія колишнього TourService.describe
+    private static String describe(String prefix, TourFilter filter) {
+        StringBuilder logMessage = new StringBuilder(prefix);
+
+        if (filter.name() != null && !filter.name().isBlank()) logMessage.append(" name='").append(filter.name()).append("'");
+        if (filter.type() != null && !filter.type().isBlank()) logMessage.append(", type='").append(filter.type()).append("'");
+        if (filter.mealOption() != null && !filter.mealOption().isBlank()) logMessage.append(", meal='").append(filter.mealOption()).append("'");
+        if (filter.transportName() != null && !filter.transportName().isBlank()) logMessage.append(", transport='").append(filter.transportName()).append("'");
+
+        if (filter.minDays() != null || filter.maxDays() != null)
+            logMessage.append(", days=[").append(filter.minDays() != null ? filter.minDays() : "").append("-").append(filter.maxDays() != null ? filter.maxDays() : "").append("]");
+
+        if (filter.minPrice() != null || filter.maxPrice() != null)
+            logMessage.append(", price=[").append(filter.minPrice() != null ? filter.minPrice() : "").append("-").append(filter.maxPrice() != null ? filter.maxPrice() : "").append("]");
+
+        if (filter.minRating() != null || filter.maxRating() != null)
+            logMessage.append(", rating=[").append(filter.minRating() != null ? filter.minRating() : "").append("-").append(filter.maxRating() != null ? filter.maxRating() : "").append("]");
+
+        return logMessage.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.TourColumnIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бітмапи значень TourColumnIndex: ціна оновлення (один тур і порція з 1 000) і запит лише з
+ * фільтрами-рівностями та фасетами. Розмір бітмапів друкується під час підготовки поруч із розміром
+ * int-колонок кодів, які без бітмапів довелося б сканувати. Без Spring і БД.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TourBitmapIndexBenchmark {
+
+    private static final String[] TYPES = {"Beach", "Mountain", "City", "Cruise", "Safari"};
+    private static final String[] MEAL_OPTIONS = {"All inclusive", "Breakfast", "Half board", "None"};
+    private static final int TRANSPORTS = 4;
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final TourFilter EQUALITY_FILTER = new TourFilter(
+            null, "beach", "breakfast", null, null, null, null, null, null, null);
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private TourColumnIndex index;
+    private int nextId;
+    private boolean footprintPrinted;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    // Свіжий індекс на кожну ітерацію: add* дописують тури, і каталог не має рости від ітерації до ітерації
+    @Setup(Level.Iteration)
+    public void setUp() {
+        index = new TourColumnIndex();
+        List<TourDTO> chunk = new ArrayList<>(10_000);
+        for (int id = 1; id <= catalogSize; id++) {
+            chunk.add(tour(id));
+            if (chunk.size() == 10_000) {
+                index.addAll(chunk);
+                chunk.clear();
+            }
+        }
+        index.addAll(chunk);
+        nextId = catalogSize + 1;
+
+        if (footprintPrinted) {
+            return;
+        }
+        footprintPrinted = true;
+        long codeColumns = 3L * Integer.BYTES * catalogSize;
+        System.out.printf("%n%d tours: value bitmaps %d KB, type/meal/transport code columns %d KB%n",
+                catalogSize, index.bitmapSizeInBytes() / 1024, codeColumns / 1024);
+    }
+
+    @Benchmark
+    public boolean addOneTour() {
+        return index.add(tour(nextId++));
+    }
+
+    @Benchmark
+    public int addBatch() {
+        List<TourDTO> tours = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            tours.add(tour(nextId++));
+        }
+        return index.addAll(tours);
+    }
+
+    @Benchmark
+    public Page<TourDTO> equalityFiltersFirstPage() {
+        return index.search(EQUALITY_FILTER, Set.of(2), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<TourFacetsDTO.ValueCount> typeCounts() {
+        return index.typeCounts();
+    }
+
+    private TourDTO tour(int id) {
+        TourDTO tour = new TourDTO();
+        tour.setId(id);
+        tour.setName("Tour " + id);
+        tour.setType(TYPES[random.nextInt(TYPES.length)]);
+        tour.setMealOption(MEAL_OPTIONS[random.nextInt(MEAL_OPTIONS.length)]);
+        tour.setTransportId(1 + random.nextInt(TRANSPORTS));
+        tour.setNumberOfDays(3 + random.nextInt(14));
+        tour.setPrice(200 + random.nextInt(9_800));
+        tour.setRating(random.nextInt(51) / 10.0);
+        return tour;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.TourColumnSearchService;
+import com.kursova.kursovaapi.service.TourService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TourService.searchToursWithPaging з рушієм SQL (Specification на H2) і MEMORY (TourColumnIndex)
+ * на тому самому каталозі. Пропускна здатність в операціях за секунду, більше — краще.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TourSearchEngineBenchmark {
+
+    // Типовий запит з UI: тип + ціна + рейтинг + транспорт
+    private static final TourFilter SELECTIVE_FILTER = new TourFilter(
+            null, "Beach", null, 5, 10, 1_000, 3_000, 4.0, null, "plane");
+    private static final TourFilter NAME_FILTER = new TourFilter(
+            "tour 12", null, null, null, null, null, null, null, null, null);
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"sql", "memory"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private TourService tourService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkCatalog.start(catalogSize, WebApplicationType.NONE, Map.of("app.tour-search.engine", engine));
+        tourService = context.getBean(TourService.class);
+        // Каталог заповнюється вже після ApplicationReadyEvent, тож індекс перезавантажується вручну
+        context.getBean(TourColumnSearchService.class).loadColumnIndex();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<TourDTO> firstPageNoFilters() {
+        return tourService.searchToursWithPaging(TourFilter.empty(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<TourDTO> selectiveFilterSortedByPrice() {
+        return tourService.searchToursWithPaging(SELECTIVE_FILTER, PageRequest.of(0, 20, Sort.by("price")));
+    }
+
+    @Benchmark
+    public Page<TourDTO> nameContainsSortedByRating() {
+        return tourService.searchToursWithPaging(NAME_FILTER, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "rating")));
+    }
+
+    @Benchmark
+    public Page<TourDTO> deepPageSortedByPrice() {
+        return tourService.searchToursWithPaging(TourFilter.empty(), PageRequest.of(50, 20, Sort.by("price")));
+    }
+}
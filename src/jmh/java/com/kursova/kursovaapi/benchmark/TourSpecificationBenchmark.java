@@ -0,0 +1,77 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вартість побудови WHERE-умови з TourFilter: композиція Specification + toPredicate (Criteria API),
+ * без виконання SQL. Це робиться на кожен запит пошуку.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TourSpecificationBenchmark {
+
+    private static final TourFilter FULL_FILTER = new TourFilter(
+            "tour", "Beach", "All inclusive", 3, 10, 500, 5_000, 3.5, 5.0, "plane");
+
+    private ConfigurableApplicationContext context;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkCatalog.start(0);
+        cb = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate emptyFilter() {
+        return toPredicate(TourSpecification.matching(TourFilter.empty()));
+    }
+
+    @Benchmark
+    public Predicate allFilters() {
+        return toPredicate(TourSpecification.matching(FULL_FILTER));
+    }
+
+    @Benchmark
+    public Predicate favoritesWithAllFilters() {
+        return toPredicate(Specification.where(TourSpecification.isFavorite())
+                .and(TourSpecification.matching(FULL_FILTER)));
+    }
+
+    private Predicate toPredicate(Specification<TourEntity> spec) {
+        CriteriaQuery<TourEntity> query = cb.createQuery(TourEntity.class);
+        Root<TourEntity> root = query.from(TourEntity.class);
+        return spec.toPredicate(root, query, cb);
+    }
+}
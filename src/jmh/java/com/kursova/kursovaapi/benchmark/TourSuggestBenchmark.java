@@ -0,0 +1,74 @@
+package com.kursova.kursovaapi.benchmark;
+
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.service.TourNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Затримка автодоповнення з TourNameIndex: короткі префікси (з запам'ятованого топу)
+ * і довгі префікси, яких набагато більше, ніж вміщує кеш (прохід по діапазону skip list).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TourSuggestBenchmark {
+
+    private static final String[] WORDS = {
+            "carpathian", "lviv", "kyiv", "odesa", "black", "sea", "weekend", "hiking", "coffee", "castle",
+            "lakes", "wine", "river", "mountain", "night", "walk", "beach", "ski", "festival", "village"};
+
+    @Param({"1000000"})
+    private int catalogSize;
+
+    private TourNameIndex index;
+    private String[] longPrefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<TourSuggestion> tours = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            tours.add(new TourSuggestion(i, name, Math.round((1.0 + random.nextDouble() * 4.0) * 10) / 10.0));
+        }
+        index = new TourNameIndex();
+        index.reset(tours);
+
+        // 200 000 різних довгих префіксів — значно більше за розмір кешу префіксів
+        longPrefixes = new String[200_000];
+        for (int i = 0; i < longPrefixes.length; i++) {
+            String name = tours.get(random.nextInt(tours.size())).name();
+            longPrefixes[i] = name.substring(0, Math.min(name.length(), name.lastIndexOf(' ') + 3));
+        }
+    }
+
+    @Benchmark
+    public List<TourSuggestion> shortPrefix() {
+        return index.suggest("c", 10);
+    }
+
+    @Benchmark
+    public List<TourSuggestion> longPrefix() {
+        next = (next + 1) % longPrefixes.length;
+        return index.suggest(longPrefixes[next], 10);
+    }
+}
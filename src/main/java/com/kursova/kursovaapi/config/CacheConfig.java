@@ -0,0 +1,46 @@
+package com.kursova.kursovaapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Налаштування кешів застосунку (Caffeine в пам'яті процесу).
+ * Кожен кеш обмежений за розміром і збирає статистику hit/miss
+ * (доступна через /actuator/metrics/cache.gets і /actuator/caches).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Унікальні типи турів і опції харчування для фільтрів UI
+    public static final String TOUR_TYPES = "tourTypes";
+    public static final String TOUR_MEAL_OPTIONS = "tourMealOptions";
+
+    // Транспорт: DTO за id і повний список (таблиця маленька й майже не змінюється)
+    public static final String TRANSPORTS_BY_ID = "transportsById";
+    public static final String TRANSPORT_LIST = "transportList";
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Кеші фасетів містять по одному списку, тому невеликої межі достатньо
+        cacheManager.registerCustomCache(TOUR_TYPES, boundedCache(16));
+        cacheManager.registerCustomCache(TOUR_MEAL_OPTIONS, boundedCache(16));
+        // Caffeine витісняє записи, до яких найдовше не зверталися (близько до LRU)
+        cacheManager.registerCustomCache(TRANSPORTS_BY_ID, boundedCache(1_000));
+        cacheManager.registerCustomCache(TRANSPORT_LIST, boundedCache(1));
+        return cacheManager;
+    }
+
+    private static Cache<Object, Object> boundedCache(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+}
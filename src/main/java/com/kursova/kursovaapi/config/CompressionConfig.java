@@ -0,0 +1,19 @@
+package com.kursova.kursovaapi.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Стиснення відповідей (server.compression.*) разом з ETag-ами: GzipEtagFilter лише для /api/*.
+ */
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<GzipEtagFilter> gzipEtagFilter() {
+        FilterRegistrationBean<GzipEtagFilter> registration = new FilterRegistrationBean<>(new GzipEtagFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
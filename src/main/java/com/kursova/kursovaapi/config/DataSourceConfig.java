@@ -0,0 +1,68 @@
+package com.kursova.kursovaapi.config;
+
+import com.kursova.kursovaapi.monitoring.QueryStatsListener;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * JDBC DataSource для JPA, Flyway і JdbcTemplate.
+ *
+ * Оголошений явно, бо поруч працює реактивний R2DBC-стек: Spring Boot вимикає автоконфігурацію
+ * DataSource, щойно в контексті є io.r2dbc.spi.ConnectionFactory. Налаштування ті самі:
+ * spring.datasource.* і spring.datasource.hikari.*.
+ *
+ * Пул Hikari обгорнутий datasource-proxy: QueryStatsListener рахує SQL-вирази, рядки і час JDBC
+ * кожного HTTP-запиту (QueryBudgetFilter). Метрики Hikari знаходять пул через unwrap.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Те саме, що @ConfigurationProperties на біні, але для пулу всередині обгортки
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (StringUtils.hasText(properties.getName())) {
+            pool.setPoolName(properties.getName());
+        }
+        return ProxyDataSourceBuilder.create(pool)
+                .name(pool.getPoolName())
+                .listener(new QueryStatsListener())
+                // ResultSet теж обгортається, щоб рахувати next(); без цього видно лише кількість виразів
+                .proxyResultSet()
+                .build();
+    }
+
+    /**
+     * JPA-менеджер транзакцій як основний: R2DBC-стартер додає ще й connectionFactoryTransactionManager,
+     * і без @Primary кожен @Transactional-метод падав на NoUniqueBeanDefinitionException.
+     * Реактивний шлях транзакцій не використовує.
+     */
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers
+    ) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
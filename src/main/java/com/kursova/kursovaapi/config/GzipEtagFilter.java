@@ -0,0 +1,58 @@
+package com.kursova.kursovaapi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Робить ETag слабким (W/"...") для клієнтів, що приймають gzip.
+ *
+ * Tomcat не стискає відповідь із сильним ETag: сильний валідатор обіцяє ті самі байти,
+ * а gzip-версія — інші байти того самого вмісту. Контролери завжди віддають сильний ETag;
+ * клієнт без gzip (або CDN, що тримає нестиснену копію) його й отримує, решта — слабкий.
+ * If-None-Match для GET порівнюється слабко, тож W/"x" і "x" дають однаковий 304.
+ */
+public class GzipEtagFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            chain.doFilter(request, new WeakEtagResponse(response));
+        } else {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static final class WeakEtagResponse extends HttpServletResponseWrapper {
+
+        WeakEtagResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            super.setHeader(name, weaken(name, value));
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            super.addHeader(name, weaken(name, value));
+        }
+
+        private static String weaken(String name, String value) {
+            if (value != null && HttpHeaders.ETAG.equalsIgnoreCase(name) && value.startsWith("\"")) {
+                return "W/" + value;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kursova.kursovaapi.config;
+
+import com.kursova.kursovaapi.monitoring.QueryBudgetFilter;
+import com.kursova.kursovaapi.monitoring.QueryBudgetProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Бюджет SQL на запит: QueryBudgetFilter лише для /api/*, actuator і статика не рахуються.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties budget) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(new QueryBudgetFilter(budget));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kursova.kursovaapi.config;
+
+import com.kursova.kursovaapi.service.TourSearchCacheProperties;
+import com.kursova.kursovaapi.service.TourSearchProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Вибір рушія пошуку турів (app.tour-search.engine), див. TourSearchProperties,
+ * і кеш результатів SQL-пошуку (app.tour-search.result-cache.*), див. TourSearchCacheProperties.
+ */
+@Configuration
+@EnableConfigurationProperties({TourSearchProperties.class, TourSearchCacheProperties.class})
+public class TourSearchConfig {
+}
@@ -1,12 +1,20 @@
 package com.kursova.kursovaapi.controller;
 
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO;
+import com.kursova.kursovaapi.dto.PageDTO;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
 import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 
 @RestController
@@ -15,10 +23,15 @@ public class FavoriteController {
 
     private static final Logger logger = LoggerFactory.getLogger(FavoriteController.class);
 
+    // Зберігати можна, але перед використанням — завжди ревалідація за ETag
+    private static final CacheControl PAGE_CACHE_CONTROL = CacheControl.noCache();
+
     private final FavoriteService favoriteService;
+    private final TourService tourService;
 
-    public FavoriteController(FavoriteService favoriteService) {
+    public FavoriteController(FavoriteService favoriteService, TourService tourService) {
         this.favoriteService = favoriteService;
+        this.tourService = tourService;
     }
 
     @PostMapping
@@ -27,33 +40,38 @@ public class FavoriteController {
         favoriteService.addToFavorites(tourId);
     }
 
+    @PostMapping("/batch")
+    public List<FavoriteBatchResultDTO> addAll(@RequestBody List<Integer> tourIds) {
+        logger.info("Received request to add {} tours to favorites", tourIds.size());
+        return favoriteService.addAll(tourIds);
+    }
+
+    @DeleteMapping("/batch")
+    public List<FavoriteBatchResultDTO> removeAll(@RequestBody List<Integer> tourIds) {
+        logger.info("Received request to remove {} tours from favorites", tourIds.size());
+        return favoriteService.removeAll(tourIds);
+    }
+
     @DeleteMapping("/{tourId}")
     public void remove(@PathVariable int tourId) {
         logger.info("Received request to remove tour {} from favorites", tourId);
         favoriteService.removeByTourId(tourId);
     }
 
+    /**
+     * ETag = версія обраного + версія каталогу (дані турів і назви транспорту):
+     * актуальний If-None-Match дає 304 без звернення до БД.
+     */
     @GetMapping
-    public Page<TourDTO> getAll(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String type,
-            @RequestParam(required = false) String mealOption,
-            @RequestParam(required = false) Integer minDays,
-            @RequestParam(required = false) Integer maxDays,
-            @RequestParam(required = false) Integer minPrice,
-            @RequestParam(required = false) Integer maxPrice,
-            @RequestParam(required = false) Double minRating,
-            @RequestParam(required = false) Double maxRating,
-            @RequestParam(required = false) String transportName,
-            Pageable pageable
-    ) {
+    public ResponseEntity<PageDTO<TourDTO>> getAll(TourFilter filter, Pageable pageable, WebRequest request) {
         logger.info("GET /api/favorites called with filters");
-        return favoriteService.searchFavorites(
-                name, type, mealOption,
-                minDays, maxDays,
-                minPrice, maxPrice,
-                minRating, maxRating,
-                transportName, pageable
-        );
+        String etag = "\"favorites-" + tourService.getCatalogVersion() + "-" + favoriteService.getFavoritesVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PAGE_CACHE_CONTROL)
+                .eTag(etag)
+                .body(PageDTO.of(favoriteService.searchFavorites(filter, pageable)));
     }
 }
@@ -0,0 +1,64 @@
+package com.kursova.kursovaapi.controller;
+
+import com.kursova.kursovaapi.dto.PageDTO;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.ReactiveTourService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивні версії пошуку /api/tours і /api/favorites з тими самими параметрами фільтрів і пагінації
+ * і тим самим конвертом сторінки (PageDTO).
+ *
+ * Spring MVC підписується на Mono/Flux асинхронно: потік Tomcat повертається в пул одразу,
+ * а відповідь дописується, коли R2DBC віддасть дані. Варіанти /stream віддають тури
+ * як server-sent events по одному, без пагінації.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveTourController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTourController.class);
+
+    private final ReactiveTourService reactiveTourService;
+
+    public ReactiveTourController(ReactiveTourService reactiveTourService) {
+        this.reactiveTourService = reactiveTourService;
+    }
+
+    @GetMapping("/tours")
+    public Mono<PageDTO<TourDTO>> getTours(TourFilter filter, Pageable pageable) {
+        logger.info("GET /api/reactive/tours called with filters");
+        return reactiveTourService.searchTours(filter, pageable).map(PageDTO::of);
+    }
+
+    /**
+     * Приклад: curl -N '/api/reactive/tours/stream?type=Beach&sort=price,asc'
+     */
+    @GetMapping(value = "/tours/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<TourDTO> streamTours(TourFilter filter, Sort sort) {
+        logger.info("GET /api/reactive/tours/stream called with filters");
+        return reactiveTourService.streamTours(filter, false, sort);
+    }
+
+    @GetMapping("/favorites")
+    public Mono<PageDTO<TourDTO>> getFavorites(TourFilter filter, Pageable pageable) {
+        logger.info("GET /api/reactive/favorites called with filters");
+        return reactiveTourService.searchFavorites(filter, pageable).map(PageDTO::of);
+    }
+
+    @GetMapping(value = "/favorites/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<TourDTO> streamFavorites(TourFilter filter, Sort sort) {
+        logger.info("GET /api/reactive/favorites/stream called with filters");
+        return reactiveTourService.streamTours(filter, true, sort);
+    }
+}
@@ -1,13 +1,33 @@
 package com.kursova.kursovaapi.controller;
 
+import com.kursova.kursovaapi.dto.PageDTO;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TourImportResultDTO;
+import com.kursova.kursovaapi.dto.TourSliceDTO;
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourDataFormat;
+import com.kursova.kursovaapi.service.TourExportService;
+import com.kursova.kursovaapi.service.TourImportService;
 import com.kursova.kursovaapi.service.TourService;
+import com.kursova.kursovaapi.service.TourSuggestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 
@@ -17,34 +37,103 @@ public class TourController {
 
     private static final Logger logger = LoggerFactory.getLogger(TourController.class);
 
+    // Фасети змінюються рідко: браузер/CDN можуть тримати їх хвилину, далі — ревалідація через ETag
+    private static final CacheControl FACETS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+    // Сторінки турів можна зберігати, але перед використанням — завжди ревалідація (дешева 304 за ETag)
+    private static final CacheControl PAGE_CACHE_CONTROL = CacheControl.noCache();
+
     private final TourService tourService;
+    private final TourSuggestionService tourSuggestionService;
+    private final TourImportService tourImportService;
+    private final TourExportService tourExportService;
+    private final FavoriteService favoriteService;
 
-    public TourController(TourService tourService) {
+    public TourController(
+            TourService tourService,
+            TourSuggestionService tourSuggestionService,
+            TourImportService tourImportService,
+            TourExportService tourExportService,
+            FavoriteService favoriteService
+    ) {
         this.tourService = tourService;
+        this.tourSuggestionService = tourSuggestionService;
+        this.tourImportService = tourImportService;
+        this.tourExportService = tourExportService;
+        this.favoriteService = favoriteService;
     }
 
+    /**
+     * Сторінка турів у компактному конверті PageDTO.
+     * ETag = версія каталогу + версія обраного (тури несуть прапор isFavorite): актуальний If-None-Match
+     * дає 304 без пошуку і без звернень до БД.
+     */
     @GetMapping
-    public Page<TourDTO> getTours(
-            @RequestParam(required = false) String name,
-            @RequestParam(required = false) String type,
-            @RequestParam(required = false) String mealOption,
-            @RequestParam(required = false) Integer minDays,
-            @RequestParam(required = false) Integer maxDays,
-            @RequestParam(required = false) Integer minPrice,
-            @RequestParam(required = false) Integer maxPrice,
-            @RequestParam(required = false) Double minRating,
-            @RequestParam(required = false) Double maxRating,
-            @RequestParam(required = false) String transportName,
-            Pageable pageable
-    ) {
+    public ResponseEntity<PageDTO<TourDTO>> getTours(TourFilter filter, Pageable pageable, WebRequest request) {
         logger.info("GET /api/tours called with filters");
-        return tourService.searchToursWithPaging(
-                name, type, mealOption,
-                minDays, maxDays,
-                minPrice, maxPrice,
-                minRating, maxRating,
-                transportName, pageable
-        );
+        String etag = pageEtag("tours");
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PAGE_CACHE_CONTROL)
+                .eTag(etag)
+                .body(PageDTO.of(tourService.searchToursWithPaging(filter, pageable)));
+    }
+
+    /**
+     * Повнотекстовий пошук за назвою, відсортований за релевантністю.
+     * Приклад: /api/tours/search?q=carp wee&type=Hiking&page=0&size=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PageDTO<TourDTO>> searchTours(
+            @RequestParam String q,
+            TourFilter filter,
+            Pageable pageable,
+            WebRequest request
+    ) {
+        logger.info("GET /api/tours/search called with q='{}'", q);
+        String etag = pageEtag("search");
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(PAGE_CACHE_CONTROL)
+                .eTag(etag)
+                .body(PageDTO.of(tourService.searchByText(q, filter, pageable)));
+    }
+
+    /**
+     * Автодоповнення назви туру: найкращі за рейтингом тури, назва яких починається з q.
+     * Обслуговується з пам'яті, без звернень до БД. Приклад: /api/tours/suggest?q=кар&limit=5
+     */
+    @GetMapping("/suggest")
+    public List<TourSuggestion> suggest(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return tourSuggestionService.suggest(q, limit);
+    }
+
+    /**
+     * Keyset-пагінація для нескінченного скролу: без COUNT(*) і без OFFSET.
+     * Перша сторінка — без after, наступні — з nextCursor з попередньої відповіді.
+     * Приклад: /api/tours/scroll?type=Beach&sort=price,asc&size=20&after=...
+     */
+    @GetMapping("/scroll")
+    public TourSliceDTO scrollTours(
+            TourFilter filter,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort
+    ) {
+        logger.info("GET /api/tours/scroll called with filters");
+        return tourService.scrollTours(filter, after, size, sort);
+    }
+
+    /**
+     * Фасети для фільтрів UI ("Beach (42)") з тими самими параметрами, що й /api/tours.
+     */
+    @GetMapping("/facets")
+    public TourFacetsDTO getFacets(TourFilter filter) {
+        logger.info("GET /api/tours/facets called with filters");
+        return tourService.getFacets(filter);
     }
 
     @PostMapping
@@ -53,15 +142,81 @@ public class TourController {
         return tourService.createTour(dto);
     }
 
+    /**
+     * Масовий імпорт: один тур у JSON на рядок (Content-Type: application/x-ndjson).
+     * Тіло читається потоково, без буферизації цілком. Приклад:
+     * curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @tours.ndjson /api/tours/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public TourImportResultDTO importToursNdjson(InputStream body) throws IOException {
+        logger.info("POST /api/tours/bulk called with NDJSON body");
+        return tourImportService.importTours(body, TourDataFormat.NDJSON);
+    }
+
+    /**
+     * Масовий імпорт з CSV із заголовком name,type,transportId,mealOption,numberOfDays,price,rating
+     * (Content-Type: text/csv).
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public TourImportResultDTO importToursCsv(InputStream body) throws IOException {
+        logger.info("POST /api/tours/bulk called with CSV body");
+        return tourImportService.importTours(body, TourDataFormat.CSV);
+    }
+
+    /**
+     * Потоковий експорт турів з тими самими фільтрами, що й /api/tours, без пагінації і COUNT.
+     * Відповідь пишеться в міру читання курсора БД, тому розмір вибірки не обмежений пам'яттю.
+     * Приклад: /api/tours/export?format=csv&type=Beach
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTours(
+            TourFilter filter,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        logger.info("GET /api/tours/export called with format={}", format);
+        TourDataFormat dataFormat = TourDataFormat.fromParameter(format);
+        StreamingResponseBody body = out -> tourExportService.exportTours(filter, dataFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(dataFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tours." + dataFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * ETag = версія каталогу: якщо клієнт/CDN прислав актуальний If-None-Match,
+     * відповідаємо 304 без звернення до сервісу.
+     */
     @GetMapping("/types")
-    public List<String> getTourTypes() {
+    public ResponseEntity<List<String>> getTourTypes(WebRequest request) {
         logger.info("GET /api/tours/types called");
-        return tourService.getAllTypes();
+        String etag = catalogEtag("types");
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(FACETS_CACHE_CONTROL)
+                .eTag(etag)
+                .body(tourService.getAllTypes());
     }
 
     @GetMapping("/mealOptions")
-    public List<String> getMealOptions() {
+    public ResponseEntity<List<String>> getMealOptions(WebRequest request) {
         logger.info("GET /api/tours/mealOptions called");
-        return tourService.getAllMealOptions();
+        String etag = catalogEtag("mealOptions");
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(FACETS_CACHE_CONTROL)
+                .eTag(etag)
+                .body(tourService.getAllMealOptions());
+    }
+
+    private String catalogEtag(String resource) {
+        return "\"" + resource + "-" + tourService.getCatalogVersion() + "\"";
+    }
+
+    private String pageEtag(String resource) {
+        return "\"" + resource + "-" + tourService.getCatalogVersion() + "-" + favoriteService.getFavoritesVersion() + "\"";
     }
 }
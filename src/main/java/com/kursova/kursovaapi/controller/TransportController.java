@@ -4,7 +4,10 @@ import com.kursova.kursovaapi.dto.TransportDTO;
 import com.kursova.kursovaapi.service.TransportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,16 +18,29 @@ public class TransportController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransportController.class);
 
+    // Зберігати можна, але перед використанням — завжди ревалідація за ETag
+    private static final CacheControl LIST_CACHE_CONTROL = CacheControl.noCache();
+
     private final TransportService service;
 
     public TransportController(TransportService service) {
         this.service = service;
     }
 
+    /**
+     * ETag = версія списку транспорту: актуальний If-None-Match дає 304 без звернення до сервісу.
+     */
     @GetMapping
-    public List<TransportDTO> getAll() {
+    public ResponseEntity<List<TransportDTO>> getAll(WebRequest request) {
         logger.info("GET /api/transports called");
-        return service.getAll();
+        String etag = "\"transports-" + service.getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .cacheControl(LIST_CACHE_CONTROL)
+                .eTag(etag)
+                .body(service.getAll());
     }
 
     @PostMapping
@@ -1,5 +1,8 @@
 package com.kursova.kursovaapi.controller.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -12,4 +15,17 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
     }
+
+    // паралельна зміна того самого запису (застаріла @Version) — 409: клієнт має перечитати дані й повторити
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Resource was modified concurrently, reload and retry");
+    }
+
+    // порушення обмеження БД (наприклад, видалення транспорту, на який посилаються тури) — теж 409;
+    // текст помилки БД клієнту не віддаємо
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Request conflicts with existing data");
+    }
 }
\ No newline at end of file
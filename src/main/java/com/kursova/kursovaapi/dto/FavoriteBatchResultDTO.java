@@ -0,0 +1,25 @@
+package com.kursova.kursovaapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат пакетного додавання/видалення обраного для одного tourId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteBatchResultDTO {
+
+    private int tourId;
+    private Status status;
+
+    public enum Status {
+        ADDED,
+        ALREADY_FAVORITE,
+        REMOVED,
+        NOT_FAVORITE,
+        NOT_FOUND
+    }
+}
@@ -0,0 +1,30 @@
+package com.kursova.kursovaapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Компактна сторінка для JSON-відповідей замість серіалізації PageImpl.
+ * Імена полів ті самі, що й у PageImpl (content, number, size, totalElements, totalPages),
+ * тож клієнти, які читали лише їх, працюють без змін; pageable, sort, first/last тощо не передаються.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <T> PageDTO<T> of(Page<T> page) {
+        return new PageDTO<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
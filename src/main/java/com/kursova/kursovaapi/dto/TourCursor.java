@@ -0,0 +1,49 @@
+package com.kursova.kursovaapi.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Курсор для keyset-пагінації: ключ сортування та ID останнього туру на сторінці.
+ * Клієнт отримує його як непрозорий рядок (Base64URL) і передає назад у параметрі after.
+ */
+public record TourCursor(String sortProperty, Sort.Direction direction, Number sortValue, int id) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Кодує курсор у непрозорий токен.
+     */
+    public String encode() {
+        String raw = sortProperty + SEPARATOR + direction + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодує токен, отриманий від клієнта.
+     * Пошкоджений або підроблений токен — IllegalArgumentException (400).
+     */
+    public static TourCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String sortProperty = parts[0];
+            // rating — double, решта ключів сортування (price, numberOfDays, id) — int.
+            // Не тернарний оператор: він підвищив би Integer до Double.
+            Number sortValue;
+            if ("rating".equals(sortProperty)) {
+                sortValue = Double.valueOf(parts[2]);
+            } else {
+                sortValue = Integer.valueOf(parts[2]);
+            }
+            return new TourCursor(sortProperty, Sort.Direction.valueOf(parts[1]), sortValue, Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException ex) { // у т.ч. NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.kursova.kursovaapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Фасети пошуку турів: скільки турів під поточними фільтрами має кожне значення.
+ * Наприклад, "Beach (42)" у випадаючому списку типів.
+ */
+@Data
+public class TourFacetsDTO {
+
+    private long total;
+    private List<ValueCount> types;
+    private List<ValueCount> mealOptions;
+    private List<ValueCount> transports;
+    private List<RangeCount> price;
+    private List<RangeCount> days;
+    private List<RangeCount> rating;
+
+    /**
+     * Кількість турів з конкретним значенням.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ValueCount {
+        private String value;
+        private long count;
+    }
+
+    /**
+     * Кількість турів у діапазоні [from, to); null — відкрита межа.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RangeCount {
+        private Number from;
+        private Number to;
+        private long count;
+    }
+}
@@ -0,0 +1,26 @@
+package com.kursova.kursovaapi.dto;
+
+/**
+ * Набір фільтрів пошуку турів (query-параметри /api/tours, /api/favorites).
+ * Усі поля необов'язкові: null або порожній рядок означає, що фільтр не застосовується.
+ */
+public record TourFilter(
+        String name,
+        String type,
+        String mealOption,
+        Integer minDays,
+        Integer maxDays,
+        Integer minPrice,
+        Integer maxPrice,
+        Double minRating,
+        Double maxRating,
+        String transportName
+) {
+
+    /**
+     * Фільтр без жодних умов.
+     */
+    public static TourFilter empty() {
+        return new TourFilter(null, null, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.kursova.kursovaapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Підсумок масового імпорту турів: скільки рядків прийнято, скільки відхилено і чому,
+ * а також швидкість імпорту.
+ */
+@Data
+public class TourImportResultDTO {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    // Не більше TourImportService.MAX_REPORTED_ERRORS, щоб відповідь лишалась компактною
+    private List<RowError> errors;
+
+    /**
+     * Помилка конкретного рядка; line — номер рядка у вхідних даних (з 1).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kursova.kursovaapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Сторінка турів для keyset-пагінації (без загальної кількості елементів).
+ * nextCursor передається в параметрі after, щоб отримати наступну сторінку.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourSliceDTO {
+
+    private List<TourDTO> content;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,8 @@
+package com.kursova.kursovaapi.dto;
+
+/**
+ * Підказка для автодоповнення назви туру (/api/tours/suggest).
+ * Містить лише те, що потрібно для випадного списку, без транспорту та інших полів.
+ */
+public record TourSuggestion(int id, String name, double rating) {
+}
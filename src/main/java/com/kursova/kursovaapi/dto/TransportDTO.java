@@ -10,4 +10,6 @@ public class TransportDTO {
 
     private int id;
     private String name;
+    // Версія для PUT: якщо передана й застаріла, зміна відхиляється з 409 замість перезапису чужої
+    private Long version;
 }
@@ -16,8 +16,9 @@ public class FavoriteEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    // Унікальність забезпечує індекс uq_favorite_tour_id (міграція V2)
     @ManyToOne
-    @JoinColumn(name = "tour_id", nullable = false)
+    @JoinColumn(name = "tour_id", nullable = false, unique = true)
     private TourEntity tour;
 
     public FavoriteEntity(TourEntity tour) {
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entity representing a tour.
@@ -31,6 +32,11 @@ public class TourEntity {
     private int price;
     private double rating;
 
+    // Оптимістичне блокування (міграція V4); DEFAULT 0 — для пакетних JDBC-вставок без цієї колонки
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     public TourEntity(String name, String type, TransportEntity transport, String mealOption, Integer numberOfDays, Integer price, Double rating) {
         this.name = name;
         this.type = type;
@@ -4,15 +4,21 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entity representing a transport option.
+ * Може кешуватися другим рівнем кешу Hibernate (лише з профілем l2cache).
  */
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
 @Table(name = "transport")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class TransportEntity {
 
     @Id
@@ -21,6 +27,11 @@ public class TransportEntity {
 
     private String name;
 
+    // Оптимістичне блокування: UPDATE ... WHERE version = ? (міграція V4)
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
     public TransportEntity(String name) {
         this.name = name;
     }
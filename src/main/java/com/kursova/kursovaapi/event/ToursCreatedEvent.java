@@ -0,0 +1,12 @@
+package com.kursova.kursovaapi.event;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+
+import java.util.List;
+
+/**
+ * Подія: у каталог додано нові тури (вже збережені в БД).
+ * На неї підписуються кеші та індекси в пам'яті, щоб оновитися або інвалідуватися.
+ */
+public record ToursCreatedEvent(List<TourDTO> tours) {
+}
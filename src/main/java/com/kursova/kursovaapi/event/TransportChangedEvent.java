@@ -0,0 +1,8 @@
+package com.kursova.kursovaapi.event;
+
+/**
+ * Подія: транспорт перейменовано або видалено. Тури показують і фільтрують за назвою транспорту,
+ * тож кешовані відповіді з турами після неї застарілі.
+ */
+public record TransportChangedEvent(int transportId) {
+}
@@ -0,0 +1,165 @@
+package com.kursova.kursovaapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import ch.qos.logback.core.util.Duration;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Збирає ERROR-події і раз на flushInterval передає їх приєднаним апендерам (SMTP) одним пакетом.
+ *
+ * Потік запиту лише кладе подію в обмежену чергу, без блокувань і мережі. Пакет завершується
+ * підсумковою подією з маркером DIGEST_MARKER: SMTPAppender з OnMarkerEvaluator надсилає лист
+ * саме на ній, разом з накопиченими в буфері помилками. Отже, не більше одного листа за інтервал
+ * і не більше maxEventsPerDigest помилок у ньому; решта лише рахується в підсумку.
+ */
+public class ErrorDigestAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String DIGEST_MARKER_NAME = "ERROR_DIGEST";
+    public static final Marker DIGEST_MARKER = MarkerFactory.getMarker(DIGEST_MARKER_NAME);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private Duration flushInterval = Duration.buildByMinutes(5);
+    private int maxEventsPerDigest = 50;
+
+    private BlockingQueue<ILoggingEvent> queue;
+    private ScheduledFuture<?> flushTask;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No appenders attached to " + getName());
+            return;
+        }
+        if (maxEventsPerDigest < 1) {
+            addError("maxEventsPerDigest must be positive");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(maxEventsPerDigest);
+        long intervalMillis = flushInterval.getMilliseconds();
+        flushTask = getContext().getScheduledExecutorService()
+                .scheduleAtFixedRate(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        getContext().addScheduledFuture(flushTask);
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        flushTask.cancel(false);
+        // Помилки останнього інтервалу не губляться при зупинці застосунку
+        flush();
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // MDC, ім'я потоку й аргументи фіксуються зараз: подію обробить інший потік
+        event.prepareForDeferredProcessing();
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Передає накопичені помилки і підсумок приєднаним апендерам; без помилок нічого не робить.
+     */
+    synchronized void flush() {
+        List<ILoggingEvent> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        long droppedEvents = dropped.getAndSet(0);
+        if (batch.isEmpty() && droppedEvents == 0) {
+            return;
+        }
+        for (ILoggingEvent event : batch) {
+            appenders.appendLoopOnAppenders(event);
+        }
+        appenders.appendLoopOnAppenders(summary(batch.size(), droppedEvents));
+    }
+
+    private ILoggingEvent summary(int reported, long droppedEvents) {
+        LoggerContext loggerContext = (LoggerContext) getContext();
+        LoggingEvent summary = new LoggingEvent(ErrorDigestAppender.class.getName(),
+                loggerContext.getLogger(ErrorDigestAppender.class), Level.ERROR,
+                "{} errors in the last {}, {} more not included",
+                null, new Object[]{reported + droppedEvents, flushInterval, droppedEvents});
+        summary.addMarker(DIGEST_MARKER);
+        return summary;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setMaxEventsPerDigest(int maxEventsPerDigest) {
+        this.maxEventsPerDigest = maxEventsPerDigest;
+    }
+
+    public int getMaxEventsPerDigest() {
+        return maxEventsPerDigest;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,42 @@
+package com.kursova.kursovaapi.logging;
+
+import com.kursova.kursovaapi.dto.TourFilter;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Додає задані поля TourFilter до лог-події як пари ключ/значення (name=..., minPrice=...).
+ *
+ * Рядок не будується: у текстовому лозі пари виводить %kvp, у JSON-профілі вони стають полями.
+ * Якщо рівень вимкнено, logger.atInfo() повертає NOP-білдер, і виклик нічого не виділяє.
+ */
+public final class FilterLogging {
+
+    private FilterLogging() {
+    }
+
+    public static LoggingEventBuilder withFilter(LoggingEventBuilder event, TourFilter filter) {
+        addText(event, "name", filter.name());
+        addText(event, "type", filter.type());
+        addText(event, "mealOption", filter.mealOption());
+        addText(event, "transportName", filter.transportName());
+        addValue(event, "minDays", filter.minDays());
+        addValue(event, "maxDays", filter.maxDays());
+        addValue(event, "minPrice", filter.minPrice());
+        addValue(event, "maxPrice", filter.maxPrice());
+        addValue(event, "minRating", filter.minRating());
+        addValue(event, "maxRating", filter.maxRating());
+        return event;
+    }
+
+    private static void addText(LoggingEventBuilder event, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            event.addKeyValue(key, value);
+        }
+    }
+
+    private static void addValue(LoggingEventBuilder event, String key, Object value) {
+        if (value != null) {
+            event.addKeyValue(key, value);
+        }
+    }
+}
@@ -16,6 +16,7 @@ public final class TransportMapper {
         TransportDTO dto = new TransportDTO();
         dto.setId(entity.getId());
         dto.setName(entity.getName());
+        dto.setVersion(entity.getVersion());
         return dto;
     }
 
@@ -0,0 +1,94 @@
+package com.kursova.kursovaapi.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Рахує SQL кожного запиту (QueryStats), повертає підсумок у заголовку Server-Timing
+ * і пише WARN, якщо запит вийшов за QueryBudgetProperties.
+ *
+ * Заголовок додається перед першим байтом тіла, тобто враховує все, що виконалося до серіалізації.
+ * Для потокових відповідей (експорт, SSE) рахується лише робота до початку стріму.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties budget;
+
+    public QueryBudgetFilter(QueryBudgetProperties budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, stats);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            QueryStats.end();
+            // Відповіді без тіла (204, redirect) — заголовок ще можна додати тут
+            timedResponse.addServerTiming();
+            if (budget.isExceededBy(stats)) {
+                logger.atWarn()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", request.getRequestURI())
+                        .addKeyValue("query", request.getQueryString())
+                        .addKeyValue("statements", stats.getStatements())
+                        .addKeyValue("rows", stats.getRows())
+                        .addKeyValue("jdbcMillis", stats.getJdbcMillis())
+                        .log("Query budget exceeded");
+            }
+        }
+    }
+
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean timingAdded;
+
+        ServerTimingResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        void addServerTiming() {
+            if (!timingAdded && !isCommitted()) {
+                setHeader(SERVER_TIMING, stats.toServerTiming());
+            }
+            timingAdded = true;
+        }
+    }
+}
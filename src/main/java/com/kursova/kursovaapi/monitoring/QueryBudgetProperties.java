@@ -0,0 +1,28 @@
+package com.kursova.kursovaapi.monitoring;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Бюджет JDBC на один HTTP-запит до /api/** (app.query-budget.*).
+ * Перевищення будь-якої межі — WARN "Query budget exceeded" з фактичними значеннями.
+ *
+ * @param maxStatements SQL-виразів на запит; сторінка турів — 2 (SELECT + COUNT), більше зазвичай означає N+1
+ * @param maxRows       рядків, прочитаних з усіх ResultSet
+ * @param maxJdbcTime   сумарний час виконання SQL
+ */
+@ConfigurationProperties("app.query-budget")
+public record QueryBudgetProperties(
+        @DefaultValue("10") int maxStatements,
+        @DefaultValue("1000") long maxRows,
+        @DefaultValue("500ms") Duration maxJdbcTime
+) {
+
+    boolean isExceededBy(QueryStats stats) {
+        return stats.getStatements() > maxStatements
+                || stats.getRows() > maxRows
+                || stats.getJdbcMillis() > maxJdbcTime.toMillis();
+    }
+}
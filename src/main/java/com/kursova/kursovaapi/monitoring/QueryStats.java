@@ -0,0 +1,68 @@
+package com.kursova.kursovaapi.monitoring;
+
+/**
+ * Лічильники JDBC поточного HTTP-запиту: кількість SQL-виразів, прочитаних рядків і сумарний час JDBC.
+ *
+ * Прив'язані до потоку, що обробляє запит (QueryBudgetFilter відкриває й закриває їх);
+ * заповнює QueryStatsListener з обгортки DataSource. Запити поза HTTP (старт, планувальник,
+ * асинхронний експорт в іншому потоці) нікуди не рахуються.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcMillis;
+
+    QueryStats() {
+    }
+
+    /**
+     * Лічильники поточного запиту або null, якщо потік не обробляє HTTP-запит.
+     */
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(long elapsedMillis) {
+        statements++;
+        jdbcMillis += elapsedMillis;
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcMillis() {
+        return jdbcMillis;
+    }
+
+    /**
+     * Значення заголовка Server-Timing: час JDBC як dur, кількості — в desc
+     * (DevTools показує їх у вкладці Timing запиту).
+     */
+    String toServerTiming() {
+        return "db;dur=" + jdbcMillis
+                + ", db-statements;desc=\"" + statements + "\""
+                + ", db-rows;desc=\"" + rows + "\"";
+    }
+}
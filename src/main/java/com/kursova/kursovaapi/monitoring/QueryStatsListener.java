@@ -0,0 +1,31 @@
+package com.kursova.kursovaapi.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+
+import java.util.List;
+
+/**
+ * Слухач datasource-proxy: кожне виконання Statement (пакет — як один вираз) і кожен
+ * успішний ResultSet.next() дописуються в QueryStats поточного HTTP-запиту.
+ */
+public class QueryStatsListener extends JdbcLifecycleEventListenerAdapter {
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.recordStatement(execInfo.getElapsedTime());
+        }
+    }
+
+    @Override
+    public void afterNext(MethodExecutionContext executionContext) {
+        QueryStats stats = QueryStats.current();
+        if (stats != null && Boolean.TRUE.equals(executionContext.getResult())) {
+            stats.recordRow();
+        }
+    }
+}
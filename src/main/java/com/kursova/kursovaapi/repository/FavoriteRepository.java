@@ -1,16 +1,28 @@
 package com.kursova.kursovaapi.repository;
 
 import com.kursova.kursovaapi.entity.FavoriteEntity;
+import com.kursova.kursovaapi.repository.custom.FavoriteBatchRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 
-public interface FavoriteRepository extends JpaRepository<FavoriteEntity, Integer> {
+public interface FavoriteRepository extends JpaRepository<FavoriteEntity, Integer>, FavoriteBatchRepository {
+
+    // Тур і його транспорт завантажуються одним запитом замість 1 + N + N
+    @Override
+    @EntityGraph(attributePaths = {"tour", "tour.transport"})
+    List<FavoriteEntity> findAll();
 
     boolean existsByTour_Id(int tourId);
 
+    // Лише ID турів — без завантаження самих сутностей (для FavoriteIdIndex)
+    @Query("SELECT f.tour.id FROM FavoriteEntity f")
+    List<Integer> findAllTourIds();
+
 
 //    @Modifying — обов’язковий для DML-запитів (DELETE, UPDATE).
     @Modifying
@@ -1,14 +1,43 @@
 package com.kursova.kursovaapi.repository;
 
+import com.kursova.kursovaapi.dto.TourSuggestion;
 import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.repository.custom.TourBatchInsertRepository;
+import com.kursova.kursovaapi.repository.custom.TourExportRepository;
+import com.kursova.kursovaapi.repository.custom.TourFacetRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 
-public interface TourRepository extends JpaRepository<TourEntity, Integer>, JpaSpecificationExecutor<TourEntity> {
+public interface TourRepository extends JpaRepository<TourEntity, Integer>, JpaSpecificationExecutor<TourEntity>,
+        TourFacetRepository, TourBatchInsertRepository, TourExportRepository {
+
+    // transport підтягується тим самим SELECT (LEFT JOIN), щоб TourMapper.toDto
+    // не робив окремий запит на кожен тур сторінки (N+1). COUNT-запит графа не отримує.
+    @Override
+    @EntityGraph(attributePaths = "transport")
+    Page<TourEntity> findAll(Specification<TourEntity> spec, Pageable pageable);
+
+    // Лише id, назва й рейтинг — для індексу автодоповнення, без завантаження сутностей
+    @Query("SELECT new com.kursova.kursovaapi.dto.TourSuggestion(t.id, t.name, t.rating) FROM TourEntity t WHERE t.name IS NOT NULL")
+    List<TourSuggestion> findAllSuggestions();
+
+    // Які з переданих ID існують — одним IN-запитом (перевірка пакетного додавання в обране)
+    @Query("SELECT t.id FROM TourEntity t WHERE t.id IN :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    // Тури сторінки з кешу результатів пошуку (TourSearchCache): один SELECT за первинним ключем разом із транспортом
+    @EntityGraph(attributePaths = "transport")
+    List<TourEntity> findWithTransportByIdIn(Collection<Integer> ids);
 
     @Query("SELECT DISTINCT t.type FROM TourEntity t")
     List<String> findAllDistinctTypes();
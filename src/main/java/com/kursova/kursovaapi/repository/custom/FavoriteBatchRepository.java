@@ -0,0 +1,21 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import java.util.List;
+
+/**
+ * Фрагмент репозиторію обраних для пакетних змін (реалізація — FavoriteBatchRepositoryImpl).
+ * Результат — кількість змінених рядків для кожного tourId у тому ж порядку: 1 або 0.
+ */
+public interface FavoriteBatchRepository {
+
+    /**
+     * Додає тури в обране одним JDBC-батчем; 0 — тур уже був в обраному.
+     * Тури мають існувати (tour_id — зовнішній ключ).
+     */
+    int[] insertIgnoringDuplicates(List<Integer> tourIds);
+
+    /**
+     * Видаляє тури з обраного одним JDBC-батчем; 0 — туру в обраному не було.
+     */
+    int[] deleteByTourIds(List<Integer> tourIds);
+}
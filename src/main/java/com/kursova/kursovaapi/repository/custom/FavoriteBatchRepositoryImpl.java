@@ -0,0 +1,44 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Пакетні INSERT/DELETE обраних через JdbcTemplate.batchUpdate: увесь список — один executeBatch,
+ * а лічильники рядків кажуть, що сталося з кожним tourId.
+ *
+ * ON CONFLICT DO NOTHING спирається на унікальний індекс uq_favorite_tour_id (V2): паралельні
+ * додавання того самого туру не створюють дублікатів і не падають, другий просто отримує 0.
+ * Ціль конфлікту не вказана, бо інших унікальних обмежень, крім id, немає (і так розуміє H2 у тестах).
+ */
+public class FavoriteBatchRepositoryImpl implements FavoriteBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO favorite (tour_id) VALUES (?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_SQL = "DELETE FROM favorite WHERE tour_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FavoriteBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] insertIgnoringDuplicates(List<Integer> tourIds) {
+        return executeBatch(INSERT_SQL, tourIds);
+    }
+
+    @Override
+    public int[] deleteByTourIds(List<Integer> tourIds) {
+        return executeBatch(DELETE_SQL, tourIds);
+    }
+
+    private int[] executeBatch(String sql, List<Integer> tourIds) {
+        if (tourIds.isEmpty()) {
+            return new int[0];
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, tourIds, tourIds.size(),
+                (ps, tourId) -> ps.setInt(1, tourId));
+        return counts[0];
+    }
+}
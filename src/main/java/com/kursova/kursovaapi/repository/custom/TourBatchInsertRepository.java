@@ -0,0 +1,17 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+
+import java.util.List;
+
+/**
+ * Фрагмент репозиторію турів для масового імпорту (реалізація — TourBatchInsertRepositoryImpl).
+ */
+public interface TourBatchInsertRepository {
+
+    /**
+     * Вставляє тури одним JDBC-батчем, оминаючи Hibernate.
+     * Після виклику кожен DTO має згенерований id.
+     */
+    void insertAll(List<TourDTO> tours);
+}
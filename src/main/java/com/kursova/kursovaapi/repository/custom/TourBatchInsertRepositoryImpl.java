@@ -0,0 +1,67 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Масова вставка турів через JdbcTemplate.batchUpdate.
+ * Hibernate не батчить INSERT-и для GenerationType.IDENTITY (після кожного потрібен id),
+ * тому імпорт іде повз EntityManager: увесь батч надсилається одним JDBC executeBatch,
+ * а згенеровані id повертаються через RETURNING id.
+ */
+public class TourBatchInsertRepositoryImpl implements TourBatchInsertRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO tour (name, type, transport_id, meal_option, number_of_days, price, rating)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TourBatchInsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<TourDTO> tours) {
+        if (tours.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TourDTO tour = tours.get(i);
+                        ps.setString(1, tour.getName());
+                        ps.setString(2, tour.getType());
+                        ps.setInt(3, tour.getTransportId());
+                        ps.setString(4, tour.getMealOption());
+                        ps.setInt(5, tour.getNumberOfDays());
+                        ps.setInt(6, tour.getPrice());
+                        ps.setDouble(7, tour.getRating());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tours.size();
+                    }
+                },
+                keyHolder);
+
+        // Ключі повертаються в порядку рядків батчу
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < tours.size(); i++) {
+            tours.get(i).setId(((Number) keys.get(i).get("id")).intValue());
+        }
+    }
+}
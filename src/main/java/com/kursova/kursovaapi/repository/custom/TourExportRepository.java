@@ -0,0 +1,19 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Consumer;
+
+/**
+ * Фрагмент репозиторію турів для потокового експорту (реалізація — TourExportRepositoryImpl).
+ */
+public interface TourExportRepository {
+
+    /**
+     * Передає в action кожен тур, що відповідає spec, у порядку id, читаючи їх курсором БД порціями.
+     * Тур доступний лише всередині action: контекст персистентності періодично очищається.
+     * Потребує відкритої транзакції (інакше PostgreSQL ігнорує fetch size). Повертає кількість турів.
+     */
+    long forEachMatching(Specification<TourEntity> spec, Consumer<TourEntity> action);
+}
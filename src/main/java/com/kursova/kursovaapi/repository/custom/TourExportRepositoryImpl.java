@@ -0,0 +1,58 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Потоковий обхід турів через getResultStream() (під капотом — Hibernate ScrollableResults).
+ * Драйвер тримає в пам'яті лише FETCH_SIZE рядків, а контекст персистентності очищається
+ * кожні CLEAR_INTERVAL турів, тому пам'ять не залежить від кількості турів у вибірці.
+ */
+public class TourExportRepositoryImpl implements TourExportRepository {
+
+    static final int FETCH_SIZE = 500;
+    static final int CLEAR_INTERVAL = 1_000;
+
+    private final EntityManager entityManager;
+
+    public TourExportRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public long forEachMatching(Specification<TourEntity> spec, Consumer<TourEntity> action) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TourEntity> query = cb.createQuery(TourEntity.class);
+        Root<TourEntity> root = query.from(TourEntity.class);
+        Predicate predicate = spec.and(TourSpecification.fetchTransport()).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id"))); // стабільний порядок, по індексу первинного ключа
+
+        long count = 0;
+        try (Stream<TourEntity> tours = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true) // без знімків для dirty checking
+                .getResultStream()) {
+            Iterator<TourEntity> iterator = tours.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear(); // відпускаємо вже оброблені тури й транспорти
+                }
+            }
+        }
+        return count;
+    }
+}
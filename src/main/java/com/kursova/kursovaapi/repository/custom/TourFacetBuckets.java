@@ -0,0 +1,15 @@
+package com.kursova.kursovaapi.repository.custom;
+
+/**
+ * Межі діапазонів для фасетів ціни, тривалості та рейтингу.
+ * Діапазон i — це [межа i-1, межа i); перший і останній діапазони відкриті.
+ */
+public final class TourFacetBuckets {
+
+    public static final int[] PRICE = {500, 1000, 2000, 5000};
+    public static final int[] DAYS = {4, 8, 15};
+    public static final double[] RATING = {3.0, 4.0, 4.5};
+
+    private TourFacetBuckets() {
+    }
+}
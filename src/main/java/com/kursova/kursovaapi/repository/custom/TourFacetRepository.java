@@ -0,0 +1,19 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Фрагмент репозиторію турів для підрахунку фасетів (реалізація — TourFacetRepositoryImpl).
+ */
+public interface TourFacetRepository {
+
+    /**
+     * Окремий GROUP BY для кожного фасету (тип, харчування, транспорт, діапазони ціни/днів/рейтингу)
+     * серед турів, що відповідають spec, об'єднані в один запит через UNION ALL.
+     * Рядків стільки, скільки різних значень у всіх фасетах разом, а не комбінацій значень.
+     */
+    List<TourFacetRow> countFacets(Specification<TourEntity> spec);
+}
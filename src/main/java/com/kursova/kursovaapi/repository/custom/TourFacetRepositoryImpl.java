@@ -0,0 +1,113 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Реалізація підрахунку фасетів через Criteria API.
+ * Spring Data знаходить цей клас за суфіксом Impl і підмішує його в TourRepository.
+ *
+ * GROUP BY за всіма шістьма вимірами одразу повертав би рядок на кожну комбінацію значень
+ * (на великому каталозі — майже рядок на тур). Тому кожен фасет групується окремо, а підзапити
+ * об'єднуються UNION ALL: один запит до БД, а рядків — сума кількостей різних значень фасетів.
+ * GROUPING SETS дав би те саме, але його немає ні в Criteria API/HQL, ні в H2 для тестів.
+ */
+public class TourFacetRepositoryImpl implements TourFacetRepository {
+
+    // Заглушки для «чужої» колонки підзапиту. Не NULL: PostgreSQL не виводить тип голого NULL
+    // у колонці UNION (text проти integer), а CAST(NULL AS ...) Hibernate прибирає з SQL
+    private static final int NO_BUCKET = -1;
+    private static final String NO_VALUE = "";
+
+    private final EntityManager entityManager;
+
+    public TourFacetRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TourFacetRow> countFacets(Specification<TourEntity> spec) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+
+        JpaCriteriaQuery<Tuple> query = cb.unionAll(
+                valueFacet(cb, spec, TourFacetRow.Facet.TYPE, root -> root.get("type")),
+                valueFacet(cb, spec, TourFacetRow.Facet.MEAL_OPTION, root -> root.get("mealOption")),
+                valueFacet(cb, spec, TourFacetRow.Facet.TRANSPORT,
+                        root -> root.<TourEntity, TransportEntity>join("transport", JoinType.LEFT).get("name")),
+                // SQL: CASE WHEN price < 500 THEN 0 WHEN price < 1000 THEN 1 ... ELSE n END
+                bucketFacet(cb, spec, TourFacetRow.Facet.PRICE,
+                        root -> intBucket(cb, root.get("price"), TourFacetBuckets.PRICE)),
+                bucketFacet(cb, spec, TourFacetRow.Facet.DAYS,
+                        root -> intBucket(cb, root.get("numberOfDays"), TourFacetBuckets.DAYS)),
+                bucketFacet(cb, spec, TourFacetRow.Facet.RATING,
+                        root -> doubleBucket(cb, root.get("rating"), TourFacetBuckets.RATING)));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> {
+                    TourFacetRow.Facet facet = TourFacetRow.Facet.values()[tuple.get(0, Integer.class)];
+                    return new TourFacetRow(
+                            facet,
+                            facet.isRange() ? null : tuple.get(1, String.class),
+                            facet.isRange() ? tuple.get(2, Integer.class) : null,
+                            tuple.get(3, Long.class));
+                })
+                .toList();
+    }
+
+    // SELECT <мітка фасету>, value, -1, COUNT(*) ... GROUP BY value
+    private static CriteriaQuery<Tuple> valueFacet(CriteriaBuilder cb, Specification<TourEntity> spec,
+                                                   TourFacetRow.Facet facet,
+                                                   Function<Root<TourEntity>, Expression<String>> value) {
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TourEntity> root = query.from(TourEntity.class);
+        Expression<String> group = value.apply(root);
+        query.multiselect(cb.literal(facet.ordinal()), group, cb.literal(NO_BUCKET), cb.count(root));
+        return where(cb, spec, query, root).groupBy(group);
+    }
+
+    // SELECT <мітка фасету>, '', bucket, COUNT(*) ... GROUP BY bucket
+    private static CriteriaQuery<Tuple> bucketFacet(CriteriaBuilder cb, Specification<TourEntity> spec,
+                                                    TourFacetRow.Facet facet,
+                                                    Function<Root<TourEntity>, Expression<Integer>> bucket) {
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<TourEntity> root = query.from(TourEntity.class);
+        Expression<Integer> group = bucket.apply(root);
+        query.multiselect(cb.literal(facet.ordinal()), cb.literal(NO_VALUE), group, cb.count(root));
+        return where(cb, spec, query, root).groupBy(group);
+    }
+
+    private static CriteriaQuery<Tuple> where(CriteriaBuilder cb, Specification<TourEntity> spec,
+                                              CriteriaQuery<Tuple> query, Root<TourEntity> root) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query;
+    }
+
+    // cb.literal(...) вбудовується в SQL як константа, тому CASE у SELECT і GROUP BY збігаються
+    private static Expression<Integer> intBucket(CriteriaBuilder cb, Expression<Integer> value, int[] bounds) {
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < bounds.length; i++) {
+            bucket = bucket.when(cb.lessThan(value, cb.literal(bounds[i])), cb.literal(i));
+        }
+        return bucket.otherwise(cb.literal(bounds.length));
+    }
+
+    private static Expression<Integer> doubleBucket(CriteriaBuilder cb, Expression<Double> value, double[] bounds) {
+        CriteriaBuilder.Case<Integer> bucket = cb.selectCase();
+        for (int i = 0; i < bounds.length; i++) {
+            bucket = bucket.when(cb.lessThan(value, cb.literal(bounds[i])), cb.literal(i));
+        }
+        return bucket.otherwise(cb.literal(bounds.length));
+    }
+}
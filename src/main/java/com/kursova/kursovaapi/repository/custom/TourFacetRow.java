@@ -0,0 +1,28 @@
+package com.kursova.kursovaapi.repository.custom;
+
+/**
+ * Один рядок facet-запиту: значення одного фасету і кількість турів з ним.
+ * Для TYPE, MEAL_OPTION і TRANSPORT заповнене value, для діапазонів — bucket
+ * (індекс діапазону з TourFacetBuckets).
+ */
+public record TourFacetRow(
+        Facet facet,
+        String value,
+        Integer bucket,
+        long count
+) {
+
+    /**
+     * Фасет, до якого належить рядок; порядковий номер передається в SQL як мітка підзапиту.
+     */
+    public enum Facet {
+        TYPE, MEAL_OPTION, TRANSPORT, PRICE, DAYS, RATING;
+
+        /**
+         * Чи рахується фасет за діапазонами (bucket), а не за значеннями (value).
+         */
+        public boolean isRange() {
+            return this == PRICE || this == DAYS || this == RATING;
+        }
+    }
+}
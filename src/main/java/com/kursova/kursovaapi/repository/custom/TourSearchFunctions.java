@@ -0,0 +1,35 @@
+package com.kursova.kursovaapi.repository.custom;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Реєструє в Hibernate функції повнотекстового пошуку PostgreSQL, щоб їх можна було
+ * викликати з Criteria API (cb.function(...)) у TourSpecification.
+ *
+ * Вираз to_tsvector('simple', name) збігається з індексом idx_tour_name_fts (міграція V3),
+ * тому планувальник використовує GIN-індекс замість повного сканування.
+ * Підключається через META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class TourSearchFunctions implements FunctionContributor {
+
+    public static final String MATCH = "fts_match";
+    public static final String RANK = "fts_rank";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        // fts_match(text, tsquery) -> to_tsvector(...) @@ to_tsquery(...)
+        functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                "(to_tsvector('simple', ?1) @@ to_tsquery('simple', ?2))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        // fts_rank(text, tsquery) -> релевантність для ORDER BY
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank(to_tsvector('simple', ?1), to_tsquery('simple', ?2))",
+                types.resolve(StandardBasicTypes.FLOAT));
+    }
+}
@@ -1,6 +1,14 @@
 package com.kursova.kursovaapi.repository.custom;
 
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.FavoriteEntity;
 import com.kursova.kursovaapi.entity.TourEntity;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
@@ -12,10 +20,30 @@ import org.springframework.util.StringUtils;
  */
 public final class TourSpecification {
 
+    // Обмеження кількості слів у повнотекстовому запиті (захист від дуже довгих запитів)
+    private static final int MAX_SEARCH_TERMS = 8;
+
     // Приватний конструктор забороняє створення об'єктів цього класу
     private TourSpecification() {
     }
 
+    /**
+     * Поєднує всі фільтри з TourFilter через AND.
+     * Фільтри зі значенням null ігноруються.
+     */
+    public static Specification<TourEntity> matching(TourFilter filter) {
+        return Specification.where(nameContains(filter.name()))
+                .and(hasType(filter.type()))
+                .and(hasMealOption(filter.mealOption()))
+                .and(minDays(filter.minDays()))
+                .and(maxDays(filter.maxDays()))
+                .and(minPrice(filter.minPrice()))
+                .and(maxPrice(filter.maxPrice()))
+                .and(minRating(filter.minRating()))
+                .and(maxRating(filter.maxRating()))
+                .and(hasTransportName(filter.transportName()));
+    }
+
     /**
      * Повертає умову: назва туру містить заданий текст (регістр не враховується).
      */
@@ -30,6 +58,77 @@ public final class TourSpecification {
         };
     }
 
+    /**
+     * Повертає умову: назва туру містить усі слова запиту як префікси (повнотекстовий пошук).
+     * На відміну від nameContains, працює через GIN-індекс, а не LIKE '%x%'.
+     */
+    public static Specification<TourEntity> nameMatches(String text) {
+        return (root, query, cb) -> {
+            String tsQuery = toPrefixTsQuery(text);
+            if (tsQuery == null) {
+                return null;
+            }
+            // SQL: to_tsvector('simple', name) @@ to_tsquery('simple', ?)
+            return cb.isTrue(cb.function(TourSearchFunctions.MATCH, Boolean.class,
+                    root.get("name"), tsQueryParameter(cb, tsQuery)));
+        };
+    }
+
+    /**
+     * Не фільтр, а сортування: спершу найрелевантніші до запиту тури, далі за id.
+     * Застосовується лише тоді, коли клієнт не задав власне сортування.
+     */
+    public static Specification<TourEntity> orderByRelevance(String text) {
+        return (root, query, cb) -> {
+            String tsQuery = toPrefixTsQuery(text);
+            // COUNT-запит сортування не потребує
+            if (tsQuery != null
+                    && !Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function(TourSearchFunctions.RANK, Float.class, root.get("name"), tsQueryParameter(cb, tsQuery))),
+                        cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * tsquery як параметр запиту, а не літерал: текст SQL однаковий для будь-якого пошуку,
+     * тож Hibernate і драйвер повторно використовують розібраний запит і prepared statement.
+     * У стандартному JPA cb.parameter() потребує setParameter(), недоступного зі Specification,
+     * тому використовується value() з HibernateCriteriaBuilder.
+     */
+    private static Expression<String> tsQueryParameter(CriteriaBuilder cb, String tsQuery) {
+        return ((HibernateCriteriaBuilder) cb).value(tsQuery);
+    }
+
+    /**
+     * Перетворює текст користувача на префіксний tsquery: "Карпати wee" -> "карпати:* & wee:*".
+     * Усі символи, крім літер і цифр, відкидаються, тож синтаксис to_tsquery не зламається.
+     * Повертає null, якщо в тексті немає жодного слова.
+     */
+    public static String toPrefixTsQuery(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        StringBuilder tsQuery = new StringBuilder();
+        int terms = 0;
+        for (String term : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (terms == MAX_SEARCH_TERMS) {
+                break;
+            }
+            if (terms > 0) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(term).append(":*");
+            terms++;
+        }
+        return terms == 0 ? null : tsQuery.toString();
+    }
+
     /**
      * Повертає умову: тип туру точно дорівнює заданому (регістр не враховується).
      */
@@ -115,4 +214,33 @@ public final class TourSpecification {
             return cb.equal(cb.lower(root.join("transport").get("name")), transportName.toLowerCase());
         };
     }
+
+    /**
+     * Повертає умову: тур знаходиться в обраному.
+     * Фільтрація відбувається в БД, тому пагінація й COUNT теж рахуються там.
+     */
+    public static Specification<TourEntity> isFavorite() {
+        return (root, query, cb) -> {
+            // SQL: EXISTS (SELECT f.id FROM favorite f WHERE f.tour_id = tour.id)
+            Subquery<Integer> favorite = query.subquery(Integer.class);
+            Root<FavoriteEntity> favoriteRoot = favorite.from(FavoriteEntity.class);
+            favorite.select(favoriteRoot.get("id"))
+                    .where(cb.equal(favoriteRoot.get("tour"), root));
+            return cb.exists(favorite);
+        };
+    }
+
+    /**
+     * Не фільтр, а підказка: завантажити transport тим самим SELECT (LEFT JOIN FETCH).
+     * Для запитів, де @EntityGraph репозиторію не застосовується (наприклад, keyset scroll).
+     */
+    public static Specification<TourEntity> fetchTransport() {
+        return (root, query, cb) -> {
+            // COUNT-запит не може містити fetch join
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("transport", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
 }
@@ -0,0 +1,186 @@
+package com.kursova.kursovaapi.repository.reactive;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import io.r2dbc.spi.Readable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Неблокуюче читання турів через R2DBC (таблиці tour, transport і favorite).
+ *
+ * Фільтри ті самі, що й у TourSpecification.matching, але SQL будується вручну:
+ * JPA-специфікації працюють лише з блокуючим EntityManager. Результат одразу мапиться в TourDTO
+ * разом з назвою транспорту та ознакою isFavorite, тож додаткових запитів на тур немає.
+ */
+@Repository
+public class ReactiveTourRepository {
+
+    // Скільки рядків PostgreSQL віддає за раз під час стрімінгу (решта чекає на запит підписника)
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String SELECT = """
+            SELECT t.id, t.name, t.type, t.transport_id, t.meal_option, t.number_of_days, t.price, t.rating,
+                   tr.name AS transport_name, f.id IS NOT NULL AS is_favorite
+            """;
+
+    // favorite.tour_id унікальний, тож LEFT JOIN не дублює тури
+    private static final String FROM = """
+            FROM tour t
+            LEFT JOIN transport tr ON tr.id = t.transport_id
+            LEFT JOIN favorite f ON f.tour_id = t.id
+            """;
+
+    // Властивості для sort=... (як у TourDTO/TourEntity) -> колонки; інші відхиляються, а не підставляються в SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "t.id",
+            "name", "t.name",
+            "type", "t.type",
+            "mealOption", "t.meal_option",
+            "numberOfDays", "t.number_of_days",
+            "price", "t.price",
+            "rating", "t.rating",
+            "transportName", "tr.name",
+            "transport.name", "tr.name");
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTourRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Одна сторінка турів, що відповідають фільтру; favoritesOnly залишає лише тури з обраного.
+     */
+    public Flux<TourDTO> findPage(TourFilter filter, boolean favoritesOnly, Pageable pageable) {
+        Where where = Where.of(filter, favoritesOnly);
+        String sql = SELECT + FROM + where.sql() + orderBy(pageable.getSort());
+        if (pageable.isPaged()) {
+            sql += " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset();
+        }
+        return where.bind(databaseClient.sql(sql))
+                .map(ReactiveTourRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Кількість турів, що відповідають фільтру (для totalElements сторінки).
+     */
+    public Mono<Long> count(TourFilter filter, boolean favoritesOnly) {
+        Where where = Where.of(filter, favoritesOnly);
+        return where.bind(databaseClient.sql("SELECT COUNT(*) AS total " + FROM + where.sql()))
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    /**
+     * Усі тури, що відповідають фільтру, без пагінації. Рядки читаються порціями по STREAM_FETCH_SIZE
+     * у темпі підписника, тому повільний клієнт не змушує тримати всю вибірку в пам'яті.
+     */
+    public Flux<TourDTO> stream(TourFilter filter, boolean favoritesOnly, Sort sort) {
+        Where where = Where.of(filter, favoritesOnly);
+        return where.bind(databaseClient.sql(SELECT + FROM + where.sql() + orderBy(sort)))
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactiveTourRepository::toDto)
+                .all();
+    }
+
+    /**
+     * ORDER BY за дозволеними властивостями; id в кінці робить порядок однозначним для OFFSET.
+     */
+    static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        boolean byId = false;
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orderBy.add(column + (order.isAscending() ? " ASC" : " DESC"));
+            byId |= column.equals("t.id");
+        }
+        if (!byId) {
+            orderBy.add("t.id ASC");
+        }
+        return orderBy.toString();
+    }
+
+    private static TourDTO toDto(Readable row) {
+        TourDTO dto = new TourDTO();
+        dto.setId(row.get("id", Integer.class));
+        dto.setName(row.get("name", String.class));
+        dto.setType(row.get("type", String.class));
+        Integer transportId = row.get("transport_id", Integer.class);
+        dto.setTransportId(transportId == null ? 0 : transportId);
+        dto.setTransportName(row.get("transport_name", String.class));
+        dto.setMealOption(row.get("meal_option", String.class));
+        dto.setNumberOfDays(row.get("number_of_days", Integer.class));
+        dto.setPrice(row.get("price", Integer.class));
+        dto.setRating(row.get("rating", Double.class));
+        dto.setIsFavorite(row.get("is_favorite", Boolean.class));
+        return dto;
+    }
+
+    /**
+     * WHERE-частина з іменованими параметрами; значення ніколи не потрапляють у текст SQL.
+     */
+    private record Where(String sql, Map<String, Object> parameters) {
+
+        static Where of(TourFilter filter, boolean favoritesOnly) {
+            StringJoiner conditions = new StringJoiner(" AND ", "WHERE ", "").setEmptyValue("");
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            if (favoritesOnly) {
+                conditions.add("f.id IS NOT NULL");
+            }
+            // Порівняння й LOWER(...) — як у TourSpecification, щоб працювали ті самі індекси з V2
+            if (StringUtils.hasText(filter.name())) {
+                conditions.add("LOWER(t.name) LIKE :name");
+                parameters.put("name", "%" + filter.name().toLowerCase() + "%");
+            }
+            if (StringUtils.hasText(filter.type())) {
+                conditions.add("LOWER(t.type) = :type");
+                parameters.put("type", filter.type().toLowerCase());
+            }
+            if (StringUtils.hasText(filter.mealOption())) {
+                conditions.add("LOWER(t.meal_option) = :mealOption");
+                parameters.put("mealOption", filter.mealOption().toLowerCase());
+            }
+            if (StringUtils.hasText(filter.transportName())) {
+                conditions.add("LOWER(tr.name) = :transportName");
+                parameters.put("transportName", filter.transportName().toLowerCase());
+            }
+            range(conditions, parameters, "t.number_of_days", "minDays", filter.minDays(), "maxDays", filter.maxDays());
+            range(conditions, parameters, "t.price", "minPrice", filter.minPrice(), "maxPrice", filter.maxPrice());
+            range(conditions, parameters, "t.rating", "minRating", filter.minRating(), "maxRating", filter.maxRating());
+            return new Where(conditions.toString(), parameters);
+        }
+
+        private static void range(StringJoiner conditions, Map<String, Object> parameters, String column,
+                                  String minName, Object min, String maxName, Object max) {
+            if (min != null) {
+                conditions.add(column + " >= :" + minName);
+                parameters.put(minName, min);
+            }
+            if (max != null) {
+                conditions.add(column + " <= :" + maxName);
+                parameters.put(maxName, max);
+            }
+        }
+
+        DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                spec = spec.bind(parameter.getKey(), parameter.getValue());
+            }
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kursova.kursovaapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Індекс ID улюблених турів у пам'яті.
+ *
+ * Зберігає множину int-ів як бітову маску: один біт на ID туру.
+ * Перевірка contains() — O(1), без блокувань, без boxing і без звернень до БД.
+ * Записи (додавання/видалення з обраного) рідкісні, тому серіалізуються через synchronized.
+ * Кожен запис збільшує версію — з неї будуються ETag-и відповідей, що містять прапор isFavorite.
+ */
+@Component
+public class FavoriteIdIndex {
+
+    // volatile-посилання, щоб читачі бачили масив після розширення
+    private volatile AtomicLongArray words = new AtomicLongArray(0);
+
+    // Стартуємо з часу запуску, як і TourCatalogVersion, щоб після рестарту не повторити старі ETag-и
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Чи знаходиться тур в обраному.
+     */
+    public boolean contains(int tourId) {
+        if (tourId < 0) {
+            return false;
+        }
+        AtomicLongArray snapshot = words;
+        int wordIndex = tourId >>> 6;
+        return wordIndex < snapshot.length() && (snapshot.get(wordIndex) & (1L << tourId)) != 0;
+    }
+
+    /**
+     * Додає ID туру до індексу.
+     */
+    public synchronized void add(int tourId) {
+        checkId(tourId);
+        int wordIndex = tourId >>> 6;
+        ensureCapacity(wordIndex + 1);
+        words.set(wordIndex, words.get(wordIndex) | (1L << tourId));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Видаляє ID туру з індексу.
+     */
+    public synchronized void remove(int tourId) {
+        if (tourId < 0) {
+            return;
+        }
+        int wordIndex = tourId >>> 6;
+        if (wordIndex < words.length()) {
+            words.set(wordIndex, words.get(wordIndex) & ~(1L << tourId));
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Повністю замінює вміст індексу (наприклад, під час старту застосунку).
+     */
+    public synchronized void reset(Collection<Integer> tourIds) {
+        int maxId = tourIds.stream().mapToInt(Integer::intValue).max().orElse(-1);
+        // Без перевірки -1 >>> 6 дало б ~67 млн слів (512 МБ) для порожнього обраного
+        AtomicLongArray fresh = new AtomicLongArray(maxId < 0 ? 0 : (maxId >>> 6) + 1);
+        for (int tourId : tourIds) {
+            checkId(tourId);
+            fresh.set(tourId >>> 6, fresh.get(tourId >>> 6) | (1L << tourId));
+        }
+        words = fresh;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Версія вмісту: змінюється після кожного add/remove/reset.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Кількість ID в індексі.
+     */
+    public int size() {
+        AtomicLongArray snapshot = words;
+        int count = 0;
+        for (int i = 0; i < snapshot.length(); i++) {
+            count += Long.bitCount(snapshot.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Розмір бітової маски у 64-бітних словах (пам'ять індексу — wordCount() * 8 байтів).
+     */
+    int wordCount() {
+        return words.length();
+    }
+
+    private void ensureCapacity(int requiredWords) {
+        if (requiredWords <= words.length()) {
+            return;
+        }
+        // Розширюємо з запасом, щоб не копіювати масив на кожен новий тур
+        int newLength = Math.max(requiredWords, words.length() * 2);
+        AtomicLongArray grown = new AtomicLongArray(newLength);
+        for (int i = 0; i < words.length(); i++) {
+            grown.set(i, words.get(i));
+        }
+        words = grown;
+    }
+
+    private static void checkId(int tourId) {
+        if (tourId < 0) {
+            throw new IllegalArgumentException("Tour ID must not be negative: " + tourId);
+        }
+    }
+}
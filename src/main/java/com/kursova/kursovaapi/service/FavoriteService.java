@@ -1,22 +1,34 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO;
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO.Status;
 import com.kursova.kursovaapi.dto.TourDTO;
-import com.kursova.kursovaapi.entity.FavoriteEntity;
+import com.kursova.kursovaapi.dto.TourFilter;
 import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.logging.FilterLogging;
 import com.kursova.kursovaapi.mapper.TourMapper;
 import com.kursova.kursovaapi.repository.FavoriteRepository;
 import com.kursova.kursovaapi.repository.TourRepository;
 import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import jakarta.annotation.PostConstruct;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Сервіс для керування улюбленими турами.
@@ -26,31 +38,127 @@ public class FavoriteService {
 
     private static final Logger logger = LoggerFactory.getLogger(FavoriteService.class);
 
+    // Межа пакетного запиту: один JDBC-пакет і один IN-список на запит
+    static final int MAX_BATCH_SIZE = 500;
+
     private final FavoriteRepository favoriteRepository;
     private final TourRepository tourRepository;
+    private final FavoriteIdIndex favoriteIdIndex;
+    private final DistributionSummary searchRows;
 
-    public FavoriteService(FavoriteRepository favoriteRepository, TourRepository tourRepository) {
+    public FavoriteService(
+            FavoriteRepository favoriteRepository,
+            TourRepository tourRepository,
+            FavoriteIdIndex favoriteIdIndex,
+            MeterRegistry meterRegistry
+    ) {
         this.favoriteRepository = favoriteRepository;
         this.tourRepository = tourRepository;
+        this.favoriteIdIndex = favoriteIdIndex;
+        // Та сама метрика, що й у TourService, з operation=favorites
+        this.searchRows = DistributionSummary.builder("search.rows")
+                .description("Tours returned by a search request")
+                .baseUnit("rows")
+                .tag("operation", "favorites")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Завантажує ID усіх улюблених турів в індекс під час старту застосунку.
+     * Далі індекс оновлюється разом із кожним записом (write-through).
+     */
+    @PostConstruct
+    public void loadFavoriteIndex() {
+        List<Integer> tourIds = favoriteRepository.findAllTourIds();
+        favoriteIdIndex.reset(tourIds);
+        logger.info("Loaded {} favorite tour IDs into index", tourIds.size());
+    }
+
+    /**
+     * Перевіряє, чи тур в обраному. Працює з індексу в пам'яті — без запиту до БД.
+     */
+    public boolean isFavorite(int tourId) {
+        return favoriteIdIndex.contains(tourId);
+    }
+
+    /**
+     * Версія обраного для ETag-ів: змінюється після кожного закоміченого додавання чи видалення.
+     */
+    public long getFavoritesVersion() {
+        return favoriteIdIndex.version();
     }
 
     /**
      * Додає тур до обраного, якщо він ще не доданий.
+     * Той самий шлях, що й addAll: перевірка ID і INSERT ... ON CONFLICT DO NOTHING — два запити замість трьох.
      */
+    @Transactional
     public void addToFavorites(int tourId) {
-        tourRepository.findById(tourId).ifPresentOrElse(
-                tour -> {
-                    if (!favoriteRepository.existsByTour_Id(tourId)) {
-                        favoriteRepository.save(new FavoriteEntity(tour));
-                        logger.info("Tour {} added to favorites", tourId);
-                    } else {
-                        logger.debug("Tour {} already in favorites", tourId);
-                    }
-                },
-                () -> {
-                    throw new IllegalArgumentException("Invalid tour ID: " + tourId);
-                }
-        );
+        FavoriteBatchResultDTO result = addAll(List.of(tourId)).get(0);
+        if (result.getStatus() == Status.NOT_FOUND) {
+            throw new IllegalArgumentException("Invalid tour ID: " + tourId);
+        }
+    }
+
+    /**
+     * Додає кілька турів до обраного: один IN-запит перевіряє, які тури існують,
+     * один пакет INSERT ... ON CONFLICT DO NOTHING додає їх. Дублікати в запиті ігноруються,
+     * повторне або паралельне додавання того самого туру дає ALREADY_FAVORITE, а не помилку.
+     * Пакет виконується в порядку зростання ID: паралельні пакети чекають на ті самі рядки
+     * в однаковому порядку й не дають deadlock.
+     *
+     * @return результат для кожного унікального ID у порядку запиту
+     */
+    @Transactional
+    public List<FavoriteBatchResultDTO> addAll(List<Integer> tourIds) {
+        List<Integer> ids = distinctIds(tourIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> existing = new HashSet<>(tourRepository.findExistingIds(ids));
+        List<Integer> toInsert = ids.stream().filter(existing::contains).sorted().toList();
+        Set<Integer> added = affectedIds(toInsert, favoriteRepository.insertIgnoringDuplicates(toInsert));
+
+        List<FavoriteBatchResultDTO> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Status status;
+            if (!existing.contains(id)) {
+                status = Status.NOT_FOUND;
+            } else {
+                status = added.contains(id) ? Status.ADDED : Status.ALREADY_FAVORITE;
+            }
+            results.add(new FavoriteBatchResultDTO(id, status));
+        }
+
+        afterCommit(() -> toInsert.forEach(favoriteIdIndex::add));
+        logger.info("Added {} of {} tours to favorites", count(results, Status.ADDED), ids.size());
+        return results;
+    }
+
+    /**
+     * Видаляє кілька турів з обраного одним пакетом DELETE (теж у порядку зростання ID, як і addAll).
+     *
+     * @return REMOVED або NOT_FAVORITE для кожного унікального ID у порядку запиту
+     */
+    @Transactional
+    public List<FavoriteBatchResultDTO> removeAll(List<Integer> tourIds) {
+        List<Integer> ids = distinctIds(tourIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> toDelete = ids.stream().sorted().toList();
+        Set<Integer> removed = affectedIds(toDelete, favoriteRepository.deleteByTourIds(toDelete));
+
+        List<FavoriteBatchResultDTO> results = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            results.add(new FavoriteBatchResultDTO(id, removed.contains(id) ? Status.REMOVED : Status.NOT_FAVORITE));
+        }
+
+        afterCommit(() -> ids.forEach(favoriteIdIndex::remove));
+        logger.info("Removed {} of {} tours from favorites", count(results, Status.REMOVED), ids.size());
+        return results;
     }
 
     /**
@@ -61,6 +169,7 @@ public class FavoriteService {
     public void removeByTourId(int tourId) {
         logger.info("Removing tour {} from favorites", tourId);
         favoriteRepository.deleteByTourId(tourId);
+        afterCommit(() -> favoriteIdIndex.remove(tourId));
         logger.info("Tour {} removed from favorites", tourId);
     }
 
@@ -79,58 +188,79 @@ public class FavoriteService {
     /**
      * Шукає тури серед обраних, використовуючи динамічні фільтри.
      */
-    public Page<TourDTO> searchFavorites(
-            String name, String type, String mealOption,
-            Integer minDays, Integer maxDays,
-            Integer minPrice, Integer maxPrice,
-            Double minRating, Double maxRating,
-            String transportName,
-            Pageable pageable
-    ) {
-        // Побудова лог-повідомлення
-        StringBuilder message = new StringBuilder("Searching favorites with filters:");
-        if (name != null && !name.isBlank()) message.append(" name='").append(name).append("'");
-        if (type != null && !type.isBlank()) message.append(", type='").append(type).append("'");
-        if (transportName != null && !transportName.isBlank()) message.append(", transport='").append(transportName).append("'");
-        if (mealOption != null && !mealOption.isBlank()) message.append(", meal='").append(mealOption).append("'");
-        if (minDays != null || maxDays != null)
-            message.append(", days=[").append(minDays != null ? minDays : "").append("-").append(maxDays != null ? maxDays : "").append("]");
-        if (minPrice != null || maxPrice != null)
-            message.append(", price=[").append(minPrice != null ? minPrice : "").append("-").append(maxPrice != null ? maxPrice : "").append("]");
-        if (minRating != null || maxRating != null)
-            message.append(", rating=[").append(minRating != null ? minRating : "").append("-").append(maxRating != null ? maxRating : "").append("]");
-        logger.info(message.toString());
-
-        // Побудова динамічного запиту через Specification
-        Specification<TourEntity> spec = Specification.where(TourSpecification.nameContains(name))
-                .and(TourSpecification.hasType(type))
-                .and(TourSpecification.hasMealOption(mealOption))
-                .and(TourSpecification.minDays(minDays))
-                .and(TourSpecification.maxDays(maxDays))
-                .and(TourSpecification.minPrice(minPrice))
-                .and(TourSpecification.maxPrice(maxPrice))
-                .and(TourSpecification.minRating(minRating))
-                .and(TourSpecification.maxRating(maxRating))
-                .and(TourSpecification.hasTransportName(transportName));
-
-        // Беремо всі ID улюблених турів
-        List<Integer> favoriteTourIds = favoriteRepository.findAll().stream()
-                .map(fav -> fav.getTour().getId())
-                .toList();
+    @Timed(value = "favorite.service", histogram = true)
+    public Page<TourDTO> searchFavorites(TourFilter filter, Pageable pageable) {
+        FilterLogging.withFilter(logger.atInfo(), filter).log("Searching favorites");
 
-        // Шукаємо всі тури по фільтрах, а потім залишаємо лише ті, що в улюблених
-        List<TourDTO> filteredFavorites = tourRepository.findAll(spec).stream()
-                .filter(tour -> favoriteTourIds.contains(tour.getId()))
-                .map(TourMapper::toDto)
-                .peek(dto -> dto.setIsFavorite(true))
-                .toList();
+        // Побудова динамічного запиту через Specification.
+        // isFavorite() додає EXISTS-підзапит до favorite, тож фільтрація, пагінація
+        // та підрахунок загальної кількості виконуються одним запитом у БД.
+        Specification<TourEntity> spec = Specification.where(TourSpecification.isFavorite())
+                .and(TourSpecification.matching(filter));
 
-        int total = filteredFavorites.size();
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), total);
-        List<TourDTO> pageContent = start <= end ? filteredFavorites.subList(start, end) : List.of();
+        Page<TourDTO> page = tourRepository.findAll(spec, pageable).map(entity -> {
+            TourDTO dto = TourMapper.toDto(entity);
+            dto.setIsFavorite(true);
+            return dto;
+        });
 
-        logger.info("Returning page {} with {} elements out of {}", pageable.getPageNumber(), pageContent.size(), total);
-        return new PageImpl<>(pageContent, pageable, total);
+        searchRows.record(page.getNumberOfElements());
+        logger.info("Returning page {} with {} elements out of {}",
+                page.getNumber(), page.getNumberOfElements(), page.getTotalElements());
+        return page;
+    }
+
+    /**
+     * Унікальні ID у порядку запиту; null і завеликий пакет — помилка клієнта (400).
+     */
+    private static List<Integer> distinctIds(List<Integer> tourIds) {
+        if (tourIds == null) {
+            throw new IllegalArgumentException("Tour IDs must not be null");
+        }
+        if (tourIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many tour IDs: " + tourIds.size() + " (max " + MAX_BATCH_SIZE + ")");
+        }
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Integer id : tourIds) {
+            if (id == null) {
+                throw new IllegalArgumentException("Tour ID must not be null");
+            }
+            ids.add(id);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * ID, для яких пакетний запит змінив рядок (лічильник > 0); counts — у порядку ids.
+     */
+    private static Set<Integer> affectedIds(List<Integer> ids, int[] counts) {
+        Set<Integer> affected = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (counts[i] > 0) {
+                affected.add(ids.get(i));
+            }
+        }
+        return affected;
+    }
+
+    private static long count(List<FavoriteBatchResultDTO> results, Status status) {
+        return results.stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    /**
+     * Виконує дію після коміту поточної транзакції (або одразу, якщо транзакції немає),
+     * щоб індекс не розходився з БД у разі rollback.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
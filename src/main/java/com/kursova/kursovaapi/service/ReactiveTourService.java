@@ -0,0 +1,55 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.repository.reactive.ReactiveTourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокуючий пошук турів і обраного для високого fan-in: запит не займає потік,
+ * поки чекає на БД, — результат приходить на потоках подій драйвера R2DBC.
+ * Відповіді ті самі, що в TourService.searchToursWithPaging і FavoriteService.searchFavorites.
+ */
+@Service
+public class ReactiveTourService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTourService.class);
+
+    private final ReactiveTourRepository reactiveTourRepository;
+
+    public ReactiveTourService(ReactiveTourRepository reactiveTourRepository) {
+        this.reactiveTourRepository = reactiveTourRepository;
+    }
+
+    public Mono<Page<TourDTO>> searchTours(TourFilter filter, Pageable pageable) {
+        return page(filter, false, pageable);
+    }
+
+    public Mono<Page<TourDTO>> searchFavorites(TourFilter filter, Pageable pageable) {
+        return page(filter, true, pageable);
+    }
+
+    /**
+     * Усі знайдені тури по одному, у темпі споживача (для server-sent events).
+     */
+    public Flux<TourDTO> streamTours(TourFilter filter, boolean favoritesOnly, Sort sort) {
+        return reactiveTourRepository.stream(filter, favoritesOnly, sort)
+                .doOnComplete(() -> logger.info("Finished streaming {}", favoritesOnly ? "favorites" : "tours"));
+    }
+
+    private Mono<Page<TourDTO>> page(TourFilter filter, boolean favoritesOnly, Pageable pageable) {
+        // Сторінка і COUNT виконуються паралельно на різних з'єднаннях пулу
+        return Mono.zip(
+                        reactiveTourRepository.findPage(filter, favoritesOnly, pageable).collectList(),
+                        reactiveTourRepository.count(filter, favoritesOnly))
+                .map(result -> (Page<TourDTO>) new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.event.TransportChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версія каталогу турів: збільшується при кожному записі турів, а також при зміні транспорту,
+ * бо тури показують і фільтрують за його назвою.
+ * Використовується як ETag, щоб клієнти й CDN могли перевіряти актуальність відповіді (304),
+ * і як покоління кешу результатів пошуку (TourSearchCache).
+ */
+@Component
+public class TourCatalogVersion {
+
+    // Стартуємо з часу запуску, щоб після рестарту не повторити старі ETag-и
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    @EventListener
+    public void onToursCreated(ToursCreatedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @EventListener
+    public void onTransportChanged(TransportChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,796 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Колонкове сховище турів у пам'яті для пошуку без SQL (app.tour-search.engine=memory).
+ *
+ * Кожне поле — окремий примітивний масив: int[] ціна й дні, double[] рейтинг. Тип, харчування
+ * і транспорт закодовані словником, у рядку лежить лише int-код. Фільтр обчислюється як бітова маска
+ * рядків: кожна умова TourFilter звужує маску, перевіряючи лише ще встановлені біти, тому дорожча
+ * умова (підрядок у назві) бачить уже відібрані рядки.
+ *
+ * Для кожного значення типу, харчування й транспорту є стиснений бітмап його рядків (RoaringBitmap),
+ * зокрема окремий бітмап рядків без значення (NULL). Фільтри-рівності — це AND бітмапів значень ще до
+ * читання колонок; бітмап NULL рівності не відповідає ніколи, як NULL = 'x' у SQL. Кількість турів
+ * зі значенням — кардинальність бітмапа (typeCounts, mealOptionCounts, withoutTypeCount).
+ *
+ * Сортування за ціною, рейтингом або днями йде готовим порядком рядків (SortedRows): сторінка — це
+ * перші offset + size рядків цього порядку, що є в масці. Такий порядок перебудовується у фоні після
+ * записів; поки він застарілий, а також для id і складених сортувань — heap-відбір перших
+ * offset + size рядків вибірки. За рівних ключів порядок — порядок додавання (для каталогу,
+ * завантаженого з БД, це порядок id). Сортування за рядками (назва, тип, харчування) лишається SQL:
+ * порядок рядків у PostgreSQL задає collation бази, і String.compareTo дав би інші сторінки.
+ *
+ * Читання без блокувань: запит працює зі знімком (Snapshot), записи публікують новий знімок.
+ * Тури лише додаються (API їх не змінює й не видаляє), тож новий рядок пишеться за межами
+ * діапазону, який бачать старі знімки.
+ */
+@Component
+public class TourColumnIndex {
+
+    // Числові властивості TourDTO, за якими можна сортувати; для решти (зокрема рядків) пошук лишається в SQL
+    static final Set<String> SORT_PROPERTIES = Set.of("id", "numberOfDays", "price", "rating");
+
+    // Поля з готовим порядком рядків (SortedRows)
+    private static final List<String> PRESORTED_PROPERTIES = List.of("price", "rating", "numberOfDays");
+    // Обхід готового порядку вигідніший за heap, поки очікувана довжина обходу не більша за вибірку у стільки разів
+    private static final int PRESORTED_WALK_FACTOR = 8;
+
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final int NULL_CODE = -1;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final Map<String, SortedRows> sortedRows = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildingSortedRows = new AtomicBoolean();
+
+    // Стан записувача, змінюється лише під synchronized
+    private final Dictionary types = new Dictionary();
+    private final Dictionary mealOptions = new Dictionary();
+    private final Map<Integer, Integer> transportCodes = new HashMap<>();
+    private int[] transportIds = new int[8];
+    private final ValueRows typeRows = new ValueRows();
+    private final ValueRows mealOptionRows = new ValueRows();
+    private final ValueRows transportRows = new ValueRows();
+    private final BitSet tourIds = new BitSet();
+
+    /**
+     * Сторінка турів, що відповідають filter. Фільтр за транспортом задається не назвою, а transportIds —
+     * ID транспортів з потрібною назвою (null — без фільтра), бо назву транспорту можна змінити.
+     * transportName і isFavorite у DTO не заповнюються.
+     */
+    public Page<TourDTO> search(TourFilter filter, Set<Integer> transportIds, Pageable pageable) {
+        Snapshot current = snapshot;
+        long[] rows = match(current, filter, transportIds);
+        int total = cardinality(rows);
+
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int pageSize = pageable.isPaged() ? pageable.getPageSize() : total;
+        int[] page;
+        if (offset >= total || pageSize == 0) {
+            page = new int[0];
+        } else if (pageable.getSort().isUnsorted()) {
+            page = rowsInOrder(rows, (int) offset, pageSize);
+        } else {
+            int end = (int) Math.min(offset + pageSize, total);
+            SortedRows presorted = presorted(current, pageable.getSort());
+            // Обхід готового порядку переглядає приблизно end * size / total рядків, heap — усі total
+            if (presorted != null && (long) end * current.size() <= (long) PRESORTED_WALK_FACTOR * total * total) {
+                page = presorted.page(rows, (int) offset, end - (int) offset, pageable.getSort().iterator().next().isDescending());
+            } else {
+                int[] top = topRows(rows, end, rowOrder(current, pageable.getSort()));
+                page = Arrays.copyOfRange(top, (int) offset, end);
+            }
+        }
+
+        List<TourDTO> content = new ArrayList<>(page.length);
+        for (int row : page) {
+            content.add(toDto(current, row));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Чи можна виконати сортування в пам'яті (усі властивості з SORT_PROPERTIES).
+     */
+    public boolean supports(Sort sort) {
+        return sort.stream().allMatch(order -> SORT_PROPERTIES.contains(order.getProperty()));
+    }
+
+    /**
+     * Додає тур. Повторне додавання того самого id ігнорується (подія й початкове завантаження
+     * можуть перетнутися). Повертає false, якщо тур уже є.
+     */
+    public boolean add(TourDTO tour) {
+        return addAll(List.of(tour)) == 1;
+    }
+
+    /**
+     * Додає тури однією публікацією знімка: бітмапи значень, яких торкається порція, копіюються
+     * один раз на порцію, а не на кожен тур. Повертає кількість справді доданих.
+     */
+    public synchronized int addAll(Collection<TourDTO> tours) {
+        Snapshot current = snapshot;
+        int row = current.size();
+        Columns columns = current.columns();
+        for (TourDTO tour : tours) {
+            if (tour.getId() < 0 || tourIds.get(tour.getId())) {
+                continue;
+            }
+            tourIds.set(tour.getId());
+            if (row == columns.capacity()) {
+                columns = columns.grow(Math.max(INITIAL_CAPACITY, row * 2), row);
+            }
+            columns.ids[row] = tour.getId();
+            columns.names[row] = tour.getName();
+            // toLowerCase повертає той самий рядок, якщо змінювати нічого, тож копії лише для назв з великими літерами
+            columns.lowerNames[row] = tour.getName() == null ? null : tour.getName().toLowerCase();
+            columns.typeCodes[row] = types.encode(tour.getType());
+            columns.mealOptionCodes[row] = mealOptions.encode(tour.getMealOption());
+            columns.transportCodes[row] = encodeTransport(tour.getTransportId());
+            columns.days[row] = tour.getNumberOfDays();
+            columns.prices[row] = tour.getPrice();
+            columns.ratings[row] = tour.getRating();
+            typeRows.add(columns.typeCodes[row], row);
+            mealOptionRows.add(columns.mealOptionCodes[row], row);
+            transportRows.add(columns.transportCodes[row], row);
+            row++;
+        }
+        int added = row - current.size();
+        if (added > 0) {
+            snapshot = new Snapshot(row, columns, types.values, mealOptions.values, transportIds,
+                    typeRows.publish(), mealOptionRows.publish(), transportRows.publish());
+        }
+        return added;
+    }
+
+    /**
+     * Видаляє всі тури (перед повторним завантаженням).
+     */
+    public synchronized void clear() {
+        types.clear();
+        mealOptions.clear();
+        transportCodes.clear();
+        transportIds = new int[8];
+        typeRows.clear();
+        mealOptionRows.clear();
+        transportRows.clear();
+        tourIds.clear();
+        snapshot = Snapshot.EMPTY;
+        sortedRows.clear();
+    }
+
+    /**
+     * Перебудовує готові порядки рядків для поточного вмісту (після завантаження; далі — у фоні).
+     */
+    public void rebuildSortedRows() {
+        Snapshot current = snapshot;
+        for (String property : PRESORTED_PROPERTIES) {
+            SortedRows existing = sortedRows.get(property);
+            if (existing == null || existing.size() != current.size()) {
+                sortedRows.put(property, SortedRows.build(current, property));
+            }
+        }
+    }
+
+    /**
+     * Кількість турів в індексі.
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Кількість турів кожного типу, від найчастішого; тури без типу не враховуються.
+     */
+    public List<TourFacetsDTO.ValueCount> typeCounts() {
+        Snapshot current = snapshot;
+        return valueCounts(current.typeValues(), current.typeRows());
+    }
+
+    /**
+     * Кількість турів з кожною опцією харчування, від найчастішої; тури без харчування не враховуються.
+     */
+    public List<TourFacetsDTO.ValueCount> mealOptionCounts() {
+        Snapshot current = snapshot;
+        return valueCounts(current.mealOptionValues(), current.mealOptionRows());
+    }
+
+    /**
+     * Кількість турів без типу (кардинальність бітмапа NULL).
+     */
+    public long withoutTypeCount() {
+        RoaringBitmap rows = bitmap(snapshot.typeRows(), NULL_CODE);
+        return rows == null ? 0 : rows.getLongCardinality();
+    }
+
+    /**
+     * Розмір бітмапів значень у байтах (серіалізований розмір RoaringBitmap, близький до займаної пам'яті).
+     */
+    public long bitmapSizeInBytes() {
+        Snapshot current = snapshot;
+        return sizeInBytes(current.typeRows()) + sizeInBytes(current.mealOptionRows()) + sizeInBytes(current.transportRows());
+    }
+
+    private static List<TourFacetsDTO.ValueCount> valueCounts(String[] values, RoaringBitmap[] rows) {
+        List<TourFacetsDTO.ValueCount> counts = new ArrayList<>();
+        for (int code = 0; code < values.length; code++) {
+            RoaringBitmap bitmap = bitmap(rows, code);
+            if (bitmap != null) {
+                counts.add(new TourFacetsDTO.ValueCount(values[code], bitmap.getLongCardinality()));
+            }
+        }
+        counts.sort(Comparator.comparingLong(TourFacetsDTO.ValueCount::getCount).reversed()
+                .thenComparing(TourFacetsDTO.ValueCount::getValue));
+        return counts;
+    }
+
+    private static long sizeInBytes(RoaringBitmap[] rows) {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : rows) {
+            if (bitmap != null) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    // Готовий порядок для сортування за одним полем, якщо він покриває весь знімок; інакше null і фонова перебудова
+    private SortedRows presorted(Snapshot current, Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1 || !PRESORTED_PROPERTIES.contains(orders.get(0).getProperty())) {
+            return null;
+        }
+        SortedRows presorted = sortedRows.get(orders.get(0).getProperty());
+        if (presorted != null && presorted.size() == current.size()) {
+            return presorted;
+        }
+        if (rebuildingSortedRows.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    rebuildSortedRows();
+                } finally {
+                    rebuildingSortedRows.set(false);
+                }
+            });
+        }
+        return null;
+    }
+
+    // --- Фільтрація: бітова маска рядків, кожна умова знімає біти ---
+
+    private static long[] match(Snapshot s, TourFilter filter, Set<Integer> transportIds) {
+        Columns c = s.columns();
+
+        // Спершу рівності — AND бітмапів значень без читання рядків, потім діапазони, наприкінці підрядок
+        RoaringBitmap candidates = null;
+        if (StringUtils.hasText(filter.type())) {
+            candidates = intersect(candidates, union(s.typeRows(), codesEqualIgnoreCase(s.typeValues(), filter.type())));
+        }
+        if (StringUtils.hasText(filter.mealOption())) {
+            candidates = intersect(candidates,
+                    union(s.mealOptionRows(), codesEqualIgnoreCase(s.mealOptionValues(), filter.mealOption())));
+        }
+        if (transportIds != null) {
+            candidates = intersect(candidates, union(s.transportRows(), transportCodes(s.transportIds(), transportIds)));
+        }
+        long[] rows = candidates == null ? allRows(s.size()) : toRows(candidates, s.size());
+
+        if (filter.minDays() != null || filter.maxDays() != null) {
+            retainRange(rows, c.days, minOf(filter.minDays()), maxOf(filter.maxDays()));
+        }
+        if (filter.minPrice() != null || filter.maxPrice() != null) {
+            retainRange(rows, c.prices, minOf(filter.minPrice()), maxOf(filter.maxPrice()));
+        }
+        if (filter.minRating() != null || filter.maxRating() != null) {
+            retainRange(rows, c.ratings,
+                    filter.minRating() == null ? Double.NEGATIVE_INFINITY : filter.minRating(),
+                    filter.maxRating() == null ? Double.POSITIVE_INFINITY : filter.maxRating());
+        }
+        if (StringUtils.hasText(filter.name())) {
+            retainContaining(rows, c.lowerNames, filter.name().toLowerCase());
+        }
+        return rows;
+    }
+
+    // Бітмапи всіх прийнятих кодів (зазвичай один); бітмап NULL не приймається ніколи (як NULL = 'x' у SQL)
+    private static RoaringBitmap union(RoaringBitmap[] rowsByCode, boolean[] accepted) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (int code = 0; code < accepted.length; code++) {
+            RoaringBitmap bitmap = bitmap(rowsByCode, code);
+            if (accepted[code] && bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        return union;
+    }
+
+    // Бітмап рядків коду; слот 0 — рядки без значення (NULL_CODE), далі коди словника зі зсувом на 1
+    private static RoaringBitmap bitmap(RoaringBitmap[] rowsByCode, int code) {
+        int slot = code + 1;
+        return slot < rowsByCode.length ? rowsByCode[slot] : null;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap candidates, RoaringBitmap rows) {
+        return candidates == null ? rows : RoaringBitmap.and(candidates, rows);
+    }
+
+    private static long[] toRows(RoaringBitmap candidates, int size) {
+        long[] rows = new long[(size + 63) >>> 6];
+        candidates.forEach((IntConsumer) row -> rows[row >>> 6] |= 1L << row);
+        return rows;
+    }
+
+    private static long[] allRows(int size) {
+        long[] rows = new long[(size + 63) >>> 6];
+        Arrays.fill(rows, -1L);
+        if ((size & 63) != 0) {
+            rows[rows.length - 1] = (1L << size) - 1; // зсув береться за модулем 64
+        }
+        return rows;
+    }
+
+    // Повні слова (усі 64 рядки ще у вибірці) перевіряються суцільним циклом, решта — лише встановлені біти.
+    // В обох випадках біт обчислюється без розгалуження: при вибірковості ~50% умовний перехід часто хибить
+    private static void retainRange(long[] rows, int[] column, int min, int max) {
+        for (int w = 0; w < rows.length; w++) {
+            long word = rows[w];
+            if (word == -1L) {
+                long kept = 0;
+                for (int bit = 0, base = w << 6; bit < 64; bit++) {
+                    kept |= inRange(column[base + bit], min, max) << bit;
+                }
+                rows[w] = kept;
+                continue;
+            }
+            for (long rest = word; rest != 0; rest &= rest - 1) {
+                int bit = Long.numberOfTrailingZeros(rest);
+                word &= ~((inRange(column[(w << 6) + bit], min, max) ^ 1L) << bit);
+            }
+            rows[w] = word;
+        }
+    }
+
+    // 1, якщо min <= value <= max, інакше 0; в long, щоб різниці не переповнювались
+    private static long inRange(int value, int min, int max) {
+        return ((((long) value - min) | ((long) max - value)) >>> 63) ^ 1L;
+    }
+
+    private static void retainRange(long[] rows, double[] column, double min, double max) {
+        for (int w = 0; w < rows.length; w++) {
+            long word = rows[w];
+            if (word == -1L) {
+                long kept = 0;
+                for (int bit = 0, base = w << 6; bit < 64; bit++) {
+                    double value = column[base + bit];
+                    kept |= (value >= min & value <= max ? 1L : 0L) << bit;
+                }
+                rows[w] = kept;
+                continue;
+            }
+            for (long rest = word; rest != 0; rest &= rest - 1) {
+                int bit = Long.numberOfTrailingZeros(rest);
+                double value = column[(w << 6) + bit];
+                word &= ~((value >= min & value <= max ? 0L : 1L) << bit);
+            }
+            rows[w] = word;
+        }
+    }
+
+    private static void retainContaining(long[] rows, String[] lowerNames, String needle) {
+        for (int w = 0; w < rows.length; w++) {
+            long word = rows[w];
+            for (long rest = word; rest != 0; rest &= rest - 1) {
+                int bit = Long.numberOfTrailingZeros(rest);
+                String name = lowerNames[(w << 6) + bit];
+                if (name == null || !name.contains(needle)) {
+                    word &= ~(1L << bit);
+                }
+            }
+            rows[w] = word;
+        }
+    }
+
+    private static boolean[] codesEqualIgnoreCase(String[] values, String expected) {
+        String lower = expected.toLowerCase();
+        boolean[] accepted = new boolean[values.length];
+        for (int code = 0; code < values.length; code++) {
+            accepted[code] = values[code] != null && values[code].toLowerCase().equals(lower);
+        }
+        return accepted;
+    }
+
+    private static boolean[] transportCodes(int[] dictionary, Set<Integer> transportIds) {
+        boolean[] accepted = new boolean[dictionary.length];
+        for (int code = 0; code < dictionary.length; code++) {
+            accepted[code] = transportIds.contains(dictionary[code]);
+        }
+        return accepted;
+    }
+
+    private static int minOf(Integer value) {
+        return value == null ? Integer.MIN_VALUE : value;
+    }
+
+    private static int maxOf(Integer value) {
+        return value == null ? Integer.MAX_VALUE : value;
+    }
+
+    private static int cardinality(long[] rows) {
+        int count = 0;
+        for (long word : rows) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // --- Сторінка ---
+
+    // Без сортування — у порядку додавання (для завантаженого каталогу це порядок id)
+    private static int[] rowsInOrder(long[] rows, int offset, int limit) {
+        int[] page = new int[limit];
+        int seen = 0;
+        int taken = 0;
+        for (int w = 0; w < rows.length && taken < limit; w++) {
+            long word = rows[w];
+            int bits = Long.bitCount(word);
+            if (seen + bits <= offset) {
+                seen += bits; // ціле слово до початку сторінки
+                continue;
+            }
+            for (long rest = word; rest != 0 && taken < limit; rest &= rest - 1) {
+                if (seen++ >= offset) {
+                    page[taken++] = (w << 6) + Long.numberOfTrailingZeros(rest);
+                }
+            }
+        }
+        return taken == limit ? page : Arrays.copyOf(page, taken);
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Перші limit рядків у порядку order: max-heap на limit елементів (корінь — найгірший з відібраних),
+     * потім heapsort на місці. O(n log limit) замість сортування всієї вибірки.
+     */
+    private static int[] topRows(long[] rows, int limit, RowOrder order) {
+        int[] heap = new int[limit];
+        int size = 0;
+        for (int w = 0; w < rows.length; w++) {
+            for (long rest = rows[w]; rest != 0; rest &= rest - 1) {
+                int row = (w << 6) + Long.numberOfTrailingZeros(rest);
+                if (size < limit) {
+                    heap[size] = row;
+                    siftUp(heap, size++, order);
+                } else if (order.compare(row, heap[0]) < 0) {
+                    heap[0] = row;
+                    siftDown(heap, 0, size, order);
+                }
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(heap, 0, end, order);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, RowOrder order) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int index, int size, RowOrder order) {
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private static RowOrder rowOrder(Snapshot s, Sort sort) {
+        Columns c = s.columns();
+        RowOrder result = null;
+        for (Sort.Order sortOrder : sort) {
+            RowOrder next = switch (sortOrder.getProperty()) {
+                case "id" -> (a, b) -> Integer.compare(c.ids[a], c.ids[b]);
+                case "numberOfDays" -> (a, b) -> Integer.compare(c.days[a], c.days[b]);
+                case "price" -> (a, b) -> Integer.compare(c.prices[a], c.prices[b]);
+                case "rating" -> (a, b) -> Double.compare(c.ratings[a], c.ratings[b]);
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + sortOrder.getProperty());
+            };
+            // Числові колонки без NULL, тож DESC просто розвертає порядок
+            if (sortOrder.isDescending()) {
+                RowOrder ascending = next;
+                next = (a, b) -> ascending.compare(b, a);
+            }
+            result = result == null ? next : then(result, next);
+        }
+        RowOrder byRow = Integer::compare;
+        return result == null ? byRow : then(result, byRow);
+    }
+
+    private static RowOrder then(RowOrder first, RowOrder second) {
+        return (a, b) -> {
+            int result = first.compare(a, b);
+            return result != 0 ? result : second.compare(a, b);
+        };
+    }
+
+    private static TourDTO toDto(Snapshot s, int row) {
+        Columns c = s.columns();
+        TourDTO dto = new TourDTO();
+        dto.setId(c.ids[row]);
+        dto.setName(c.names[row]);
+        dto.setType(decode(s.typeValues(), c.typeCodes[row]));
+        dto.setMealOption(decode(s.mealOptionValues(), c.mealOptionCodes[row]));
+        dto.setNumberOfDays(c.days[row]);
+        dto.setPrice(c.prices[row]);
+        dto.setRating(c.ratings[row]);
+        int transportCode = c.transportCodes[row];
+        dto.setTransportId(transportCode == NULL_CODE ? 0 : s.transportIds()[transportCode]);
+        return dto;
+    }
+
+    private static String decode(String[] values, int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    // Тур без транспорту приходить з transportId = 0 (так його заповнює TourMapper)
+    private int encodeTransport(int transportId) {
+        if (transportId == 0) {
+            return NULL_CODE;
+        }
+        Integer code = transportCodes.get(transportId);
+        if (code != null) {
+            return code;
+        }
+        int next = transportCodes.size();
+        if (next == transportIds.length) {
+            transportIds = Arrays.copyOf(transportIds, next * 2);
+        }
+        transportIds[next] = transportId;
+        transportCodes.put(transportId, next);
+        return next;
+    }
+
+    /**
+     * Словник рядкових значень: код — позиція у values. Масив лише росте (копією),
+     * тож старі знімки бачать усі коди, які можуть трапитися в їхніх рядках.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[8];
+
+        int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            int next = codes.size();
+            if (next == values.length) {
+                values = Arrays.copyOf(values, next * 2);
+            }
+            values[next] = value;
+            codes.put(value, next);
+            return next;
+        }
+
+        void clear() {
+            codes.clear();
+            values = new String[8];
+        }
+    }
+
+    /**
+     * Бітмапи рядків для кожного коду словника і для NULL (слот 0, див. bitmap). Опублікований бітмап
+     * більше не змінюється: перший запис у слот після публікації працює з копією, тож знімки читають
+     * без блокувань.
+     */
+    private static final class ValueRows {
+
+        private RoaringBitmap[] rows = new RoaringBitmap[8];
+        private final BitSet copied = new BitSet(); // слоти, чиї бітмапи вже скопійовано після останньої публікації
+
+        void add(int code, int row) {
+            int slot = code + 1;
+            if (slot >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(slot + 1, rows.length * 2));
+            }
+            if (!copied.get(slot)) {
+                rows[slot] = rows[slot] == null ? new RoaringBitmap() : rows[slot].clone();
+                copied.set(slot);
+            }
+            rows[slot].add(row);
+        }
+
+        // Змінені бітмапи стискаються (серії рядків одного значення — у run-контейнери) і віддаються знімку
+        RoaringBitmap[] publish() {
+            for (int slot = copied.nextSetBit(0); slot >= 0; slot = copied.nextSetBit(slot + 1)) {
+                rows[slot].runOptimize();
+            }
+            copied.clear();
+            return rows.clone();
+        }
+
+        void clear() {
+            rows = new RoaringBitmap[8];
+            copied.clear();
+        }
+    }
+
+    /**
+     * Масиви колонок однієї місткості. При переповненні створюється новий екземпляр з копіями,
+     * старий лишається незмінним для знімків, що на нього посилаються.
+     */
+    private static final class Columns {
+
+        final int[] ids;
+        final String[] names;
+        final String[] lowerNames;
+        final int[] typeCodes;
+        final int[] mealOptionCodes;
+        final int[] transportCodes;
+        final int[] days;
+        final int[] prices;
+        final double[] ratings;
+
+        Columns(int capacity) {
+            ids = new int[capacity];
+            names = new String[capacity];
+            lowerNames = new String[capacity];
+            typeCodes = new int[capacity];
+            mealOptionCodes = new int[capacity];
+            transportCodes = new int[capacity];
+            days = new int[capacity];
+            prices = new int[capacity];
+            ratings = new double[capacity];
+        }
+
+        int capacity() {
+            return ids.length;
+        }
+
+        Columns grow(int capacity, int size) {
+            Columns grown = new Columns(capacity);
+            System.arraycopy(ids, 0, grown.ids, 0, size);
+            System.arraycopy(names, 0, grown.names, 0, size);
+            System.arraycopy(lowerNames, 0, grown.lowerNames, 0, size);
+            System.arraycopy(typeCodes, 0, grown.typeCodes, 0, size);
+            System.arraycopy(mealOptionCodes, 0, grown.mealOptionCodes, 0, size);
+            System.arraycopy(transportCodes, 0, grown.transportCodes, 0, size);
+            System.arraycopy(days, 0, grown.days, 0, size);
+            System.arraycopy(prices, 0, grown.prices, 0, size);
+            System.arraycopy(ratings, 0, grown.ratings, 0, size);
+            return grown;
+        }
+    }
+
+    /**
+     * Рядки перших size рядків індексу, впорядковані за одним полем: keys[i] = (ключ << 32) | рядок,
+     * тож сортування long[] дає порядок за ключем, а за рівних ключів — за рядком.
+     * Ключ — саме значення для int-полів і ранг значення серед різних значень для рейтингу.
+     */
+    private record SortedRows(int size, long[] keys) {
+
+        static SortedRows build(Snapshot s, String property) {
+            Columns c = s.columns();
+            int size = s.size();
+            long[] keys = new long[size];
+            switch (property) {
+                case "price" -> fill(keys, c.prices, size);
+                case "numberOfDays" -> fill(keys, c.days, size);
+                case "rating" -> {
+                    double[] distinct = Arrays.stream(c.ratings, 0, size).sorted().distinct().toArray();
+                    for (int row = 0; row < size; row++) {
+                        keys[row] = ((long) Arrays.binarySearch(distinct, c.ratings[row]) << 32) | row;
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+            }
+            Arrays.sort(keys);
+            return new SortedRows(size, keys);
+        }
+
+        private static void fill(long[] keys, int[] column, int size) {
+            for (int row = 0; row < size; row++) {
+                keys[row] = ((long) column[row] << 32) | row;
+            }
+        }
+
+        /**
+         * Рядки маски з позицій offset .. offset + limit цього порядку. Для DESC обхід іде з кінця,
+         * але рядки з рівним ключем віддаються за зростанням, як і в heap-відборі.
+         */
+        int[] page(long[] rows, int offset, int limit, boolean descending) {
+            int[] page = new int[limit];
+            int seen = 0;
+            int taken = 0;
+            if (!descending) {
+                for (int i = 0; i < keys.length && taken < limit; i++) {
+                    int row = (int) keys[i];
+                    if ((rows[row >>> 6] & (1L << row)) != 0 && seen++ >= offset) {
+                        page[taken++] = row;
+                    }
+                }
+            } else {
+                for (int end = keys.length - 1; end >= 0 && taken < limit; ) {
+                    int start = end;
+                    while (start > 0 && keys[start - 1] >>> 32 == keys[end] >>> 32) {
+                        start--;
+                    }
+                    for (int i = start; i <= end && taken < limit; i++) {
+                        int row = (int) keys[i];
+                        if ((rows[row >>> 6] & (1L << row)) != 0 && seen++ >= offset) {
+                            page[taken++] = row;
+                        }
+                    }
+                    end = start - 1;
+                }
+            }
+            return taken == limit ? page : Arrays.copyOf(page, taken);
+        }
+    }
+
+    /**
+     * Незмінний погляд на індекс: перші size рядків columns і словники на момент публікації.
+     */
+    private record Snapshot(int size, Columns columns, String[] typeValues, String[] mealOptionValues, int[] transportIds,
+                            RoaringBitmap[] typeRows, RoaringBitmap[] mealOptionRows, RoaringBitmap[] transportRows) {
+
+        static final Snapshot EMPTY = new Snapshot(0, new Columns(0), new String[0], new String[0], new int[0],
+                new RoaringBitmap[0], new RoaringBitmap[0], new RoaringBitmap[0]);
+    }
+}
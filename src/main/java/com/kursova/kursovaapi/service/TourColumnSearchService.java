@@ -0,0 +1,164 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.mapper.TourMapper;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Пошук турів у пам'яті (TourColumnIndex), якщо app.tour-search.engine=memory.
+ *
+ * Каталог читається з БД один раз після старту, далі індекс оновлюється подіями створення турів.
+ * Поки індекс не завантажено (або сортування не підтримується), TourService шукає в SQL.
+ * Назви транспорту й прапор isFavorite підставляються під час читання з кешу TransportService
+ * і FavoriteIdIndex, тому перейменування транспорту чи зміна обраного не потребують перебудови індексу.
+ */
+@Service
+public class TourColumnSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TourColumnSearchService.class);
+
+    // Тури додаються в індекс порціями: одна публікація знімка й одна копія бітмапів значень на порцію
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    private final TourRepository tourRepository;
+    private final TransportService transportService;
+    private final FavoriteService favoriteService;
+    private final TourColumnIndex tourColumnIndex;
+    private final boolean enabled;
+
+    private volatile boolean loaded;
+
+    public TourColumnSearchService(
+            TourRepository tourRepository,
+            TransportService transportService,
+            FavoriteService favoriteService,
+            TourColumnIndex tourColumnIndex,
+            TourSearchProperties properties
+    ) {
+        this.tourRepository = tourRepository;
+        this.transportService = transportService;
+        this.favoriteService = favoriteService;
+        this.tourColumnIndex = tourColumnIndex;
+        this.enabled = properties.engine() == TourSearchProperties.Engine.MEMORY;
+    }
+
+    /**
+     * Завантажує весь каталог в індекс після старту застосунку.
+     * Читання курсором у read-only транзакції, тому в пам'яті одночасно лише порція сутностей.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadColumnIndex() {
+        if (!enabled) {
+            return;
+        }
+        tourColumnIndex.clear();
+        List<TourDTO> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        long count = tourRepository.forEachMatching(Specification.where(null), tour -> {
+            chunk.add(TourMapper.toDto(tour));
+            if (chunk.size() == LOAD_CHUNK_SIZE) {
+                tourColumnIndex.addAll(chunk);
+                chunk.clear();
+            }
+        });
+        tourColumnIndex.addAll(chunk);
+        tourColumnIndex.rebuildSortedRows();
+        loaded = true;
+        logger.info("Loaded {} tours into column index ({} bytes of value bitmaps)",
+                count, tourColumnIndex.bitmapSizeInBytes());
+    }
+
+    /**
+     * Чи може цей запит обслуговуватися з пам'яті.
+     */
+    public boolean canSearch(Pageable pageable) {
+        return enabled && loaded && tourColumnIndex.supports(pageable.getSort());
+    }
+
+    /**
+     * Чи завантажено індекс (рушій memory), тобто чи можна брати з нього значення фасетів.
+     */
+    public boolean isLoaded() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Усі типи турів від найчастішого — з бітмапів індексу, без запиту до БД.
+     * Як і SELECT DISTINCT type у TourRepository, містить null, якщо є тури без типу (в кінці списку).
+     */
+    public List<String> types() {
+        List<String> types = new ArrayList<>();
+        for (TourFacetsDTO.ValueCount count : tourColumnIndex.typeCounts()) {
+            types.add(count.getValue());
+        }
+        if (tourColumnIndex.withoutTypeCount() > 0) {
+            types.add(null);
+        }
+        return types;
+    }
+
+    /**
+     * Усі опції харчування від найчастішої — з бітмапів індексу, без запиту до БД.
+     * Без null, як і findAllDistinctMealOptions.
+     */
+    public List<String> mealOptions() {
+        return tourColumnIndex.mealOptionCounts().stream().map(TourFacetsDTO.ValueCount::getValue).toList();
+    }
+
+    /**
+     * Ті самі фільтри й пагінація, що й у SQL-пошуку, але з TourColumnIndex.
+     */
+    public Page<TourDTO> search(TourFilter filter, Pageable pageable) {
+        Map<Integer, String> transportNames = new HashMap<>();
+        for (TransportDTO transport : transportService.getAll()) {
+            transportNames.put(transport.getId(), transport.getName());
+        }
+
+        Set<Integer> transportIds = null;
+        if (StringUtils.hasText(filter.transportName())) {
+            // Та сама умова, що й TourSpecification.hasTransportName: LOWER(name) = LOWER(:transportName)
+            String expected = filter.transportName().toLowerCase();
+            transportIds = new HashSet<>();
+            for (Map.Entry<Integer, String> transport : transportNames.entrySet()) {
+                if (transport.getValue() != null && transport.getValue().toLowerCase().equals(expected)) {
+                    transportIds.add(transport.getKey());
+                }
+            }
+        }
+
+        Page<TourDTO> page = tourColumnIndex.search(filter, transportIds, pageable);
+        for (TourDTO dto : page) {
+            dto.setTransportName(transportNames.get(dto.getTransportId()));
+            dto.setIsFavorite(favoriteService.isFavorite(dto.getId()));
+        }
+        return page;
+    }
+
+    @EventListener
+    public void onToursCreated(ToursCreatedEvent event) {
+        if (enabled) {
+            tourColumnIndex.addAll(event.tours());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.kursova.kursovaapi.service;
+
+import java.util.Locale;
+
+/**
+ * Формат масового імпорту й експорту турів.
+ * NDJSON — один TourDTO у JSON на рядок, CSV — рядок заголовка з назвами колонок, далі по туру на рядок.
+ */
+public enum TourDataFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    TourDataFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Формат за значенням параметра запиту (ndjson або csv, без урахування регістру).
+     */
+    public static TourDataFormat fromParameter(String value) {
+        for (TourDataFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value + " (expected ndjson or csv)");
+    }
+}
@@ -0,0 +1,143 @@
+package com.kursova.kursovaapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.mapper.TourMapper;
+import com.kursova.kursovaapi.repository.TourRepository;
+import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Потоковий експорт турів з тими самими фільтрами, що й /api/tours.
+ *
+ * Тури читаються курсором БД (TourRepository.forEachMatching) і одразу пишуться у вихідний потік,
+ * тож ні список турів, ні вся відповідь у пам'яті не накопичуються. CSV має ті самі назви колонок,
+ * що очікує TourImportService, тому експорт можна імпортувати назад.
+ */
+@Service
+public class TourExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TourExportService.class);
+
+    static final String CSV_HEADER = "id,name,type,transportId,transportName,mealOption,numberOfDays,price,rating";
+
+    private final TourRepository tourRepository;
+    private final FavoriteService favoriteService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter tourWriter;
+
+    public TourExportService(TourRepository tourRepository, FavoriteService favoriteService, ObjectMapper objectMapper) {
+        this.tourRepository = tourRepository;
+        this.favoriteService = favoriteService;
+        this.objectMapper = objectMapper;
+        // Без flush після кожного туру: у мережу пишемо буферами, а не по рядку
+        this.tourWriter = objectMapper.writerFor(TourDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Пише всі тури, що відповідають фільтру, в out у заданому форматі. Повертає кількість турів.
+     * Транзакція лише для читання: курсор PostgreSQL працює тільки всередині транзакції.
+     */
+    @Transactional(readOnly = true)
+    public long exportTours(TourFilter filter, TourDataFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long count;
+        try {
+            if (format == TourDataFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                count = tourRepository.forEachMatching(TourSpecification.matching(filter), unchecked(tour -> writeCsv(writer, tour)));
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.setRootValueSeparator(null); // тури розділяє '\n', а не типовий пробіл
+                count = tourRepository.forEachMatching(TourSpecification.matching(filter), unchecked(tour -> {
+                    tourWriter.writeValue(generator, toDtoWithFavorite(tour));
+                    generator.writeRaw('\n');
+                }));
+                generator.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // Зазвичай клієнт закрив з'єднання посеред експорту
+            throw e.getCause();
+        }
+        writer.flush();
+
+        logger.info("Exported {} tours as {} in {} ms", count, format, (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    private void writeCsv(Writer writer, TourEntity entity) throws IOException {
+        TourDTO tour = TourMapper.toDto(entity);
+        writer.write(Integer.toString(tour.getId()));
+        writer.write(',');
+        writer.write(csvField(tour.getName()));
+        writer.write(',');
+        writer.write(csvField(tour.getType()));
+        writer.write(',');
+        writer.write(Integer.toString(tour.getTransportId()));
+        writer.write(',');
+        writer.write(csvField(tour.getTransportName()));
+        writer.write(',');
+        writer.write(csvField(tour.getMealOption()));
+        writer.write(',');
+        writer.write(Integer.toString(tour.getNumberOfDays()));
+        writer.write(',');
+        writer.write(Integer.toString(tour.getPrice()));
+        writer.write(',');
+        writer.write(Double.toString(tour.getRating()));
+        writer.write('\n');
+    }
+
+    /**
+     * Значення CSV-поля: у лапках, якщо містить кому, лапки або перенос рядка; null — порожнє поле.
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private TourDTO toDtoWithFavorite(TourEntity entity) {
+        TourDTO dto = TourMapper.toDto(entity);
+        dto.setIsFavorite(favoriteService.isFavorite(dto.getId()));
+        return dto;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(TourEntity tour) throws IOException;
+    }
+
+    private static Consumer<TourEntity> unchecked(RowWriter rowWriter) {
+        return tour -> {
+            try {
+                rowWriter.write(tour);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
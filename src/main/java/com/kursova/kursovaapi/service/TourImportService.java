@@ -0,0 +1,320 @@
+package com.kursova.kursovaapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourImportResultDTO;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Масовий імпорт турів з NDJSON (один TourDTO у JSON на рядок) або CSV із заголовком.
+ *
+ * Вхід читається потоково, рядок за рядком: у пам'яті лише поточний батч з BATCH_SIZE турів.
+ * Транспорт перевіряється за мапою, завантаженою один раз на початку імпорту, а тури
+ * вставляються JDBC-батчами, кожен батч — в окремій транзакції. Некоректні рядки
+ * пропускаються і потрапляють у звіт, решта імпорту продовжується.
+ */
+@Service
+public class TourImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TourImportService.class);
+
+    static final int BATCH_SIZE = 1_000;
+    public static final int MAX_REPORTED_ERRORS = 1_000;
+
+    // Обов'язкові колонки CSV; порядок у файлі довільний, назви без урахування регістру
+    static final List<String> CSV_COLUMNS =
+            List.of("name", "type", "transportId", "mealOption", "numberOfDays", "price", "rating");
+
+    private final TourRepository tourRepository;
+    private final TransportService transportService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader tourReader;
+
+    public TourImportService(
+            TourRepository tourRepository,
+            TransportService transportService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper
+    ) {
+        this.tourRepository = tourRepository;
+        this.transportService = transportService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tourReader = objectMapper.readerFor(TourDTO.class);
+    }
+
+    /**
+     * Імпортує тури з потоку і повертає звіт з помилками по рядках та швидкістю імпорту.
+     * Некоректний заголовок CSV — IllegalArgumentException (нічого не імпортується).
+     */
+    public TourImportResultDTO importTours(InputStream input, TourDataFormat format) throws IOException {
+        long started = System.nanoTime();
+
+        // Увесь транспорт — один раз на імпорт (з кешу TransportService), далі лише мапа
+        Map<Integer, TransportDTO> transports = transportService.getAll().stream()
+                .collect(Collectors.toMap(TransportDTO::getId, Function.identity()));
+
+        ImportRun run = new ImportRun(transports);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        RowParser parser;
+        if (format == TourDataFormat.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run.result(started);
+            }
+            lineNumber++;
+            parser = csvParser(header);
+        } else {
+            parser = tourReader::readValue;
+        }
+        logger.info("Importing tours from {} with {} known transports", format, transports.size());
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                run.accept(lineNumber, line, parser);
+            }
+        }
+        run.flush();
+
+        TourImportResultDTO result = run.result(started);
+        logger.info("Imported {} of {} tours in {} ms ({} rows/s), {} rejected",
+                result.getImported(), result.getReceived(), result.getDurationMs(),
+                Math.round(result.getRowsPerSecond()), result.getFailed());
+        return result;
+    }
+
+    /**
+     * Розбирає один рядок вхідних даних у TourDTO.
+     */
+    @FunctionalInterface
+    private interface RowParser {
+        TourDTO parse(String line) throws IOException;
+    }
+
+    /**
+     * Стан одного імпорту: лічильники, поточний батч і зібрані помилки.
+     */
+    private class ImportRun {
+
+        private final Map<Integer, TransportDTO> transports;
+        private final List<TourDTO> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<Long> batchLines = new ArrayList<>(BATCH_SIZE);
+        private final List<TourImportResultDTO.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        ImportRun(Map<Integer, TransportDTO> transports) {
+            this.transports = transports;
+        }
+
+        void accept(long lineNumber, String line, RowParser parser) {
+            received++;
+            TourDTO tour;
+            try {
+                tour = parser.parse(line);
+                if (tour == null) {
+                    throw new IllegalArgumentException("Empty row"); // JSON-літерал null
+                }
+                validate(tour);
+            } catch (JsonProcessingException e) {
+                reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                reject(lineNumber, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                // Будь-яка інша помилка рядка — лише цей рядок у звіт, імпорт триває
+                logger.warn("Unexpected error in import line {}", lineNumber, e);
+                reject(lineNumber, "Invalid row: " + e);
+                return;
+            }
+            batch.add(tour);
+            batchLines.add(lineNumber);
+            if (batch.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> tourRepository.insertAll(batch));
+                created(List.copyOf(batch));
+            } catch (DataAccessException e) {
+                // Батч відкотився повністю; повторюємо по одному рядку, щоб знайти винних
+                logger.warn("Batch of {} tours failed ({}), retrying row by row",
+                        batch.size(), e.getMostSpecificCause().getMessage());
+                List<TourDTO> inserted = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    List<TourDTO> single = List.of(batch.get(i));
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> tourRepository.insertAll(single));
+                        inserted.add(single.get(0));
+                    } catch (DataAccessException rowError) {
+                        reject(batchLines.get(i), rowError.getMostSpecificCause().getMessage());
+                    }
+                }
+                created(inserted);
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+
+        TourImportResultDTO result(long startedNanos) {
+            long elapsedNanos = Math.max(System.nanoTime() - startedNanos, 1);
+            TourImportResultDTO result = new TourImportResultDTO();
+            result.setReceived(received);
+            result.setImported(imported);
+            result.setFailed(failed);
+            result.setDurationMs(elapsedNanos / 1_000_000);
+            result.setRowsPerSecond(imported * 1_000_000_000.0 / elapsedNanos);
+            result.setErrors(errors);
+            return result;
+        }
+
+        private void validate(TourDTO tour) {
+            if (tour.getName() == null || tour.getName().isBlank()) {
+                throw new IllegalArgumentException("Name is required");
+            }
+            TransportDTO transport = transports.get(tour.getTransportId());
+            if (transport == null) {
+                throw new IllegalArgumentException("Invalid transport ID " + tour.getTransportId());
+            }
+            tour.setTransportName(transport.getName());
+        }
+
+        private void created(List<TourDTO> tours) {
+            if (tours.isEmpty()) {
+                return;
+            }
+            imported += tours.size();
+            // Кеші та індекси (типи, автодоповнення, версія каталогу) оновлюються по батчах
+            eventPublisher.publishEvent(new ToursCreatedEvent(tours));
+        }
+
+        private void reject(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TourImportResultDTO.RowError(lineNumber, message));
+            }
+        }
+    }
+
+    /**
+     * Парсер рядків CSV за заголовком. Підтримуються поля в лапках з "" всередині,
+     * але не переноси рядків у полях: один тур — один рядок.
+     */
+    private static RowParser csvParser(String header) {
+        List<String> names = splitCsvLine(header.replace("\uFEFF", ""));
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            positions.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] index = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            Integer position = positions.get(CSV_COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new IllegalArgumentException("CSV header must contain columns " + CSV_COLUMNS);
+            }
+            index[i] = position;
+        }
+
+        return line -> {
+            List<String> fields = splitCsvLine(line);
+            if (fields.size() != names.size()) {
+                throw new IllegalArgumentException("Expected " + names.size() + " fields but got " + fields.size());
+            }
+            TourDTO tour = new TourDTO();
+            tour.setName(emptyToNull(fields.get(index[0])));
+            tour.setType(emptyToNull(fields.get(index[1])));
+            tour.setTransportId(parseInt(CSV_COLUMNS.get(2), fields.get(index[2])));
+            tour.setMealOption(emptyToNull(fields.get(index[3])));
+            tour.setNumberOfDays(parseInt(CSV_COLUMNS.get(4), fields.get(index[4])));
+            tour.setPrice(parseInt(CSV_COLUMNS.get(5), fields.get(index[5])));
+            tour.setRating(parseDouble(CSV_COLUMNS.get(6), fields.get(index[6])));
+            return tour;
+        };
+    }
+
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isBlank() ? null : value.trim();
+    }
+
+    private static int parseInt(String column, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static double parseDouble(String column, String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Індекс назв турів у пам'яті для автодоповнення.
+ *
+ * Назви зберігаються у відсортованій мапі (ключ — назва в нижньому регістрі + id),
+ * тож усі тури з префіксом "кар" лежать одним суцільним діапазоном subMap("кар", "кар" + Character.MAX_VALUE).
+ * Для коротких префіксів такий діапазон може охоплювати пів каталогу, тому найкращі
+ * MAX_LIMIT результатів для кожного префікса запам'ятовуються й далі віддаються за O(1).
+ *
+ * Тури лише додаються, тому запам'ятований топ можна оновлювати злиттям з новим туром,
+ * а не перераховувати.
+ */
+@Component
+public class TourNameIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int MAX_CACHED_PREFIXES = 10_000;
+    private static final int MAX_PREFIX_LENGTH = 64;
+
+    // Вищий рейтинг — вище; при рівному рейтингу — за назвою, потім за id
+    private static final Comparator<TourSuggestion> BEST_FIRST = Comparator
+            .comparingDouble(TourSuggestion::rating).reversed()
+            .thenComparing(TourSuggestion::name)
+            .thenComparingInt(TourSuggestion::id);
+
+    private final ConcurrentSkipListMap<String, TourSuggestion> byName = new ConcurrentSkipListMap<>();
+    private final Cache<String, List<TourSuggestion>> topByPrefix = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_PREFIXES)
+            .build();
+    // Збільшується на кожен запис: топ, порахований паралельно із записом, не кешується
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Найкращі за рейтингом тури, назва яких починається з prefix (регістр не враховується).
+     */
+    public List<TourSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        List<TourSuggestion> top = topByPrefix.getIfPresent(normalized);
+        if (top == null) {
+            long seen = generation.get();
+            top = scan(normalized);
+            // Перевірка й запис під тим самим замком, що й add(), щоб не закешувати застарілий топ
+            synchronized (this) {
+                if (generation.get() == seen) {
+                    topByPrefix.put(normalized, top);
+                }
+            }
+        }
+        return top.size() <= limit ? top : top.subList(0, limit);
+    }
+
+    /**
+     * Додає тур до індексу й оновлює запам'ятовані результати для всіх його префіксів.
+     */
+    public synchronized void add(TourSuggestion suggestion) {
+        if (suggestion.name() == null) {
+            return;
+        }
+        String name = normalize(suggestion.name());
+        generation.incrementAndGet();
+        byName.put(key(name, suggestion.id()), suggestion);
+        for (int length = 1; length <= Math.min(name.length(), MAX_PREFIX_LENGTH); length++) {
+            topByPrefix.asMap().computeIfPresent(name.substring(0, length), (prefix, top) -> merge(top, suggestion));
+        }
+    }
+
+    /**
+     * Повністю замінює вміст індексу (наприклад, під час старту застосунку).
+     */
+    public synchronized void reset(Collection<TourSuggestion> suggestions) {
+        generation.incrementAndGet();
+        byName.clear();
+        topByPrefix.invalidateAll();
+        for (TourSuggestion suggestion : suggestions) {
+            if (suggestion.name() != null) {
+                byName.put(key(normalize(suggestion.name()), suggestion.id()), suggestion);
+            }
+        }
+    }
+
+    /**
+     * Кількість турів в індексі.
+     */
+    public int size() {
+        return byName.size();
+    }
+
+    // Повний прохід по діапазону префікса з min-heap на MAX_LIMIT елементів
+    private List<TourSuggestion> scan(String prefix) {
+        PriorityQueue<TourSuggestion> heap = new PriorityQueue<>(MAX_LIMIT + 1, BEST_FIRST.reversed());
+        for (TourSuggestion suggestion : byName.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            heap.offer(suggestion);
+            if (heap.size() > MAX_LIMIT) {
+                heap.poll(); // викидаємо найгірший
+            }
+        }
+        List<TourSuggestion> top = new ArrayList<>(heap);
+        top.sort(BEST_FIRST);
+        return List.copyOf(top);
+    }
+
+    private static List<TourSuggestion> merge(List<TourSuggestion> top, TourSuggestion suggestion) {
+        List<TourSuggestion> merged = new ArrayList<>(top.size() + 1);
+        for (TourSuggestion existing : top) {
+            if (existing.id() != suggestion.id()) {
+                merged.add(existing);
+            }
+        }
+        merged.add(suggestion);
+        merged.sort(BEST_FIRST);
+        return List.copyOf(merged.size() > MAX_LIMIT ? merged.subList(0, MAX_LIMIT) : merged);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_PREFIX_LENGTH ? normalized.substring(0, MAX_PREFIX_LENGTH) : normalized;
+    }
+
+    // '\u0000' менший за будь-який символ назви, тому ключ лишається в діапазоні свого префікса
+    private static String key(String normalizedName, int id) {
+        return normalizedName + '\u0000' + id;
+    }
+}
@@ -0,0 +1,126 @@
+package com.kursova.kursovaapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Кеш результатів SQL-пошуку турів: нормалізований фільтр + сторінка + сортування -> ID турів
+ * сторінки і загальна кількість. Популярні комбінації фільтрів не повторюють SELECT з фільтрами
+ * і COUNT; тури сторінки дочитуються за первинним ключем, а isFavorite ставиться під час читання.
+ *
+ * Caffeine витісняє за W-TinyLFU: рідкісні комбінації не виштовхують популярні.
+ * Запис позначений поколінням — версією каталогу (TourCatalogVersion) на момент перед запитом.
+ * Після запису турів чи зміни транспорту версія інша, тож старий запис — промах і перезаписується.
+ *
+ * Метрики: cache.gets (result=hit/miss), cache.size, cache.evictions з тегом cache=tourSearch
+ * і tour.search.cache.size — оцінний розмір записів у байтах.
+ */
+@Component
+public class TourSearchCache {
+
+    static final String CACHE_NAME = "tourSearch";
+
+    // Оцінка пам'яті запису: об'єкти ключа, значення й вузла Caffeine без рядків фільтра й масиву ID
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final Cache<Key, Entry> cache;
+
+    public TourSearchCache(TourSearchCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.enabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .weigher(TourSearchCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("tour.search.cache.size", cache, TourSearchCache::weightedSize)
+                .description("Estimated memory held by cached tour search pages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Закешована сторінка для цього запиту в поколінні generation або null.
+     */
+    public Entry get(TourFilter filter, Pageable pageable, long generation) {
+        if (cache == null || pageable.isUnpaged()) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key(filter, pageable));
+        return entry != null && entry.generation() == generation ? entry : null;
+    }
+
+    /**
+     * Запам'ятовує сторінку, отриману з БД; generation — версія каталогу, прочитана до запиту.
+     */
+    public void put(TourFilter filter, Pageable pageable, long generation, Page<TourDTO> page) {
+        if (cache == null || pageable.isUnpaged()) {
+            return;
+        }
+        int[] ids = page.getContent().stream().mapToInt(TourDTO::getId).toArray();
+        cache.put(key(filter, pageable), new Entry(generation, ids, page.getTotalElements()));
+    }
+
+    /**
+     * Видаляє всі записи (наприклад, якщо тур зі сторінки вже не знайдено).
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Нормалізація без зміни змісту фільтра: текстові умови порівнюються без урахування регістру,
+     * тому "Beach" і "beach" — один ключ; порожній рядок, як і null, означає "без фільтра".
+     */
+    static Key key(TourFilter filter, Pageable pageable) {
+        TourFilter normalized = new TourFilter(
+                lower(filter.name()), lower(filter.type()), lower(filter.mealOption()),
+                filter.minDays(), filter.maxDays(), filter.minPrice(), filter.maxPrice(),
+                filter.minRating(), filter.maxRating(), lower(filter.transportName()));
+        return new Key(normalized, pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    }
+
+    private static String lower(String value) {
+        return StringUtils.hasText(value) ? value.toLowerCase() : null;
+    }
+
+    // Caffeine оновлює вагу асинхронно; cleanUp доводить її до актуальної на момент зчитування метрики
+    private static double weightedSize(Cache<Key, Entry> cache) {
+        cache.cleanUp();
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static int weigh(Key key, Entry entry) {
+        TourFilter f = key.filter();
+        int strings = length(f.name()) + length(f.type()) + length(f.mealOption()) + length(f.transportName());
+        return ENTRY_OVERHEAD_BYTES + 2 * strings + Integer.BYTES * entry.ids().length;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    record Key(TourFilter filter, int page, int size, Sort sort) {
+    }
+
+    /**
+     * ID турів сторінки в порядку сортування і загальна кількість за фільтром.
+     */
+    public record Entry(long generation, int[] ids, long total) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.kursova.kursovaapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Кеш результатів SQL-пошуку турів (app.tour-search.result-cache.*), див. TourSearchCache.
+ *
+ * @param enabled чи кешувати сторінки /api/tours
+ * @param maxSize межа оцінного розміру записів; сторінка з 20 турів — близько 300 байтів
+ */
+@ConfigurationProperties("app.tour-search.result-cache")
+public record TourSearchCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("16MB") DataSize maxSize
+) {
+}
@@ -0,0 +1,21 @@
+package com.kursova.kursovaapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Налаштування пошуку турів (app.tour-search.*).
+ *
+ * @param engine де виконується /api/tours: SQL (Specification-запит до БД) або MEMORY
+ *               (TourColumnIndex; каталог тримається в пам'яті, БД читається лише під час старту)
+ */
+@ConfigurationProperties("app.tour-search")
+public record TourSearchProperties(
+        @DefaultValue("sql") Engine engine
+) {
+
+    public enum Engine {
+        SQL,
+        MEMORY
+    }
+}
@@ -1,20 +1,47 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.config.CacheConfig;
+import com.kursova.kursovaapi.dto.TourCursor;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TourSliceDTO;
+import com.kursova.kursovaapi.dto.TransportDTO;
 import com.kursova.kursovaapi.entity.TourEntity;
-import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.logging.FilterLogging;
 import com.kursova.kursovaapi.mapper.TourMapper;
+import com.kursova.kursovaapi.mapper.TransportMapper;
 import com.kursova.kursovaapi.repository.TourRepository;
-import com.kursova.kursovaapi.repository.TransportRepository;
+import com.kursova.kursovaapi.repository.custom.TourFacetBuckets;
+import com.kursova.kursovaapi.repository.custom.TourFacetRow;
 import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
 
 /**
  * Сервіс для створення та пошуку турів.
@@ -24,18 +51,43 @@ public class TourService {
 
     private static final Logger logger = LoggerFactory.getLogger(TourService.class);
 
+    // Поля, за якими дозволене сортування в keyset-пагінації (під них є індекси (поле, id))
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("price", "rating", "numberOfDays");
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final TourRepository tourRepository;
-    private final TransportRepository transportRepository;
+    private final TransportService transportService;
     private final FavoriteService favoriteService;
+    private final TourCatalogVersion catalogVersion;
+    private final TourColumnSearchService columnSearch;
+    private final TourSearchCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Кількість турів у відповіді (search.rows, тег operation) — разом із таймером видно дорогі фільтри
+    private final DistributionSummary searchRows;
+    private final DistributionSummary textSearchRows;
+    private final DistributionSummary scrollRows;
 
     public TourService(
             TourRepository tourRepository,
-            TransportRepository transportRepository,
-            FavoriteService favoriteService
+            TransportService transportService,
+            FavoriteService favoriteService,
+            TourCatalogVersion catalogVersion,
+            TourColumnSearchService columnSearch,
+            TourSearchCache searchCache,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
     ) {
         this.tourRepository = tourRepository;
-        this.transportRepository = transportRepository;
+        this.transportService = transportService;
         this.favoriteService = favoriteService;
+        this.catalogVersion = catalogVersion;
+        this.columnSearch = columnSearch;
+        this.searchCache = searchCache;
+        this.eventPublisher = eventPublisher;
+        this.searchRows = rowsSummary(meterRegistry, "tours");
+        this.textSearchRows = rowsSummary(meterRegistry, "text");
+        this.scrollRows = rowsSummary(meterRegistry, "scroll");
     }
 
     /**
@@ -45,94 +97,314 @@ public class TourService {
     public TourDTO createTour(TourDTO dto) {
         logger.info("Creating tour: {}", dto.getName());
 
-        // Перевірка, що транспорт існує
-        TransportEntity transport = transportRepository.findById(dto.getTransportId())
+        // Перевірка, що транспорт існує (з кешу TransportService, зазвичай без запиту до БД)
+        TransportDTO transport = transportService.findById(dto.getTransportId())
                 .orElseThrow(() -> {
                     logger.error("Transport with ID {} not found", dto.getTransportId());
                     return new IllegalArgumentException("Invalid transport ID");
                 });
 
-        // Перетворення DTO -> Entity
-        TourEntity entity = TourMapper.toEntity(dto, transport);
+        // Перетворення DTO -> Entity; для зовнішнього ключа Hibernate достатньо id транспорту
+        TourEntity entity = TourMapper.toEntity(dto, TransportMapper.toEntity(transport));
         TourEntity saved = tourRepository.save(entity); // INSERT
 
         logger.info("Tour created successfully with ID {}", saved.getId());
 
-        // Повернення DTO для відповіді
-        return TourMapper.toDto(saved);
+        // Повернення DTO для відповіді; кеші та індекси оновлюються через подію
+        TourDTO created = TourMapper.toDto(saved);
+        eventPublisher.publishEvent(new ToursCreatedEvent(List.of(created)));
+        return created;
     }
 
     /**
      * Шукає тури з підтримкою пагінації та фільтрації.
-     * Крім того, позначає, які з них знаходяться в улюблених.
+     * Крім того, позначає, які з них знаходяться в улюблених (через FavoriteIdIndex).
+     * З app.tour-search.engine=memory запит обслуговує TourColumnIndex, інакше — SQL,
+     * а популярні комбінації фільтрів беруться з TourSearchCache (ID сторінки + кількість).
      */
-    public Page<TourDTO> searchToursWithPaging(
-            String name, String type, String mealOption,
-            Integer minDays, Integer maxDays,
-            Integer minPrice, Integer maxPrice,
-            Double minRating, Double maxRating,
-            String transportName,
-            Pageable pageable
-    ) {
-        // Побудова лог-повідомлення для дебагу
-        StringBuilder logMessage = new StringBuilder("Searching tours with filters:");
-
-        if (name != null && !name.isBlank()) logMessage.append(" name='").append(name).append("'");
-        if (type != null && !type.isBlank()) logMessage.append(", type='").append(type).append("'");
-        if (mealOption != null && !mealOption.isBlank()) logMessage.append(", meal='").append(mealOption).append("'");
-        if (transportName != null && !transportName.isBlank()) logMessage.append(", transport='").append(transportName).append("'");
-
-        if (minDays != null || maxDays != null)
-            logMessage.append(", days=[").append(minDays != null ? minDays : "").append("-").append(maxDays != null ? maxDays : "").append("]");
-
-        if (minPrice != null || maxPrice != null)
-            logMessage.append(", price=[").append(minPrice != null ? minPrice : "").append("-").append(maxPrice != null ? maxPrice : "").append("]");
-
-        if (minRating != null || maxRating != null)
-            logMessage.append(", rating=[").append(minRating != null ? minRating : "").append("-").append(maxRating != null ? maxRating : "").append("]");
-
-        logger.info(logMessage.toString());
-
-        // Побудова динамічного фільтра (аналог Django Q-об'єктів)
-        Specification<TourEntity> spec = Specification.where(TourSpecification.nameContains(name))
-                .and(TourSpecification.hasType(type))
-                .and(TourSpecification.hasMealOption(mealOption))
-                .and(TourSpecification.minDays(minDays))
-                .and(TourSpecification.maxDays(maxDays))
-                .and(TourSpecification.minPrice(minPrice))
-                .and(TourSpecification.maxPrice(maxPrice))
-                .and(TourSpecification.minRating(minRating))
-                .and(TourSpecification.maxRating(maxRating))
-                .and(TourSpecification.hasTransportName(transportName));
-
-        // Отримуємо список ID улюблених турів
-        List<Integer> favoriteIds = favoriteService.getAll().stream()
-                .map(TourDTO::getId)
-                .toList();
+    @Timed(value = "tour.service", histogram = true)
+    public Page<TourDTO> searchToursWithPaging(TourFilter filter, Pageable pageable) {
+        FilterLogging.withFilter(logger.atInfo(), filter).log("Searching tours");
+
+        Page<TourDTO> page;
+        if (columnSearch.canSearch(pageable)) {
+            page = columnSearch.search(filter, pageable);
+        } else {
+            // Версія читається до запиту: запис, що встигне між запитом і put, зробить запис застарілим
+            long generation = catalogVersion.current();
+            TourSearchCache.Entry cached = searchCache.get(filter, pageable, generation);
+            page = cached == null ? null : fromCache(cached, pageable);
+            if (page == null) {
+                // Побудова динамічного фільтра (аналог Django Q-об'єктів)
+                Specification<TourEntity> spec = TourSpecification.matching(filter);
+
+                logger.info("Querying database for filtered tours");
+
+                // Пошук турів по фільтрам із автоматичною пагінацією
+                page = tourRepository.findAll(spec, pageable).map(this::toDtoWithFavorite);
+                searchCache.put(filter, pageable, generation, page);
+            }
+        }
+        searchRows.record(page.getNumberOfElements());
+        return page;
+    }
+
+    /**
+     * Повнотекстовий пошук за назвою з урахуванням префіксів ("carp wee" знайде "Carpathian weekend").
+     * Інші фільтри з TourFilter застосовуються як звичайно.
+     * Без явного sort результати впорядковані за релевантністю.
+     */
+    @Timed(value = "tour.service", histogram = true)
+    public Page<TourDTO> searchByText(String text, TourFilter filter, Pageable pageable) {
+        String tsQuery = TourSpecification.toPrefixTsQuery(text);
+        if (tsQuery == null) {
+            throw new IllegalArgumentException("Search query must contain letters or digits");
+        }
+        FilterLogging.withFilter(logger.atInfo(), filter).addKeyValue("query", tsQuery).log("Full-text search");
+
+        Specification<TourEntity> spec = TourSpecification.matching(filter)
+                .and(TourSpecification.nameMatches(text));
+        if (pageable.getSort().isUnsorted()) {
+            spec = spec.and(TourSpecification.orderByRelevance(text));
+        }
+
+        Page<TourDTO> page = tourRepository.findAll(spec, pageable).map(this::toDtoWithFavorite);
+        textSearchRows.record(page.getNumberOfElements());
+        return page;
+    }
+
+    /**
+     * Keyset-пагінація (seek): замість OFFSET/LIMIT + COUNT(*) бере наступні size турів
+     * після курсора за умовою (sortKey, id) > (останнє значення, останній id).
+     * Сортувати можна лише за price, rating, numberOfDays (або без сортування — за id).
+     */
+    @Timed(value = "tour.service", histogram = true)
+    public TourSliceDTO scrollTours(TourFilter filter, String after, int size, Sort sort) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+        FilterLogging.withFilter(logger.atInfo(), filter).log("Scrolling tours");
+
+        Sort.Order order = keysetOrder(sort);
+        // id додається другим ключем з тим самим напрямком, щоб порядок був однозначним
+        Sort keysetSort = "id".equals(order.getProperty())
+                ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        ScrollPosition position = after == null || after.isBlank()
+                ? ScrollPosition.keyset()
+                : positionAfter(TourCursor.decode(after), order);
+
+        Specification<TourEntity> spec = TourSpecification.matching(filter)
+                .and(TourSpecification.fetchTransport());
+        Window<TourEntity> window = tourRepository.findBy(spec, query -> query
+                .sortBy(keysetSort)
+                .limit(size)
+                .scroll(position));
 
-        logger.info("Querying database for filtered tours");
+        List<TourEntity> entities = window.getContent();
+        String nextCursor = null;
+        if (window.hasNext() && !entities.isEmpty()) {
+            TourEntity last = entities.get(entities.size() - 1);
+            nextCursor = new TourCursor(order.getProperty(), order.getDirection(),
+                    sortValue(last, order.getProperty()), last.getId()).encode();
+        }
 
-        // Пошук турів по фільтрам із автоматичною пагінацією
-        return tourRepository.findAll(spec, pageable).map(entity -> {
-            TourDTO dto = TourMapper.toDto(entity);
-            dto.setIsFavorite(favoriteIds.contains(dto.getId())); // Позначити, чи є в обраному
-            return dto;
-        });
+        List<TourDTO> content = entities.stream().map(this::toDtoWithFavorite).toList();
+        scrollRows.record(content.size());
+        logger.info("Returning {} tours, hasNext={}", content.size(), window.hasNext());
+        return new TourSliceDTO(content, window.hasNext(), nextCursor);
+    }
+
+    /**
+     * Фасети для поточного набору фільтрів: кількість турів за типом, харчуванням,
+     * транспортом і діапазонами ціни/днів/рейтингу. Увесь підрахунок — один запит:
+     * окремий GROUP BY для кожного фасету, об'єднані через UNION ALL.
+     */
+    @Timed(value = "tour.service", histogram = true)
+    public TourFacetsDTO getFacets(TourFilter filter) {
+        FilterLogging.withFilter(logger.atInfo(), filter).log("Counting tour facets");
+
+        List<TourFacetRow> rows = tourRepository.countFacets(TourSpecification.matching(filter));
+
+        Map<String, Long> types = new HashMap<>();
+        Map<String, Long> mealOptions = new HashMap<>();
+        Map<String, Long> transports = new HashMap<>();
+        long[] price = new long[TourFacetBuckets.PRICE.length + 1];
+        long[] days = new long[TourFacetBuckets.DAYS.length + 1];
+        long[] rating = new long[TourFacetBuckets.RATING.length + 1];
+        long total = 0;
+
+        for (TourFacetRow row : rows) {
+            switch (row.facet()) {
+                case TYPE -> mergeValue(types, row);
+                case MEAL_OPTION -> mergeValue(mealOptions, row);
+                case TRANSPORT -> mergeValue(transports, row);
+                case PRICE -> {
+                    price[row.bucket()] += row.count();
+                    total += row.count(); // кожен тур потрапляє рівно в один діапазон ціни
+                }
+                case DAYS -> days[row.bucket()] += row.count();
+                case RATING -> rating[row.bucket()] += row.count();
+            }
+        }
+
+        TourFacetsDTO facets = new TourFacetsDTO();
+        facets.setTotal(total);
+        facets.setTypes(byCountDesc(types));
+        facets.setMealOptions(byCountDesc(mealOptions));
+        facets.setTransports(byCountDesc(transports));
+        facets.setPrice(ranges(price, i -> TourFacetBuckets.PRICE[i], TourFacetBuckets.PRICE.length));
+        facets.setDays(ranges(days, i -> TourFacetBuckets.DAYS[i], TourFacetBuckets.DAYS.length));
+        facets.setRating(ranges(rating, i -> TourFacetBuckets.RATING[i], TourFacetBuckets.RATING.length));
+
+        logger.info("Counted facets over {} tours ({} grouped rows)", total, rows.size());
+        return facets;
     }
 
     /**
      * Повертає всі унікальні типи турів (для фільтрів, UI).
+     * З рушієм memory — з бітмапів індексу (від найчастішого), інакше DISTINCT-запитом.
+     * Результат кешується до наступного запису турів.
      */
+    @Cacheable(CacheConfig.TOUR_TYPES)
     public List<String> getAllTypes() {
         logger.info("Fetching all distinct tour types");
+        if (columnSearch.isLoaded()) {
+            return columnSearch.types();
+        }
         return tourRepository.findAllDistinctTypes();
     }
 
     /**
      * Повертає всі унікальні опції харчування (для фільтрів, UI).
+     * З рушієм memory — з бітмапів індексу (від найчастішої), інакше DISTINCT-запитом.
+     * Результат кешується до наступного запису турів.
      */
+    @Cacheable(CacheConfig.TOUR_MEAL_OPTIONS)
     public List<String> getAllMealOptions() {
         logger.info("Fetching all distinct meal options");
+        if (columnSearch.isLoaded()) {
+            return columnSearch.mealOptions();
+        }
         return tourRepository.findAllDistinctMealOptions();
     }
+
+    /**
+     * Поточна версія каталогу (для ETag відповідей, що залежать від турів).
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    /**
+     * Нові тури можуть додати нові типи/опції харчування — скидаємо кеші фасетів.
+     */
+    @EventListener
+    @CacheEvict(cacheNames = {CacheConfig.TOUR_TYPES, CacheConfig.TOUR_MEAL_OPTIONS}, allEntries = true)
+    public void onToursCreated(ToursCreatedEvent event) {
+        logger.debug("Evicting facet caches after {} new tours", event.tours().size());
+    }
+
+    // null (тур без типу, харчування чи транспорту) не є значенням фасету
+    private static void mergeValue(Map<String, Long> counts, TourFacetRow row) {
+        if (row.value() != null) {
+            counts.merge(row.value(), row.count(), Long::sum);
+        }
+    }
+
+    private static List<TourFacetsDTO.ValueCount> byCountDesc(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new TourFacetsDTO.ValueCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // Усі діапазони, навіть порожні, щоб UI міг показати повну шкалу
+    private static List<TourFacetsDTO.RangeCount> ranges(long[] counts, IntFunction<Number> bound, int boundCount) {
+        List<TourFacetsDTO.RangeCount> ranges = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            Number from = i == 0 ? null : bound.apply(i - 1);
+            Number to = i == boundCount ? null : bound.apply(i);
+            ranges.add(new TourFacetsDTO.RangeCount(from, to, counts[i]));
+        }
+        return ranges;
+    }
+
+    /**
+     * Сторінка з кешу: тури дочитуються за ID у збереженому порядку, isFavorite — поточний.
+     * Якщо якогось туру вже немає (видалено в обхід API), кеш скидається і повертається null.
+     */
+    private Page<TourDTO> fromCache(TourSearchCache.Entry cached, Pageable pageable) {
+        List<TourDTO> content = new ArrayList<>(cached.ids().length);
+        if (cached.ids().length > 0) {
+            Map<Integer, TourEntity> byId = new HashMap<>();
+            for (TourEntity entity : tourRepository.findWithTransportByIdIn(Arrays.stream(cached.ids()).boxed().toList())) {
+                byId.put(entity.getId(), entity);
+            }
+            for (int id : cached.ids()) {
+                TourEntity entity = byId.get(id);
+                if (entity == null) {
+                    logger.warn("Cached tour {} no longer exists, clearing search cache", id);
+                    searchCache.invalidateAll();
+                    return null;
+                }
+                content.add(toDtoWithFavorite(entity));
+            }
+        }
+        logger.info("Serving tour page from search cache");
+        return new PageImpl<>(content, pageable, cached.total());
+    }
+
+    private TourDTO toDtoWithFavorite(TourEntity entity) {
+        TourDTO dto = TourMapper.toDto(entity);
+        dto.setIsFavorite(favoriteService.isFavorite(dto.getId())); // O(1) перевірка з індексу, без БД
+        return dto;
+    }
+
+    /**
+     * Перевіряє, що сортування підтримується keyset-пагінацією, і повертає його.
+     */
+    private static Sort.Order keysetOrder(Sort sort) {
+        List<Sort.Order> orders = sort == null ? List.of() : sort.toList();
+        if (orders.isEmpty()) {
+            return Sort.Order.asc("id");
+        }
+        Sort.Order order = orders.get(0);
+        if (orders.size() > 1 || !KEYSET_SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Keyset pagination supports sorting by one of " + KEYSET_SORT_PROPERTIES);
+        }
+        return order;
+    }
+
+    private static ScrollPosition positionAfter(TourCursor cursor, Sort.Order order) {
+        if (!cursor.sortProperty().equals(order.getProperty()) || cursor.direction() != order.getDirection()) {
+            throw new IllegalArgumentException("Cursor does not match requested sort");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(cursor.sortProperty(), cursor.sortValue());
+        keys.put("id", cursor.id());
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Number sortValue(TourEntity entity, String property) {
+        // switch-оператор, а не вираз: вираз підвищив би всі гілки до double
+        switch (property) {
+            case "price":
+                return entity.getPrice();
+            case "rating":
+                return entity.getRating();
+            case "numberOfDays":
+                return entity.getNumberOfDays();
+            default:
+                return entity.getId();
+        }
+    }
+
+    private static DistributionSummary rowsSummary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("search.rows")
+                .description("Tours returned by a search request")
+                .baseUnit("rows")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
 }
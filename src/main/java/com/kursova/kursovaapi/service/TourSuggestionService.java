@@ -0,0 +1,56 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Автодоповнення назв турів. Запити обслуговуються лише з TourNameIndex у пам'яті,
+ * БД читається один раз під час старту, далі індекс оновлюється подіями створення турів.
+ */
+@Service
+public class TourSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TourSuggestionService.class);
+
+    private final TourRepository tourRepository;
+    private final TourNameIndex tourNameIndex;
+
+    public TourSuggestionService(TourRepository tourRepository, TourNameIndex tourNameIndex) {
+        this.tourRepository = tourRepository;
+        this.tourNameIndex = tourNameIndex;
+    }
+
+    /**
+     * Завантажує назви всіх турів в індекс під час старту застосунку.
+     */
+    @PostConstruct
+    public void loadNameIndex() {
+        List<TourSuggestion> suggestions = tourRepository.findAllSuggestions();
+        tourNameIndex.reset(suggestions);
+        logger.info("Loaded {} tour names into suggestion index", suggestions.size());
+    }
+
+    /**
+     * Повертає до limit турів з найвищим рейтингом, назва яких починається з prefix.
+     */
+    public List<TourSuggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > TourNameIndex.MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + TourNameIndex.MAX_LIMIT);
+        }
+        // Без логування на INFO: викликається на кожне натискання клавіші
+        return tourNameIndex.suggest(prefix, limit);
+    }
+
+    @EventListener
+    public void onToursCreated(ToursCreatedEvent event) {
+        event.tours().forEach(tour -> tourNameIndex.add(new TourSuggestion(tour.getId(), tour.getName(), tour.getRating())));
+    }
+}
@@ -1,32 +1,62 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.config.CacheConfig;
 import com.kursova.kursovaapi.dto.TransportDTO;
 import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.event.TransportChangedEvent;
 import com.kursova.kursovaapi.mapper.TransportMapper;
 import com.kursova.kursovaapi.repository.TransportRepository;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Сервіс для роботи з транспортом.
+ * Читання кешуються (CacheConfig.TRANSPORTS_BY_ID, TRANSPORT_LIST), записи оновлюють або скидають кеш.
+ * Повернуті DTO спільні для всіх викликів, тому їх не можна змінювати.
+ * Конфлікт версій під час оновлення також скидає транспорт із кешу за ID.
+ * Зміни й видалення публікують TransportChangedEvent для кешів, що містять назви транспорту.
+ * Кожен запис збільшує версію списку (getVersion) — з неї будується ETag для /api/transports.
+ * Кожен публічний метод вимірюється таймером transport.service (теги class, method, exception).
  */
 @Service
+@Timed(value = "transport.service", histogram = true)
 public class TransportService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransportService.class);
 
     private final TransportRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
-    public TransportService(TransportRepository repository) {
+    // Стартуємо з часу запуску, щоб після рестарту не повторити старі ETag-и
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public TransportService(TransportRepository repository, ApplicationEventPublisher eventPublisher,
+                            CacheManager cacheManager) {
         this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
     }
 
     /**
      * Повертає DTO транспорту за ID.
      */
+    @Cacheable(CacheConfig.TRANSPORTS_BY_ID)
     public TransportDTO getById(int id) {
         logger.info("Fetching transport with ID {}", id);
 
@@ -39,9 +69,29 @@ public class TransportService {
         return TransportMapper.toDto(entity);
     }
 
+    /**
+     * Шукає транспорт за ID. Використовує той самий кеш, що й getById;
+     * відсутній транспорт не кешується.
+     */
+    @Cacheable(cacheNames = CacheConfig.TRANSPORTS_BY_ID, unless = "#result == null")
+    public Optional<TransportDTO> findById(int id) {
+        logger.debug("Looking up transport with ID {}", id);
+        return repository.findById(id).map(TransportMapper::toDto);
+    }
+
+    /**
+     * Версія списку транспорту: змінюється після кожного створення, зміни чи видалення.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     /**
      * Повертає всі транспорти як список DTO.
+     * Ключ кешу — версія списку: запис збільшує її ще до того, як @CacheEvict спрацює після методу,
+     * тож читач, що вже бачить нову версію (і новий ETag), не отримає старий список з кешу.
      */
+    @Cacheable(cacheNames = CacheConfig.TRANSPORT_LIST, key = "#root.target.version")
     public List<TransportDTO> getAll() {
         logger.info("Fetching all transport entries");
 
@@ -53,6 +103,10 @@ public class TransportService {
     /**
      * Створює новий транспорт і повертає DTO.
      */
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.TRANSPORTS_BY_ID, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.TRANSPORT_LIST, allEntries = true)
+    )
     public TransportDTO create(TransportDTO dto) {
         logger.info("Creating new transport: {}", dto.getName());
 
@@ -60,21 +114,35 @@ public class TransportService {
         TransportEntity saved = repository.save(entity); // INSERT
 
         logger.info("Transport created with ID {}", saved.getId());
+        version.incrementAndGet();
         return TransportMapper.toDto(saved);
     }
 
     /**
      * Видаляє транспорт за ID.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRANSPORTS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TRANSPORT_LIST, allEntries = true)
+    })
     public void delete(int id) {
         logger.info("Deleting transport with ID {}", id);
         repository.deleteById(id);
         logger.info("Transport with ID {} deleted", id);
+        version.incrementAndGet();
+        eventPublisher.publishEvent(new TransportChangedEvent(id));
     }
 
     /**
-     * Оновлює транспорт за ID.
+     * Оновлює транспорт за ID без блокувань: UPDATE перевіряє версію (@Version), тож із двох
+     * паралельних змін одна проходить, а інша отримує ObjectOptimisticLockingFailureException (409).
+     * Якщо dto містить version, вона має збігатися з поточною — так клієнт не перезапише зміну,
+     * зроблену після того, як він прочитав транспорт.
      */
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.TRANSPORTS_BY_ID, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.TRANSPORT_LIST, allEntries = true)
+    )
     public TransportDTO update(int id, TransportDTO dto) {
         logger.info("Updating transport with ID {}", id);
 
@@ -84,11 +152,36 @@ public class TransportService {
                     return new IllegalArgumentException("Invalid transport ID");
                 });
 
+        if (dto.getVersion() != null && dto.getVersion() != entity.getVersion()) {
+            logger.warn("Transport with ID {} has version {}, update expected {}", id, entity.getVersion(), dto.getVersion());
+            throw conflict(id, new ObjectOptimisticLockingFailureException(TransportEntity.class, id));
+        }
         entity.setName(dto.getName());
 
-        TransportEntity updated = repository.save(entity); // UPDATE
+        TransportEntity updated;
+        try {
+            updated = repository.save(entity); // UPDATE
+        } catch (OptimisticLockingFailureException e) {
+            throw conflict(id, e);
+        }
         logger.info("Transport with ID {} updated successfully", updated.getId());
+        version.incrementAndGet();
+        eventPublisher.publishEvent(new TransportChangedEvent(id));
 
         return TransportMapper.toDto(updated);
     }
+
+    /**
+     * Скидає транспорт із кешу за ID і повертає виняток конфлікту для throw.
+     * Кешований DTO може бути старішим за БД: промах кешу, що прочитав стару версію, інколи кладе її
+     * в кеш уже після @CachePut паралельного оновлення. Без скидання клієнт, який після 409
+     * перечитує транспорт, знову отримав би ту саму стару версію і знову 409.
+     */
+    private OptimisticLockingFailureException conflict(int id, OptimisticLockingFailureException e) {
+        Cache cache = cacheManager.getCache(CacheConfig.TRANSPORTS_BY_ID);
+        if (cache != null) {
+            cache.evict(id);
+        }
+        return e;
+    }
 }
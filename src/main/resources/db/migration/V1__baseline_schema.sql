@@ -0,0 +1,26 @@
+-- Початкова схема (така сама, яку раніше створював Hibernate через ddl-auto=update).
+-- На існуючих БД ця міграція не виконується: Flyway робить baseline на версії 1.
+
+CREATE TABLE IF NOT EXISTS transport
+(
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS tour
+(
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(255),
+    type           VARCHAR(255),
+    transport_id   INTEGER REFERENCES transport (id),
+    meal_option    VARCHAR(255),
+    number_of_days INTEGER          NOT NULL,
+    price          INTEGER          NOT NULL,
+    rating         DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS favorite
+(
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tour_id INTEGER NOT NULL REFERENCES tour (id)
+);
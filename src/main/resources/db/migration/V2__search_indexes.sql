@@ -0,0 +1,29 @@
+-- Індекси під фільтри TourSpecification, keyset-пагінацію та таблицю обраного.
+
+-- hasType / hasMealOption / hasTransportName порівнюють LOWER(...) = ?,
+-- тому індекс має бути саме на вираз lower(...), інакше планувальник його не використає
+CREATE INDEX IF NOT EXISTS idx_tour_lower_type ON tour (lower(type));
+CREATE INDEX IF NOT EXISTS idx_tour_lower_meal_option ON tour (lower(meal_option));
+CREATE INDEX IF NOT EXISTS idx_transport_lower_name ON transport (lower(name));
+
+-- JOIN tour -> transport (PostgreSQL не створює індекс для FK автоматично)
+CREATE INDEX IF NOT EXISTS idx_tour_transport_id ON tour (transport_id);
+
+-- Діапазони min/max та keyset-сортування (поле, id) у scrollTours
+CREATE INDEX IF NOT EXISTS idx_tour_price_id ON tour (price, id);
+CREATE INDEX IF NOT EXISTS idx_tour_rating_id ON tour (rating, id);
+CREATE INDEX IF NOT EXISTS idx_tour_number_of_days_id ON tour (number_of_days, id);
+
+-- nameContains: LOWER(name) LIKE '%x%' — B-tree тут не допоможе, потрібен триграмний GIN
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_tour_lower_name_trgm ON tour USING gin (lower(name) gin_trgm_ops);
+
+-- Один запис в обраному на тур: спочатку прибираємо дублікати, лишаючи найстаріший запис
+DELETE
+FROM favorite f
+    USING favorite older
+WHERE f.tour_id = older.tour_id
+  AND f.id > older.id;
+
+-- Унікальний індекс також обслуговує existsByTour_Id, deleteByTourId і EXISTS у isFavorite()
+CREATE UNIQUE INDEX IF NOT EXISTS uq_favorite_tour_id ON favorite (tour_id);
@@ -0,0 +1,4 @@
+-- Повнотекстовий пошук за назвою туру (/api/tours/search).
+-- Вираз має точно збігатися з тим, що генерує TourSearchFunctions: to_tsvector('simple', name).
+-- Словник 'simple' не робить стемінгу, тому однаково працює для українських і англійських назв.
+CREATE INDEX IF NOT EXISTS idx_tour_name_fts ON tour USING gin (to_tsvector('simple', name));
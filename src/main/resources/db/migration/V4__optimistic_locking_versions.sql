@@ -0,0 +1,6 @@
+-- Версії для оптимістичного блокування (@Version у TransportEntity і TourEntity):
+-- Hibernate оновлює рядок з WHERE version = ?, тож паралельні зміни не перезаписують одна одну.
+-- DEFAULT 0 лишається для пакетних вставок через JDBC (імпорт турів), які не передають версію.
+-- З константним DEFAULT PostgreSQL 11+ додає колонку без перезапису таблиці.
+ALTER TABLE transport ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tour ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
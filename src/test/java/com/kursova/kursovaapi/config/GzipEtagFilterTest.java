@@ -0,0 +1,50 @@
+package com.kursova.kursovaapi.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GzipEtagFilterTest {
+
+    private final GzipEtagFilter filter = new GzipEtagFilter();
+
+    @Test
+    void doFilter_gzipClient_getsWeakEtag() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tours");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            HttpServletResponse servletResponse = (HttpServletResponse) res;
+            servletResponse.addHeader("ETag", "\"tours-1-2\"");
+            servletResponse.setHeader("Cache-Control", "no-cache");
+        });
+
+        assertThat(response.getHeader("ETag")).isEqualTo("W/\"tours-1-2\"");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+    }
+
+    @Test
+    void doFilter_identityClient_keepsStrongEtag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tours"), response,
+                (req, res) -> ((HttpServletResponse) res).setHeader("ETag", "\"tours-1-2\""));
+
+        assertThat(response.getHeader("ETag")).isEqualTo("\"tours-1-2\"");
+    }
+
+    @Test
+    void doFilter_alreadyWeakEtag_isNotPrefixedTwice() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tours");
+        request.addHeader("Accept-Encoding", "GZIP");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> ((HttpServletResponse) res).setHeader("ETag", "W/\"x\""));
+
+        assertThat(response.getHeader("ETag")).isEqualTo("W/\"x\"");
+    }
+}
@@ -1,8 +1,12 @@
 package com.kursova.kursovaapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO;
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO.Status;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
 import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -15,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +34,9 @@ class FavoriteControllerTest {
     @MockBean
     private FavoriteService favoriteService; // мок залежності контролера
 
+    @MockBean
+    private TourService tourService; // лише версія каталогу для ETag
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -50,6 +58,46 @@ class FavoriteControllerTest {
         verify(favoriteService).addToFavorites(tourId); // перевірка виклику сервісу
     }
 
+    // --- POST/DELETE /api/favorites/batch ---
+
+    @Test
+    void addAll_returnsResultPerTour() throws Exception {
+        when(favoriteService.addAll(List.of(1, 2))).thenReturn(List.of(
+                new FavoriteBatchResultDTO(1, Status.ADDED),
+                new FavoriteBatchResultDTO(2, Status.NOT_FOUND)));
+
+        mockMvc.perform(post("/api/favorites/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(1, 2))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tourId").value(1))
+                .andExpect(jsonPath("$[0].status").value("ADDED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void addAll_invalidBatch_returns400() throws Exception {
+        when(favoriteService.addAll(anyList())).thenThrow(new IllegalArgumentException("Too many tour IDs"));
+
+        mockMvc.perform(post("/api/favorites/batch")
+                        .contentType("application/json")
+                        .content("[1]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void removeAll_returnsResultPerTour() throws Exception {
+        when(favoriteService.removeAll(List.of(4))).thenReturn(List.of(new FavoriteBatchResultDTO(4, Status.REMOVED)));
+
+        mockMvc.perform(delete("/api/favorites/batch")
+                        .contentType("application/json")
+                        .content("[4]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("REMOVED"));
+
+        verify(favoriteService).removeAll(List.of(4));
+    }
+
     // --- DELETE /api/favorites/{tourId} ---
 
     @Test
@@ -74,12 +122,7 @@ class FavoriteControllerTest {
         Page<TourDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
 
         // коли викликається сервіс, повертається сторінка з 1 DTO
-        when(favoriteService.searchFavorites(
-                any(), any(), any(),
-                any(), any(), any(), any(),
-                any(), any(), any(),
-                any(Pageable.class)
-        )).thenReturn(page);
+        when(favoriteService.searchFavorites(any(TourFilter.class), any(Pageable.class))).thenReturn(page);
 
         // GET-запит з query-параметрами
         mockMvc.perform(get("/api/favorites")
@@ -88,15 +131,41 @@ class FavoriteControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isOk()) // має бути 200
                 .andExpect(jsonPath("$.content[0].id").value(1)) // перевірка JSON-відповіді
-                .andExpect(jsonPath("$.content[0].name").value("Test Tour"));
+                .andExpect(jsonPath("$.content[0].name").value("Test Tour"))
+                .andExpect(jsonPath("$.totalPages").value(1))
+                .andExpect(jsonPath("$.sort").doesNotExist());
 
         // перевірка, що метод викликано з тими самими параметрами
         verify(favoriteService).searchFavorites(
-                eq("Test"), eq(null), eq(null),
-                eq(null), eq(null), eq(null), eq(null),
-                eq(null), eq(null), eq(null),
+                eq(new TourFilter(
+                        "Test", null, null,
+                        null, null, null, null,
+                        null, null, null
+                )),
                 any(Pageable.class)
         );
     }
-}
 
+    @Test
+    void getAll_matchingIfNoneMatch_returns304WithoutSearch() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(5L);
+        when(favoriteService.getFavoritesVersion()).thenReturn(9L);
+
+        mockMvc.perform(get("/api/favorites").header("If-None-Match", "\"favorites-5-9\""))
+                .andExpect(status().isNotModified());
+
+        verify(favoriteService, never()).searchFavorites(any(), any());
+    }
+
+    @Test
+    void getAll_setsEtag() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(5L);
+        when(favoriteService.getFavoritesVersion()).thenReturn(10L);
+        when(favoriteService.searchFavorites(any(TourFilter.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        mockMvc.perform(get("/api/favorites").header("If-None-Match", "\"favorites-5-9\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"favorites-5-10\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+}
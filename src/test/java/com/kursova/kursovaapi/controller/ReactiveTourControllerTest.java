@@ -0,0 +1,130 @@
+package com.kursova.kursovaapi.controller;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.service.ReactiveTourService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.*;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveTourController.class)
+class ReactiveTourControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveTourService reactiveTourService;
+
+    @Test
+    void getTours_bindsFiltersAndReturnsPageAsynchronously() throws Exception {
+        when(reactiveTourService.searchTours(any(TourFilter.class), any(Pageable.class)))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(tour(1, "Test Tour")), PageRequest.of(0, 10), 1)));
+
+        // Mono обробляється асинхронно: спершу asyncStarted, результат — після asyncDispatch
+        MvcResult result = mockMvc.perform(get("/api/reactive/tours")
+                        .param("type", "Beach")
+                        .param("minPrice", "100")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Test Tour"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        verify(reactiveTourService).searchTours(
+                eq(new TourFilter(null, "Beach", null, null, null, 100, null, null, null, null)),
+                eq(PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getFavorites_usesFavoritesSearch() throws Exception {
+        when(reactiveTourService.searchFavorites(any(TourFilter.class), any(Pageable.class)))
+                .thenReturn(Mono.just(Page.empty()));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/favorites").param("transportName", "Bus"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+
+        verify(reactiveTourService).searchFavorites(
+                eq(new TourFilter(null, null, null, null, null, null, null, null, null, "Bus")), any(Pageable.class));
+    }
+
+    @Test
+    void streamTours_sendsEachTourAsServerSentEvent() throws Exception {
+        when(reactiveTourService.streamTours(any(TourFilter.class), eq(false), any(Sort.class)))
+                .thenReturn(Flux.just(tour(1, "First"), tour(2, "Second")));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/tours/stream")
+                        .param("sort", "price,desc")
+                        .accept("text/event-stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/event-stream"))
+                .andExpect(content().string(allOf(
+                        containsString("data:{\"id\":1,\"name\":\"First\""),
+                        containsString("data:{\"id\":2,\"name\":\"Second\""))));
+
+        verify(reactiveTourService).streamTours(any(TourFilter.class), eq(false), eq(Sort.by(Sort.Order.desc("price"))));
+    }
+
+    @Test
+    void streamFavorites_streamsOnlyFavorites() throws Exception {
+        when(reactiveTourService.streamTours(any(TourFilter.class), eq(true), any(Sort.class)))
+                .thenReturn(Flux.empty());
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/favorites/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(reactiveTourService).streamTours(any(TourFilter.class), eq(true), any(Sort.class));
+    }
+
+    @Test
+    void getTours_unsupportedSort_returns400() throws Exception {
+        when(reactiveTourService.searchTours(any(TourFilter.class), any(Pageable.class)))
+                .thenReturn(Mono.error(new IllegalArgumentException("Unsupported sort property: bogus")));
+
+        MvcResult result = mockMvc.perform(get("/api/reactive/tours").param("sort", "bogus"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static TourDTO tour(int id, String name) {
+        TourDTO dto = new TourDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+}
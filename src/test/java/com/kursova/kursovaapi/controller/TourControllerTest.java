@@ -2,7 +2,17 @@ package com.kursova.kursovaapi.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TourImportResultDTO;
+import com.kursova.kursovaapi.dto.TourSliceDTO;
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourDataFormat;
+import com.kursova.kursovaapi.service.TourExportService;
+import com.kursova.kursovaapi.service.TourImportService;
 import com.kursova.kursovaapi.service.TourService;
+import com.kursova.kursovaapi.service.TourSuggestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -11,11 +21,17 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +45,18 @@ class TourControllerTest {
     @MockBean
     private TourService tourService; // мок сервісного шару, який інжектиться в контролер
 
+    @MockBean
+    private TourSuggestionService tourSuggestionService;
+
+    @MockBean
+    private TourImportService tourImportService;
+
+    @MockBean
+    private TourExportService tourExportService;
+
+    @MockBean
+    private FavoriteService favoriteService;
+
     @Autowired
     private ObjectMapper objectMapper; // Jackson обʼєкт для серіалізації DTO у JSON
 
@@ -50,12 +78,7 @@ class TourControllerTest {
         Page<TourDTO> page = new PageImpl<>(List.of(tourDTO), PageRequest.of(0, 10), 1);
 
         // підготовка мока
-        when(tourService.searchToursWithPaging(
-                any(), any(), any(),
-                any(), any(), any(), any(),
-                any(), any(), any(),
-                any(Pageable.class)
-        )).thenReturn(page);
+        when(tourService.searchToursWithPaging(any(TourFilter.class), any(Pageable.class))).thenReturn(page);
 
         // виклик GET /api/tours з фільтром "name"
         mockMvc.perform(get("/api/tours")
@@ -64,17 +87,169 @@ class TourControllerTest {
                         .param("size", "10"))
                 .andExpect(status().isOk()) // очікуємо 200
                 .andExpect(jsonPath("$.content[0].id").value(1))
-                .andExpect(jsonPath("$.content[0].name").value("Test Tour"));
+                .andExpect(jsonPath("$.content[0].name").value("Test Tour"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.number").value(0))
+                .andExpect(jsonPath("$.pageable").doesNotExist()); // компактний PageDTO замість PageImpl
 
         // перевірка правильності виклику сервісу
         verify(tourService).searchToursWithPaging(
-                eq("Test"), eq(null), eq(null),
-                eq(null), eq(null), eq(null), eq(null),
-                eq(null), eq(null), eq(null),
+                eq(new TourFilter(
+                        "Test", null, null,
+                        null, null, null, null,
+                        null, null, null
+                )),
                 any(Pageable.class)
         );
     }
 
+    @Test
+    void getTours_setsEtagFromCatalogAndFavoritesVersions() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(7L);
+        when(favoriteService.getFavoritesVersion()).thenReturn(3L);
+        when(tourService.searchToursWithPaging(any(TourFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(tourDTO)));
+
+        mockMvc.perform(get("/api/tours"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"tours-7-3\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getTours_matchingIfNoneMatch_returns304WithoutSearch() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(7L);
+        when(favoriteService.getFavoritesVersion()).thenReturn(3L);
+
+        mockMvc.perform(get("/api/tours").param("type", "Beach").header("If-None-Match", "\"tours-7-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(tourService, never()).searchToursWithPaging(any(), any());
+    }
+
+    @Test
+    void getTours_favoritesChanged_returnsFreshPage() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(7L);
+        when(favoriteService.getFavoritesVersion()).thenReturn(4L);
+        when(tourService.searchToursWithPaging(any(TourFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(tourDTO)));
+
+        mockMvc.perform(get("/api/tours").header("If-None-Match", "\"tours-7-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"tours-7-4\""))
+                .andExpect(jsonPath("$.content[0].id").value(1));
+    }
+
+    // --- GET /api/tours/search ---
+
+    @Test
+    void searchTours_passesQueryFiltersAndPaging() throws Exception {
+        Page<TourDTO> page = new PageImpl<>(List.of(tourDTO), PageRequest.of(0, 5), 1);
+        when(tourService.searchByText(anyString(), any(TourFilter.class), any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/api/tours/search")
+                        .param("q", "carp wee")
+                        .param("type", "Hiking")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1));
+
+        verify(tourService).searchByText(
+                eq("carp wee"),
+                eq(new TourFilter(
+                        null, "Hiking", null,
+                        null, null, null, null,
+                        null, null, null
+                )),
+                eq(PageRequest.of(0, 5))
+        );
+    }
+
+    @Test
+    void searchTours_withoutQuery_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/tours/search"))
+                .andExpect(status().isBadRequest());
+
+        verify(tourService, never()).searchByText(any(), any(), any());
+    }
+
+    // --- GET /api/tours/suggest ---
+
+    @Test
+    void suggest_returnsSuggestionsFromService() throws Exception {
+        when(tourSuggestionService.suggest("carp", 5))
+                .thenReturn(List.of(new TourSuggestion(7, "Carpathian weekend", 4.8)));
+
+        mockMvc.perform(get("/api/tours/suggest").param("q", "carp").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].name").value("Carpathian weekend"))
+                .andExpect(jsonPath("$[0].rating").value(4.8));
+    }
+
+    @Test
+    void suggest_defaultLimitIsTen() throws Exception {
+        when(tourSuggestionService.suggest("k", 10)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tours/suggest").param("q", "k"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(tourSuggestionService).suggest("k", 10);
+    }
+
+    // --- GET /api/tours/scroll ---
+
+    @Test
+    void scrollTours_returnsSliceWithCursor() throws Exception {
+        TourSliceDTO slice = new TourSliceDTO(List.of(tourDTO), true, "next-token");
+        when(tourService.scrollTours(any(TourFilter.class), any(), anyInt(), any(Sort.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/api/tours/scroll")
+                        .param("type", "Beach")
+                        .param("sort", "price,desc")
+                        .param("size", "5")
+                        .param("after", "prev-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+
+        verify(tourService).scrollTours(
+                eq(new TourFilter(
+                        null, "Beach", null,
+                        null, null, null, null,
+                        null, null, null
+                )),
+                eq("prev-token"),
+                eq(5),
+                eq(Sort.by(Sort.Direction.DESC, "price"))
+        );
+    }
+
+    // --- GET /api/tours/facets ---
+
+    @Test
+    void getFacets_returnsCountsForFilters() throws Exception {
+        TourFacetsDTO facets = new TourFacetsDTO();
+        facets.setTotal(42);
+        facets.setTypes(List.of(new TourFacetsDTO.ValueCount("Beach", 42)));
+        when(tourService.getFacets(any(TourFilter.class))).thenReturn(facets);
+
+        mockMvc.perform(get("/api/tours/facets").param("maxPrice", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(42))
+                .andExpect(jsonPath("$.types[0].value").value("Beach"))
+                .andExpect(jsonPath("$.types[0].count").value(42));
+
+        verify(tourService).getFacets(eq(new TourFilter(
+                null, null, null,
+                null, null, null, 1000,
+                null, null, null
+        )));
+    }
+
     // --- POST /api/tours ---
 
     @Test
@@ -91,6 +266,98 @@ class TourControllerTest {
         verify(tourService).createTour(any());
     }
 
+    // --- POST /api/tours/bulk ---
+
+    @Test
+    void importTours_ndjson_returnsImportReport() throws Exception {
+        TourImportResultDTO result = new TourImportResultDTO();
+        result.setReceived(2);
+        result.setImported(1);
+        result.setFailed(1);
+        result.setErrors(List.of(new TourImportResultDTO.RowError(2, "Invalid transport ID 99")));
+        when(tourImportService.importTours(any(InputStream.class), eq(TourDataFormat.NDJSON))).thenReturn(result);
+
+        mockMvc.perform(post("/api/tours/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"A\",\"transportId\":1}\n{\"name\":\"B\",\"transportId\":99}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid transport ID 99"));
+    }
+
+    @Test
+    void importTours_csv_usesCsvFormat() throws Exception {
+        when(tourImportService.importTours(any(InputStream.class), eq(TourDataFormat.CSV)))
+                .thenReturn(new TourImportResultDTO());
+
+        mockMvc.perform(post("/api/tours/bulk")
+                        .contentType("text/csv")
+                        .content("name,type,transportId,mealOption,numberOfDays,price,rating\nA,Beach,1,,5,500,4.5\n"))
+                .andExpect(status().isOk());
+
+        verify(tourImportService).importTours(any(InputStream.class), eq(TourDataFormat.CSV));
+    }
+
+    @Test
+    void importTours_unsupportedContentType_returns415() throws Exception {
+        mockMvc.perform(post("/api/tours/bulk")
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(tourImportService);
+    }
+
+    // --- GET /api/tours/export ---
+
+    @Test
+    void exportTours_streamsCsvWithFilters() throws Exception {
+        when(tourExportService.exportTours(any(TourFilter.class), eq(TourDataFormat.CSV), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(2);
+                    out.write("id,name\n1,Test Tour\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/api/tours/export").param("format", "csv").param("type", "Beach"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"tours.csv\""))
+                .andExpect(content().string("id,name\n1,Test Tour\n"));
+
+        verify(tourExportService).exportTours(eq(new TourFilter(
+                null, "Beach", null,
+                null, null, null, null,
+                null, null, null
+        )), eq(TourDataFormat.CSV), any(OutputStream.class));
+    }
+
+    @Test
+    void exportTours_defaultsToNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tours/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+
+        verify(tourExportService).exportTours(any(TourFilter.class), eq(TourDataFormat.NDJSON), any(OutputStream.class));
+    }
+
+    @Test
+    void exportTours_unknownFormat_returns400() throws Exception {
+        mockMvc.perform(get("/api/tours/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(tourExportService);
+    }
+
     // --- GET /api/tours/types ---
 
     @Test
@@ -106,6 +373,27 @@ class TourControllerTest {
         verify(tourService).getAllTypes();
     }
 
+    @Test
+    void getTourTypes_setsEtagAndCacheControl() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(7L);
+        when(tourService.getAllTypes()).thenReturn(List.of("Beach"));
+
+        mockMvc.perform(get("/api/tours/types"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"types-7\""))
+                .andExpect(header().string("Cache-Control", "max-age=60, public"));
+    }
+
+    @Test
+    void getTourTypes_matchingIfNoneMatch_returns304WithoutServiceCall() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(7L);
+
+        mockMvc.perform(get("/api/tours/types").header("If-None-Match", "\"types-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(tourService, never()).getAllTypes();
+    }
+
     // --- GET /api/tours/mealOptions ---
 
     @Test
@@ -120,5 +408,16 @@ class TourControllerTest {
 
         verify(tourService).getAllMealOptions();
     }
+
+    @Test
+    void getMealOptions_staleIfNoneMatch_returnsFreshBody() throws Exception {
+        when(tourService.getCatalogVersion()).thenReturn(8L);
+        when(tourService.getAllMealOptions()).thenReturn(List.of("Breakfast"));
+
+        mockMvc.perform(get("/api/tours/mealOptions").header("If-None-Match", "\"mealOptions-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"mealOptions-8\""))
+                .andExpect(jsonPath("$[0]").value("Breakfast"));
+    }
 }
 
@@ -9,6 +9,8 @@ import org.mockito.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest; // інтеграція лише веб-рівня
 import org.springframework.boot.test.mock.mockito.MockBean; // мок сервісів (не репозиторіїв)
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
@@ -53,6 +55,27 @@ class TransportControllerTest {
         verify(service).getAll(); // переконання, що сервіс викликано
     }
 
+    @Test
+    void getAll_setsEtagFromVersion() throws Exception {
+        when(service.getVersion()).thenReturn(4L);
+        when(service.getAll()).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/transports"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"transports-4\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getAll_matchingIfNoneMatch_returns304WithoutServiceCall() throws Exception {
+        when(service.getVersion()).thenReturn(4L);
+
+        mockMvc.perform(get("/api/transports").header("If-None-Match", "\"transports-4\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getAll();
+    }
+
     // --- GET /api/transports/{id} ---
 
     @Test
@@ -93,8 +116,30 @@ class TransportControllerTest {
         verify(service).delete(1);
     }
 
+    @Test
+    void delete_transportInUse_returns409() throws Exception {
+        doThrow(new DataIntegrityViolationException("FK_TOUR_TRANSPORT")).when(service).delete(1);
+
+        mockMvc.perform(delete("/api/transports/1"))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Request conflicts with existing data")); // без тексту помилки БД
+    }
+
     // --- PUT /api/transports/{id} ---
 
+    @Test
+    void update_concurrentModification_returns409() throws Exception {
+        dto.setVersion(3L);
+        when(service.update(eq(1), any())).thenThrow(new ObjectOptimisticLockingFailureException("TransportEntity", 1));
+
+        mockMvc.perform(put("/api/transports/1")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict());
+
+        verify(service).update(eq(1), argThat(change -> change.getVersion() == 3L));
+    }
+
     @Test
     void update_validId_returnsUpdatedDTO() throws Exception {
         when(service.update(eq(1), any())).thenReturn(dto);
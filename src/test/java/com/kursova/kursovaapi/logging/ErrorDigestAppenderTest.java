@@ -0,0 +1,112 @@
+package com.kursova.kursovaapi.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.util.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ErrorDigestAppenderTest {
+
+    private LoggerContext loggerContext;
+    private ListAppender<ILoggingEvent> mail;
+    private ErrorDigestAppender digest;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        mail = new ListAppender<>();
+        mail.setContext(loggerContext);
+        mail.start();
+
+        digest = new ErrorDigestAppender();
+        digest.setContext(loggerContext);
+        digest.setMaxEventsPerDigest(3);
+        // Інтервал довший за тест: пакети відправляються лише явним flush()
+        digest.setFlushInterval(Duration.buildByHours(1));
+        digest.addAppender(mail);
+        digest.start();
+
+        logger = loggerContext.getLogger("com.kursova.kursovaapi.service.TransportService");
+        logger.setAdditive(false);
+        logger.addAppender(digest);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Test
+    void append_doesNotForwardUntilFlush() {
+        logger.error("Transport with ID {} not found", 7);
+
+        assertThat(mail.list).isEmpty();
+    }
+
+    @Test
+    void flush_forwardsBatchFollowedByMarkedSummary() {
+        logger.error("Transport with ID {} not found", 7);
+        logger.error("Transport with ID {} not found", 8);
+
+        digest.flush();
+
+        assertThat(mail.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "Transport with ID 7 not found",
+                "Transport with ID 8 not found",
+                "2 errors in the last 1 hours, 0 more not included");
+        assertThat(mail.list.get(2).getMarkerList()).containsExactly(ErrorDigestAppender.DIGEST_MARKER);
+        assertThat(mail.list.get(0).getMarkerList()).isNull();
+    }
+
+    @Test
+    void flush_capsBatchAndCountsDroppedErrors() {
+        for (int i = 0; i < 5; i++) {
+            logger.error("Error {}", i);
+        }
+
+        digest.flush();
+
+        assertThat(mail.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly(
+                "Error 0", "Error 1", "Error 2",
+                "5 errors in the last 1 hours, 2 more not included");
+    }
+
+    @Test
+    void flush_withoutErrors_sendsNothing() {
+        digest.flush();
+        logger.error("Once");
+        digest.flush();
+        digest.flush();
+
+        assertThat(mail.list).hasSize(2); // одна помилка + підсумок, повторні flush порожні
+    }
+
+    @Test
+    void stop_flushesPendingErrors() {
+        logger.error("Before shutdown");
+
+        digest.stop();
+
+        assertThat(mail.list).extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Before shutdown", "1 errors in the last 1 hours, 0 more not included");
+    }
+
+    @Test
+    void start_withoutAttachedAppender_doesNotStart() {
+        ErrorDigestAppender orphan = new ErrorDigestAppender();
+        orphan.setContext(loggerContext);
+
+        orphan.start();
+
+        assertThat(orphan.isStarted()).isFalse();
+    }
+}
@@ -0,0 +1,74 @@
+package com.kursova.kursovaapi.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import com.kursova.kursovaapi.dto.TourFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FilterLoggingTest {
+
+    private LoggerContext loggerContext;
+    private ListAppender<ILoggingEvent> appender;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        appender = new ListAppender<>();
+        appender.setContext(loggerContext);
+        appender.start();
+
+        logger = loggerContext.getLogger("com.kursova.kursovaapi.service.TourService");
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Test
+    void withFilter_addsOnlySetFieldsAsKeyValues() {
+        TourFilter filter = new TourFilter(null, "Beach", " ", null, 10, 1000, null, 4.5, null, "Bus");
+
+        FilterLogging.withFilter(logger.atInfo(), filter).log("Searching tours");
+
+        ILoggingEvent event = appender.list.get(0);
+        assertThat(event.getFormattedMessage()).isEqualTo("Searching tours");
+        assertThat(event.getKeyValuePairs()).extracting(pair -> pair.key, pair -> pair.value).containsExactly(
+                tuple("type", "Beach"),
+                tuple("transportName", "Bus"),
+                tuple("maxDays", 10),
+                tuple("minPrice", 1000),
+                tuple("minRating", 4.5));
+    }
+
+    @Test
+    void withFilter_emptyFilter_logsMessageWithoutKeyValues() {
+        FilterLogging.withFilter(logger.atInfo(), TourFilter.empty()).log("Searching favorites");
+
+        assertThat(appender.list).singleElement()
+                .extracting(ILoggingEvent::getKeyValuePairs)
+                .satisfies(pairs -> assertThat(pairs == null || pairs.isEmpty()).isTrue());
+    }
+
+    @Test
+    void withFilter_levelDisabled_logsNothing() {
+        logger.setLevel(Level.WARN);
+
+        FilterLogging.withFilter(logger.atInfo(), new TourFilter("x", "Beach", null, null, null, null, null, null, null, null))
+                .addKeyValue("query", "x:*")
+                .log("Full-text search");
+
+        assertThat(appender.list).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package com.kursova.kursovaapi.monitoring;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QueryBudgetFilterTest {
+
+    private final QueryBudgetFilter filter = new QueryBudgetFilter(new QueryBudgetProperties(2, 100, Duration.ofMillis(50)));
+
+    @Test
+    void doFilter_addsServerTimingBeforeBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tours"), response, (req, res) -> {
+            QueryStats stats = QueryStats.current();
+            stats.recordStatement(7);
+            stats.recordStatement(3);
+            for (int i = 0; i < 5; i++) {
+                stats.recordRow();
+            }
+            res.getWriter().write("[]");
+            res.flushBuffer();  // відповідь закомічена: пізніші запити в заголовок уже не потраплять
+            stats.recordStatement(1);
+        });
+
+        assertThat(response.getHeader(QueryBudgetFilter.SERVER_TIMING))
+                .isEqualTo("db;dur=10, db-statements;desc=\"2\", db-rows;desc=\"5\"");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void doFilter_responseWithoutBody_stillGetsServerTiming() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/favorites/1"), response, (req, res) -> {
+            QueryStats.current().recordStatement(2);
+            ((HttpServletResponse) res).setStatus(204);
+        });
+
+        assertThat(response.getStatus()).isEqualTo(204);
+        assertThat(response.getHeader(QueryBudgetFilter.SERVER_TIMING)).startsWith("db;dur=2, db-statements;desc=\"1\"");
+    }
+
+    @Test
+    void doFilter_clearsStatsAfterRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tours"), new MockHttpServletResponse(),
+                (req, res) -> assertThat(QueryStats.current()).isNotNull());
+
+        assertThat(QueryStats.current()).isNull();
+    }
+
+    @Test
+    void isExceededBy_anyLimit() {
+        QueryBudgetProperties budget = new QueryBudgetProperties(2, 100, Duration.ofMillis(50));
+        QueryStats stats = new QueryStats();
+        stats.recordStatement(10);
+        stats.recordStatement(10);
+        assertThat(budget.isExceededBy(stats)).isFalse();
+
+        stats.recordStatement(10);
+        assertThat(budget.isExceededBy(stats)).isTrue();
+
+        QueryStats slow = new QueryStats();
+        slow.recordStatement(51);
+        assertThat(budget.isExceededBy(slow)).isTrue();
+    }
+}
@@ -0,0 +1,142 @@
+package com.kursova.kursovaapi.monitoring;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.TourRepository;
+import com.kursova.kursovaapi.repository.TransportRepository;
+import com.kursova.kursovaapi.service.FavoriteService;
+import com.kursova.kursovaapi.service.TourSearchCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL для кожного read-ендпоінта: весь застосунок (контролер, сервіс, JPA, datasource-proxy)
+ * на H2 з 30 турами, кількість виразів береться з Server-Timing. Якщо зміна додає N+1
+ * (наприклад, lazy transport або завантаження всіх обраних), тест падає.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("db-statements;desc=\"(\\d+)\"");
+    private static final Pattern ROWS = Pattern.compile("db-rows;desc=\"(\\d+)\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private TourSearchCache searchCache;
+
+    @BeforeEach
+    void setUp() {
+        // Бюджети нижче — для запиту в БД, а не для сторінки з кешу результатів
+        searchCache.invalidateAll();
+        if (transportRepository.count() > 0) {
+            return;
+        }
+        // 3 транспорти, 30 турів, кожен третій — в обраному
+        List<TransportEntity> transports = transportRepository.saveAll(List.of(
+                new TransportEntity("Bus"), new TransportEntity("Plane"), new TransportEntity("Train")));
+        for (int i = 0; i < 30; i++) {
+            TourEntity tour = tourRepository.save(new TourEntity("Tour " + i, "Beach", transports.get(i % 3),
+                    "All inclusive", 3 + i % 10, 100 + i * 10, 3.0 + (i % 20) / 10.0));
+            if (i % 3 == 0) {
+                favoriteService.addToFavorites(tour.getId());
+            }
+        }
+    }
+
+    @Test
+    void toursPage_selectAndCount() throws Exception {
+        MvcResult result = perform("/api/tours?size=20");
+
+        // Точні значення: заразом перевіряють, що datasource-proxy справді рахує
+        assertThat(statements(result)).isEqualTo(2);
+        assertThat(rows(result)).isEqualTo(21); // 20 турів + рядок COUNT
+    }
+
+    @Test
+    void toursPage_pageSizeDoesNotAddStatements() throws Exception {
+        assertThat(statements(perform("/api/tours?size=30")))
+                .isEqualTo(statements(perform("/api/tours?size=5")));
+    }
+
+    @Test
+    void toursPage_repeatedFromResultCache_singleSelectById() throws Exception {
+        perform("/api/tours?size=20&type=beach&sort=price");
+
+        MvcResult repeated = perform("/api/tours?size=20&type=BEACH&sort=price");
+
+        // Ні фільтрованого SELECT, ні COUNT: лише тури сторінки за первинним ключем
+        assertThat(statements(repeated)).isEqualTo(1);
+        assertThat(rows(repeated)).isEqualTo(20);
+    }
+
+    @Test
+    void favoritesPage_selectAndCount() throws Exception {
+        assertThat(statements(perform("/api/favorites?size=20"))).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void scroll_singleSelect() throws Exception {
+        assertThat(statements(perform("/api/tours/scroll?size=20&sort=price"))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void facets_singleGroupBy() throws Exception {
+        assertThat(statements(perform("/api/tours/facets"))).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void transports_atMostOneSelect() throws Exception {
+        assertThat(statements(perform("/api/transports"))).isLessThanOrEqualTo(1);
+    }
+
+    private MvcResult perform(String uri) throws Exception {
+        return mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
+    }
+
+    private static int statements(MvcResult result) {
+        return extract(STATEMENTS, result);
+    }
+
+    private static int rows(MvcResult result) {
+        return extract(ROWS, result);
+    }
+
+    private static int extract(Pattern pattern, MvcResult result) {
+        String header = result.getResponse().getHeader(QueryBudgetFilter.SERVER_TIMING);
+        assertThat(header).as("Server-Timing").isNotNull();
+        Matcher matcher = pattern.matcher(header);
+        assertThat(matcher.find()).as(header).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.kursova.kursovaapi.repository;
+
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Повнотекстовий пошук через функції з TourSearchFunctions на справжньому PostgreSQL:
+ * префіксні запити, сортування за релевантністю і COUNT для сторінки. Без Docker тест пропускається.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TourFullTextSearchTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        TransportEntity bus = new TransportEntity("Bus");
+        entityManager.persist(bus);
+        entityManager.persist(new TourEntity("Lviv coffee tour", "Excursion", bus, "Breakfast", 2, 300, 4.5));
+        entityManager.persist(new TourEntity("Lviv Lviv night walk", "Excursion", bus, "No meals", 1, 150, 4.8));
+        entityManager.persist(new TourEntity("Carpathian weekend", "Hiking", bus, "Half board", 3, 900, 4.7));
+        entityManager.persist(new TourEntity("Carpathian hiking", "Hiking", bus, "Half board", 7, 1500, 4.2));
+        entityManager.persist(new TourEntity("Kyiv weekend", "Excursion", bus, "Breakfast", 2, 400, 4.0));
+        entityManager.flush();
+    }
+
+    @Test
+    void prefixTerms_matchAllWords() {
+        Page<TourEntity> page = search("carp wee");
+
+        assertThat(page.getContent()).extracting(TourEntity::getName).containsExactly("Carpathian weekend");
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void results_areOrderedByRelevance() {
+        Page<TourEntity> page = search("lviv");
+
+        // назва, де слово трапляється двічі, релевантніша
+        assertThat(page.getContent()).extracting(TourEntity::getName)
+                .containsExactly("Lviv Lviv night walk", "Lviv coffee tour");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void otherFilters_stillApply() {
+        Specification<TourEntity> spec = TourSpecification.hasType("hiking")
+                .and(TourSpecification.nameMatches("weekend"))
+                .and(TourSpecification.orderByRelevance("weekend"));
+
+        assertThat(tourRepository.findAll(spec, PageRequest.of(0, 10)).getContent())
+                .extracting(TourEntity::getName)
+                .containsExactly("Carpathian weekend");
+    }
+
+    private Page<TourEntity> search(String text) {
+        Specification<TourEntity> spec = Specification.where(TourSpecification.nameMatches(text))
+                .and(TourSpecification.orderByRelevance(text));
+        return tourRepository.findAll(spec, PageRequest.of(0, 10));
+    }
+}
@@ -0,0 +1,125 @@
+package com.kursova.kursovaapi.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Перевіряє міграції Flyway на справжньому PostgreSQL і те, що планувальник бере індекси
+ * для умов у тій формі, яку генерує TourSpecification (LOWER(...) = ?, LIKE '%x%', діапазони).
+ *
+ * Контекст стартує з ddl-auto=validate, тож заодно перевіряється відповідність схеми сутностям.
+ * Без Docker тест пропускається.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TourIndexUsageTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 50 000 турів з сотнями різних типів, щоб умови були селективними
+        jdbcTemplate.update("INSERT INTO transport (name) SELECT 'Transport ' || i FROM generate_series(1, 200) i");
+        jdbcTemplate.update("""
+                INSERT INTO tour (name, type, transport_id, meal_option, number_of_days, price, rating)
+                SELECT 'Tour ' || i, 'Type ' || (i % 500), (SELECT min(id) FROM transport) + i % 200,
+                       'Meal ' || (i % 300), 1 + i % 30, 100 + i % 10000, (i % 50) / 10.0
+                FROM generate_series(1, 50000) i
+                """);
+        jdbcTemplate.update("INSERT INTO favorite (tour_id) SELECT id FROM tour WHERE id % 10 = 0");
+        jdbcTemplate.execute("ANALYZE");
+        // Без seq scan планувальник мусить узяти індекс, якщо той взагалі підходить до умови
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void typeAndMealFilters_useLowerExpressionIndexes() {
+        assertThat(plan("SELECT * FROM tour t WHERE lower(t.type) = 'type 7'"))
+                .contains("idx_tour_lower_type");
+        assertThat(plan("SELECT * FROM tour t WHERE lower(t.meal_option) = 'meal 7'"))
+                .contains("idx_tour_lower_meal_option");
+    }
+
+    @Test
+    void transportNameFilter_usesLowerExpressionIndex() {
+        assertThat(plan("""
+                SELECT t.* FROM tour t JOIN transport tr ON tr.id = t.transport_id
+                WHERE lower(tr.name) = 'transport 7'
+                """))
+                .contains("idx_transport_lower_name")
+                .contains("idx_tour_transport_id");
+    }
+
+    @Test
+    void nameSubstringFilter_usesTrigramIndex() {
+        assertThat(plan("SELECT * FROM tour t WHERE lower(t.name) LIKE '%our 1234%'"))
+                .contains("idx_tour_lower_name_trgm");
+    }
+
+    @Test
+    void fullTextNameSearch_usesGinIndex() {
+        assertThat(plan("SELECT * FROM tour t WHERE to_tsvector('simple', t.name) @@ to_tsquery('simple', 'tour:* & 1234:*')"))
+                .contains("idx_tour_name_fts");
+    }
+
+    @Test
+    void rangeFilters_useCompositeIndexes() {
+        assertThat(plan("SELECT * FROM tour t WHERE t.price BETWEEN 500 AND 510"))
+                .contains("idx_tour_price_id");
+        assertThat(plan("SELECT * FROM tour t WHERE t.rating >= 4.8"))
+                .contains("idx_tour_rating_id");
+        assertThat(plan("SELECT * FROM tour t WHERE t.number_of_days <= 2"))
+                .contains("idx_tour_number_of_days_id");
+    }
+
+    @Test
+    void keysetScroll_readsIndexInOrderWithoutSort() {
+        String plan = plan("""
+                SELECT * FROM tour t
+                WHERE t.price > 500 OR (t.price = 500 AND t.id > 123)
+                ORDER BY t.price, t.id
+                LIMIT 20
+                """);
+
+        assertThat(plan).contains("idx_tour_price_id").doesNotContain("Sort");
+    }
+
+    @Test
+    void favoriteLookups_useUniqueTourIdIndex() {
+        assertThat(plan("SELECT 1 FROM favorite f WHERE f.tour_id = 10"))
+                .contains("uq_favorite_tour_id");
+        assertThat(plan("""
+                SELECT t.* FROM tour t
+                WHERE EXISTS (SELECT f.id FROM favorite f WHERE f.tour_id = t.id) AND lower(t.type) = 'type 10'
+                """))
+                .contains("uq_favorite_tour_id");
+    }
+
+    @Test
+    void favoriteTourId_isUnique() {
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO favorite (tour_id) SELECT tour_id FROM favorite LIMIT 1"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private String plan(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
@@ -0,0 +1,320 @@
+package com.kursova.kursovaapi.repository;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.entity.FavoriteEntity;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.mapper.TourMapper;
+import com.kursova.kursovaapi.mapper.TransportMapper;
+import com.kursova.kursovaapi.repository.custom.TourFacetRow;
+import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Перевіряє кількість SQL-запитів на сторінку на вбудованій H2.
+ * Сторінка турів = рівно 2 запити (SELECT з JOIN transport + COUNT), незалежно від розміру сторінки.
+ * H2 працює в режимі сумісності з PostgreSQL, бо Hibernate генерує SQL діалектом PostgreSQL
+ * (наприклад, GROUP BY за номерами колонок у фасетах). Схему створює Hibernate, бо міграції Flyway
+ * написані під PostgreSQL; їх перевіряє TourIndexUsageTest.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:tours;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+class TourRepositoryTest {
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // 3 транспорти, 30 турів, кожен третій — в обраному
+        List<TransportEntity> transports = List.of(
+                new TransportEntity("Bus"), new TransportEntity("Plane"), new TransportEntity("Train"));
+        transports.forEach(entityManager::persist);
+
+        for (int i = 0; i < 30; i++) {
+            TourEntity tour = new TourEntity("Tour " + i, "Beach", transports.get(i % 3),
+                    "All inclusive", 3 + i % 10, 100 + i * 10, 3.0 + (i % 20) / 10.0);
+            entityManager.persist(tour);
+            if (i % 3 == 0) {
+                entityManager.persist(new FavoriteEntity(tour));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear(); // щоб транспорт не брався з кешу першого рівня
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_pageOfTours_fetchesTransportInSameQuery() {
+        Page<TourDTO> page = tourRepository.findAll(Specification.where(null), PageRequest.of(0, 20))
+                .map(TourMapper::toDto);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getTransportName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // SELECT + COUNT
+    }
+
+    @Test
+    void findAll_transportNameFilter_stillTwoStatements() {
+        Page<TourDTO> page = tourRepository.findAll(TourSpecification.hasTransportName("bus"), PageRequest.of(0, 5))
+                .map(TourMapper::toDto);
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getTransportName()).isEqualTo("Bus"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findAll_favoritesPage_isFilteredInDatabase() {
+        Page<TourDTO> page = tourRepository.findAll(TourSpecification.isFavorite(), PageRequest.of(1, 4))
+                .map(TourMapper::toDto);
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).hasSize(4);
+        assertThat(page.getContent()).allSatisfy(dto -> assertThat(dto.getTransportName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void favoriteFindAll_loadsToursAndTransportsInOneQuery() {
+        List<TourDTO> favorites = favoriteRepository.findAll().stream()
+                .map(favorite -> TourMapper.toDto(favorite.getTour()))
+                .toList();
+
+        assertThat(favorites).hasSize(10);
+        assertThat(favorites).allSatisfy(dto -> assertThat(dto.getTransportName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findBy_keysetScroll_seeksWithoutCount() {
+        Sort sort = Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"));
+        List<Integer> seen = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<TourEntity> window;
+        int windows = 0;
+        do {
+            ScrollPosition current = position;
+            window = tourRepository.findBy(TourSpecification.fetchTransport(), query -> query
+                    .sortBy(sort)
+                    .limit(7)
+                    .scroll(current));
+            window.forEach(tour -> {
+                assertThat(tour.getTransport().getName()).isNotNull();
+                seen.add(tour.getPrice());
+            });
+            windows++;
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+
+        assertThat(seen).hasSize(30).isSorted();
+        // по одному SELECT на сторінку: без COUNT(*) і без окремих запитів за транспортом
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(windows);
+    }
+
+    @Test
+    void countFacets_groupsEachFacetSeparatelyInOneQuery() {
+        List<TourFacetRow> rows = tourRepository.countFacets(Specification.where(null));
+
+        // рядок на значення фасету, а не на комбінацію: 1 тип + 1 харчування + 3 транспорти
+        // + 1 діапазон ціни + 3 днів + 3 рейтингу
+        assertThat(rows).hasSize(12);
+        assertThat(countBy(rows, TourFacetRow.Facet.TYPE, "Beach")).isEqualTo(30);
+        assertThat(countBy(rows, TourFacetRow.Facet.TRANSPORT, "Bus")).isEqualTo(10);
+        assertThat(countBy(rows, TourFacetRow.Facet.PRICE, 0)).isEqualTo(30);
+        // днів 3..12: <4 — 3 тури, 4..7 — 12, 8..14 — 15
+        assertThat(countBy(rows, TourFacetRow.Facet.DAYS, 0)).isEqualTo(3);
+        assertThat(countBy(rows, TourFacetRow.Facet.DAYS, 1)).isEqualTo(12);
+        assertThat(countBy(rows, TourFacetRow.Facet.DAYS, 2)).isEqualTo(15);
+        // рейтинг 3.0..4.9: [3, 4) — 20, [4, 4.5) — 5, >= 4.5 — 5
+        assertThat(countBy(rows, TourFacetRow.Facet.RATING, 1)).isEqualTo(20);
+        assertThat(countBy(rows, TourFacetRow.Facet.RATING, 2)).isEqualTo(5);
+        assertThat(countBy(rows, TourFacetRow.Facet.RATING, 3)).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void countFacets_appliesSpecification() {
+        List<TourFacetRow> rows = tourRepository.countFacets(TourSpecification.hasTransportName("bus"));
+
+        assertThat(rows).filteredOn(row -> row.facet() == TourFacetRow.Facet.TRANSPORT)
+                .singleElement().satisfies(row -> assertThat(row.value()).isEqualTo("Bus"));
+        assertThat(countBy(rows, TourFacetRow.Facet.TYPE, "Beach")).isEqualTo(10);
+    }
+
+    @Test
+    void findAllSuggestions_readsOnlyNamesAndRatingsInOneQuery() {
+        List<TourSuggestion> suggestions = tourRepository.findAllSuggestions();
+
+        assertThat(suggestions).hasSize(30);
+        assertThat(suggestions).allSatisfy(s -> assertThat(s.name()).startsWith("Tour "));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero(); // сутності не створюються
+    }
+
+    @Test
+    void save_withTransportFromDto_insertsWithoutSelectingTransport() {
+        TransportEntity bus = tourRepository.findAll(TourSpecification.hasTransportName("bus"), PageRequest.of(0, 1))
+                .getContent().get(0).getTransport();
+        TransportDTO cached = TransportMapper.toDto(bus);
+        entityManager.clear();
+        statistics.clear();
+
+        // TourService.createTour: транспорт із кешу DTO, а не з findById
+        TourEntity tour = new TourEntity("New tour", "Ski", TransportMapper.toEntity(cached), "Breakfast", 5, 700, 4.0);
+        tourRepository.save(tour);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // лише INSERT
+        assertThat(tourRepository.findAll(TourSpecification.hasTransportName("bus"), PageRequest.of(0, 1))
+                .getTotalElements()).isEqualTo(11);
+    }
+
+    @Test
+    void insertAll_insertsBatchAndAssignsGeneratedIds() {
+        int busId = tourRepository.findAll(TourSpecification.hasTransportName("bus"), PageRequest.of(0, 1))
+                .getContent().get(0).getTransport().getId();
+        List<TourDTO> tours = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TourDTO dto = new TourDTO();
+            dto.setName("Imported " + i);
+            dto.setType("Ski");
+            dto.setTransportId(busId);
+            dto.setNumberOfDays(4);
+            dto.setPrice(900 + i);
+            dto.setRating(4.1);
+            tours.add(dto);
+        }
+
+        tourRepository.insertAll(tours);
+
+        assertThat(tours).extracting(TourDTO::getId).doesNotContain(0).doesNotHaveDuplicates();
+        TourEntity last = tourRepository.findById(tours.get(4).getId()).orElseThrow();
+        assertThat(last.getName()).isEqualTo("Imported 4");
+        assertThat(last.getPrice()).isEqualTo(904);
+        assertThat(last.getTransport().getId()).isEqualTo(busId);
+    }
+
+    @Test
+    void forEachMatching_streamsFilteredToursInIdOrderWithOneQuery() {
+        List<Integer> ids = new ArrayList<>();
+
+        long count = tourRepository.forEachMatching(TourSpecification.hasTransportName("bus"), tour -> {
+            assertThat(tour.getTransport().getName()).isEqualTo("Bus"); // транспорт уже завантажений
+            ids.add(tour.getId());
+        });
+
+        assertThat(count).isEqualTo(10);
+        assertThat(ids).hasSize(10).isSorted();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // без COUNT і без N+1
+    }
+
+    @Test
+    void forEachMatching_clearsPersistenceContextWhileStreaming() {
+        TransportEntity plane = entityManager.createQuery("SELECT t FROM TransportEntity t WHERE t.name = 'Plane'", TransportEntity.class)
+                .getSingleResult();
+        for (int i = 0; i < 2_500; i++) {
+            entityManager.persist(new TourEntity("Bulk " + i, "City", plane, null, 2, 50, 3.5));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Session session = entityManager.unwrap(Session.class);
+        int[] maxManaged = {0};
+
+        long count = tourRepository.forEachMatching(Specification.where(null),
+                tour -> maxManaged[0] = Math.max(maxManaged[0], session.getStatistics().getEntityCount()));
+
+        assertThat(count).isEqualTo(2_530);
+        // У контексті ніколи не більше ~1000 турів (CLEAR_INTERVAL) плюс транспорти
+        assertThat(maxManaged[0]).isLessThanOrEqualTo(1_000 + 3);
+    }
+
+    @Test
+    void findExistingIds_returnsOnlyExistingTours() {
+        List<Integer> ids = tourIds();
+        statistics.clear();
+
+        List<Integer> existing = tourRepository.findExistingIds(List.of(ids.get(0), ids.get(1), -1));
+
+        assertThat(existing).containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void insertIgnoringDuplicates_reportsAddedAndExistingPerTour() {
+        List<Integer> ids = tourIds();
+        // ids[0] уже в обраному (кожен третій), ids[1] і ids[2] — ні
+        int[] counts = favoriteRepository.insertIgnoringDuplicates(List.of(ids.get(0), ids.get(1), ids.get(2)));
+
+        assertThat(counts).containsExactly(0, 1, 1);
+        assertThat(favoriteRepository.findAllTourIds()).hasSize(12);
+
+        // повторна вставка не падає на унікальному індексі
+        assertThat(favoriteRepository.insertIgnoringDuplicates(List.of(ids.get(1)))).containsExactly(0);
+    }
+
+    @Test
+    void deleteByTourIds_reportsRemovedPerTour() {
+        List<Integer> ids = tourIds();
+
+        int[] counts = favoriteRepository.deleteByTourIds(List.of(ids.get(0), ids.get(1), ids.get(3)));
+
+        assertThat(counts).containsExactly(1, 0, 1);
+        assertThat(favoriteRepository.findAllTourIds()).hasSize(8);
+    }
+
+    private List<Integer> tourIds() {
+        return entityManager.createQuery("SELECT t.id FROM TourEntity t ORDER BY t.id", Integer.class)
+                .getResultList();
+    }
+
+    private static long countBy(List<TourFacetRow> rows, TourFacetRow.Facet facet, String value) {
+        return rows.stream().filter(row -> row.facet() == facet && Objects.equals(row.value(), value))
+                .mapToLong(TourFacetRow::count).sum();
+    }
+
+    private static long countBy(List<TourFacetRow> rows, TourFacetRow.Facet facet, int bucket) {
+        return rows.stream().filter(row -> row.facet() == facet && Objects.equals(row.bucket(), bucket))
+                .mapToLong(TourFacetRow::count).sum();
+    }
+}
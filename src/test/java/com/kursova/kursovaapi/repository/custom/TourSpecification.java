@@ -2,6 +2,8 @@ package com.kursova.kursovaapi.repository.custom;
 
 import com.kursova.kursovaapi.entity.TourEntity;
 import jakarta.persistence.criteria.*;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaExpression;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.jpa.domain.Specification;
@@ -112,4 +114,74 @@ class TourSpecificationTest {
         var spec = TourSpecification.hasTransportName("Bus");
         assertThat(spec.toPredicate(root, query, cb)).isNotNull();
     }
+
+    @Test
+    void isFavorite_buildsExistsSubquery() {
+        Subquery<Integer> subquery = mock(Subquery.class);
+        Root<Object> favoriteRoot = mock(Root.class);
+        Path<Object> idPath = mock(Path.class);
+        Path<Object> tourPath = mock(Path.class);
+        Predicate equal = mock(Predicate.class);
+        Predicate exists = mock(Predicate.class);
+
+        when(query.subquery(Integer.class)).thenReturn(subquery);
+        when(subquery.from(any(Class.class))).thenReturn(favoriteRoot);
+        when(favoriteRoot.get("id")).thenReturn(idPath);
+        when(favoriteRoot.get("tour")).thenReturn(tourPath);
+        when(subquery.select(any())).thenReturn(subquery);
+        when(cb.equal(tourPath, root)).thenReturn(equal);
+        when(cb.exists(subquery)).thenReturn(exists);
+
+        var spec = TourSpecification.isFavorite();
+        assertThat(spec.toPredicate(root, query, cb)).isSameAs(exists);
+        verify(subquery).where(equal);
+    }
+
+    @Test
+    void toPrefixTsQuery_turnsWordsIntoPrefixTerms() {
+        assertThat(TourSpecification.toPrefixTsQuery("Carp wee")).isEqualTo("carp:* & wee:*");
+        assertThat(TourSpecification.toPrefixTsQuery("Карпати, 2025!")).isEqualTo("карпати:* & 2025:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_stripsTsQuerySyntax() {
+        // оператори to_tsquery не мають потрапити в запит як є
+        assertThat(TourSpecification.toPrefixTsQuery("lviv & !(kyiv | odesa):*"))
+                .isEqualTo("lviv:* & kyiv:* & odesa:*");
+        assertThat(TourSpecification.toPrefixTsQuery(" &|! ")).isNull();
+        assertThat(TourSpecification.toPrefixTsQuery(null)).isNull();
+    }
+
+    @Test
+    void toPrefixTsQuery_limitsNumberOfTerms() {
+        String tsQuery = TourSpecification.toPrefixTsQuery("a b c d e f g h i j k");
+        assertThat(tsQuery.split(" & ")).hasSize(8);
+    }
+
+    @Test
+    void nameMatches_blank_returnsNullPredicate() {
+        var spec = TourSpecification.nameMatches(" ?! ");
+        assertThat(spec.toPredicate(root, query, cb)).isNull();
+    }
+
+    @Test
+    void nameMatches_bindsTsQueryAsParameter() {
+        HibernateCriteriaBuilder hcb = mock(HibernateCriteriaBuilder.class);
+        JpaExpression<String> tsQuery = mock(JpaExpression.class);
+        when(hcb.value("carp:* & wee:*")).thenReturn(tsQuery);
+
+        TourSpecification.nameMatches("Carp wee").toPredicate(root, query, hcb);
+
+        verify(hcb).function(eq(TourSearchFunctions.MATCH), eq(Boolean.class), any(), same(tsQuery));
+        verify(hcb, never()).literal(any());
+    }
+
+    @Test
+    void orderByRelevance_countQuery_doesNotSort() {
+        when(query.getResultType()).thenReturn((Class) Long.class);
+
+        var spec = TourSpecification.orderByRelevance("lviv");
+        assertThat(spec.toPredicate(root, query, cb)).isNull();
+        verify(query, never()).orderBy(any(Order[].class));
+    }
 }
@@ -0,0 +1,117 @@
+package com.kursova.kursovaapi.repository.reactive;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * SQL реактивного пошуку на H2 у режимі PostgreSQL через драйвер R2DBC, без контексту Spring.
+ * Схема — як у V1__init.sql; кожен тест отримує власну in-memory БД.
+ */
+class ReactiveTourRepositoryTest {
+
+    private static final TourFilter NO_FILTER = TourFilter.empty();
+
+    private DatabaseClient databaseClient;
+    private ReactiveTourRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///" + UUID.randomUUID()
+                + "?options=DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        repository = new ReactiveTourRepository(databaseClient);
+
+        Flux.just(
+                        "CREATE TABLE transport (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(255))",
+                        "CREATE TABLE tour (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, name VARCHAR(255),"
+                                + " type VARCHAR(255), transport_id INTEGER REFERENCES transport (id), meal_option VARCHAR(255),"
+                                + " number_of_days INTEGER NOT NULL, price INTEGER NOT NULL, rating DOUBLE PRECISION NOT NULL)",
+                        "CREATE TABLE favorite (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+                                + " tour_id INTEGER NOT NULL UNIQUE REFERENCES tour (id))",
+                        "INSERT INTO transport (id, name) VALUES (1, 'Bus'), (2, 'Plane')",
+                        "INSERT INTO tour (id, name, type, transport_id, meal_option, number_of_days, price, rating) VALUES"
+                                + " (1, 'Carpathian weekend', 'Hiking', 1, 'Half board', 3, 900, 4.7),"
+                                + " (2, 'Lviv coffee tour', 'Excursion', 1, 'Breakfast', 2, 300, 4.5),"
+                                + " (3, 'Egypt beach', 'Beach', 2, 'All inclusive', 7, 1500, 4.2),"
+                                + " (4, 'Carpathian hiking', 'Hiking', NULL, NULL, 7, 1200, 4.0)",
+                        "INSERT INTO favorite (tour_id) VALUES (2), (3)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+    }
+
+    @Test
+    void findPage_appliesFiltersLikeTourSpecification() {
+        TourFilter filter = new TourFilter("CARPATHIAN", "hiking", null, 3, null, null, 1000, null, null, "bus");
+
+        StepVerifier.create(repository.findPage(filter, false, PageRequest.of(0, 10)))
+                .assertNext(tour -> {
+                    assertThat(tour.getName()).isEqualTo("Carpathian weekend");
+                    assertThat(tour.getTransportId()).isEqualTo(1);
+                    assertThat(tour.getTransportName()).isEqualTo("Bus");
+                    assertThat(tour.getIsFavorite()).isFalse();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findPage_mapsTourWithoutTransport() {
+        TourDTO tour = repository.findPage(new TourFilter("hiking", null, null, null, null, null, null, null, null, null),
+                false, PageRequest.of(0, 10)).blockLast();
+
+        assertThat(tour).isNotNull();
+        assertThat(tour.getId()).isEqualTo(4);
+        assertThat(tour.getTransportId()).isZero();
+        assertThat(tour.getTransportName()).isNull();
+        assertThat(tour.getMealOption()).isNull();
+    }
+
+    @Test
+    void findPage_sortsAndPaginatesWithIdTieBreaker() {
+        PageRequest secondPage = PageRequest.of(1, 2, Sort.by(Sort.Order.desc("numberOfDays")));
+
+        assertThat(repository.findPage(NO_FILTER, false, secondPage).collectList().block())
+                .extracting(TourDTO::getId)
+                .containsExactly(1, 2); // 7 днів: 3, 4; далі 3 дні: 1; 2 дні: 2
+    }
+
+    @Test
+    void favoritesOnly_returnsFavoritesAndCountsThem() {
+        assertThat(repository.findPage(NO_FILTER, true, PageRequest.of(0, 10)).collectList().block())
+                .extracting(TourDTO::getId, TourDTO::getIsFavorite)
+                .containsExactly(tuple(2, true), tuple(3, true));
+        assertThat(repository.count(NO_FILTER, true).block()).isEqualTo(2);
+        assertThat(repository.count(new TourFilter(null, null, null, null, null, null, null, 4.4, null, null), true).block())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void stream_returnsAllMatchingToursInSortOrder() {
+        StepVerifier.create(repository.stream(NO_FILTER, false, Sort.by("price")).map(TourDTO::getPrice))
+                .expectNext(300, 900, 1200, 1500)
+                .verifyComplete();
+    }
+
+    @Test
+    void orderBy_rejectsUnknownProperty() {
+        assertThat(ReactiveTourRepository.orderBy(Sort.unsorted())).isEqualTo(" ORDER BY t.id ASC");
+        assertThat(ReactiveTourRepository.orderBy(Sort.by("transport.name").and(Sort.by(Sort.Order.desc("id")))))
+                .isEqualTo(" ORDER BY tr.name ASC, t.id DESC");
+        // Назва властивості не має потрапити в SQL як є
+        assertThatThrownBy(() -> ReactiveTourRepository.orderBy(Sort.by("price; DROP TABLE tour")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unsupported sort property");
+    }
+}
@@ -0,0 +1,217 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO;
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO.Status;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.FavoriteRepository;
+import com.kursova.kursovaapi.repository.TourRepository;
+import com.kursova.kursovaapi.repository.TransportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Паралельні записи без глобальних блокувань: багато потоків стартують одночасно (спільна защіпка)
+ * і змагаються за ті самі рядки. Коректність забезпечують лише БД (унікальний індекс + ON CONFLICT
+ * для обраного) і @Version для транспорту. H2 у режимі PostgreSQL, схему створює Hibernate.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+class ConcurrentWritesIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int TOURS = 20;
+    private static final int INCREMENTS_PER_THREAD = 5;
+
+    @Autowired
+    private FavoriteService favoriteService;
+
+    @Autowired
+    private TransportService transportService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private TransportEntity transport;
+    private List<Integer> tourIds;
+
+    @BeforeEach
+    void setUp() {
+        // Рядки видаляються повз сервіси, тож кешовані DTO попередніх тестів мають зникнути разом із ними
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        favoriteRepository.deleteAll();
+        tourRepository.deleteAll();
+        transportRepository.deleteAll();
+        transport = transportRepository.save(new TransportEntity("0"));
+        tourIds = new ArrayList<>();
+        for (int i = 0; i < TOURS; i++) {
+            tourIds.add(tourRepository.save(new TourEntity("Tour " + i, "Beach", transport, "Breakfast", 5, 100, 4.0)).getId());
+        }
+    }
+
+    @Test
+    void favorites_concurrentAddsAndRemoves_eachTourChangesStateExactlyOnce() throws Exception {
+        // Кожен потік додає всі тури у власному порядку, одиночними й пакетними запитами впереміш
+        List<List<FavoriteBatchResultDTO>> added = runConcurrently(thread -> {
+            List<Integer> ids = shuffled(thread);
+            List<FavoriteBatchResultDTO> results = new ArrayList<>(favoriteService.addAll(ids.subList(0, TOURS / 2)));
+            for (Integer id : ids.subList(TOURS / 2, TOURS)) {
+                results.addAll(favoriteService.addAll(List.of(id)));
+            }
+            return results;
+        });
+
+        assertThat(favoriteRepository.count()).isEqualTo(TOURS);
+        assertThat(count(added, Status.ADDED)).isEqualTo(TOURS);
+        assertThat(count(added, Status.ALREADY_FAVORITE)).isEqualTo((THREADS - 1) * TOURS);
+        assertThat(tourIds).allMatch(favoriteService::isFavorite);
+
+        List<List<FavoriteBatchResultDTO>> removed = runConcurrently(thread -> favoriteService.removeAll(shuffled(thread)));
+
+        assertThat(favoriteRepository.count()).isZero();
+        assertThat(count(removed, Status.REMOVED)).isEqualTo(TOURS);
+        assertThat(tourIds).noneMatch(favoriteService::isFavorite);
+    }
+
+    @Test
+    void transport_concurrentReadModifyWrite_losesNoUpdates() throws Exception {
+        // Лічильник у назві: читання, +1, запис з прочитаною версією; на 409 — перечитати й повторити
+        AtomicInteger conflicts = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                while (true) {
+                    TransportDTO current = transportService.getById(transport.getId());
+                    TransportDTO change = new TransportDTO();
+                    change.setName(Integer.toString(Integer.parseInt(current.getName()) + 1));
+                    change.setVersion(current.getVersion());
+                    try {
+                        transportService.update(transport.getId(), change);
+                        break;
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }
+            return null;
+        });
+
+        TransportEntity result = transportRepository.findById(transport.getId()).orElseThrow();
+        int expected = THREADS * INCREMENTS_PER_THREAD;
+        assertThat(result.getName()).isEqualTo(Integer.toString(expected));
+        assertThat(result.getVersion()).isEqualTo(expected);
+        assertThat(conflicts.get()).isPositive(); // змагання справді було
+    }
+
+    @Test
+    void transport_staleVersion_isRejected() {
+        TransportDTO first = transportService.getById(transport.getId());
+        TransportDTO change = new TransportDTO();
+        change.setName("Coach");
+        change.setVersion(first.getVersion());
+        transportService.update(transport.getId(), change);
+
+        TransportDTO stale = new TransportDTO();
+        stale.setName("Train");
+        stale.setVersion(first.getVersion());
+
+        assertThatThrownBy(() -> transportService.update(transport.getId(), stale))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(transportRepository.findById(transport.getId()).orElseThrow().getName()).isEqualTo("Coach");
+    }
+
+    @Test
+    void transport_staleCachedDto_conflictEvictsItAndRetrySucceeds() {
+        // Так закінчується гонка промаху кешу з оновленням: у кеші версія 0, у БД уже 1
+        TransportDTO stale = transportService.getById(transport.getId());
+        TransportEntity entity = transportRepository.findById(transport.getId()).orElseThrow();
+        entity.setName("Coach");
+        transportRepository.save(entity);
+        assertThat(transportService.getById(transport.getId()).getVersion()).isEqualTo(stale.getVersion());
+
+        TransportDTO change = new TransportDTO();
+        change.setName("Train");
+        change.setVersion(stale.getVersion());
+        assertThatThrownBy(() -> transportService.update(transport.getId(), change))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // Перечитування після 409 бачить поточну версію, і повтор проходить
+        TransportDTO reloaded = transportService.getById(transport.getId());
+        assertThat(reloaded.getName()).isEqualTo("Coach");
+        assertThat(reloaded.getVersion()).isEqualTo(stale.getVersion() + 1);
+        change.setVersion(reloaded.getVersion());
+        assertThat(transportService.update(transport.getId(), change).getName()).isEqualTo("Train");
+    }
+
+    private <T> List<T> runConcurrently(ThreadTask<T> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int threadIndex = thread;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(threadIndex);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>(THREADS);
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Integer> shuffled(int seed) {
+        List<Integer> ids = new ArrayList<>(tourIds);
+        Collections.shuffle(ids, new Random(seed));
+        return ids;
+    }
+
+    private static long count(List<List<FavoriteBatchResultDTO>> results, Status status) {
+        return results.stream().flatMap(List::stream).filter(result -> result.getStatus() == status).count();
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask<T> {
+        T run(int thread) throws Exception;
+    }
+}
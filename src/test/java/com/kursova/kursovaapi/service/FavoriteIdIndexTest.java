@@ -0,0 +1,102 @@
+package com.kursova.kursovaapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FavoriteIdIndexTest {
+
+    private final FavoriteIdIndex index = new FavoriteIdIndex();
+
+    @Test
+    void add_thenContains() {
+        index.add(0);
+        index.add(63);
+        index.add(64);
+        index.add(100_000); // розширення масиву
+
+        assertThat(index.contains(0)).isTrue();
+        assertThat(index.contains(63)).isTrue();
+        assertThat(index.contains(64)).isTrue();
+        assertThat(index.contains(100_000)).isTrue();
+        assertThat(index.contains(1)).isFalse();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void remove_clearsOnlyGivenId() {
+        index.add(5);
+        index.add(6);
+
+        index.remove(5);
+        index.remove(1_000_000); // ID за межами масиву — без винятку
+
+        assertThat(index.contains(5)).isFalse();
+        assertThat(index.contains(6)).isTrue();
+    }
+
+    @Test
+    void everyWrite_bumpsVersion() {
+        long initial = index.version();
+
+        index.add(1);
+        index.remove(1);
+        index.reset(List.of(2));
+
+        assertThat(index.version()).isEqualTo(initial + 3);
+    }
+
+    @Test
+    void reset_replacesContent() {
+        index.add(1);
+
+        index.reset(List.of(10, 20));
+
+        assertThat(index.contains(1)).isFalse();
+        assertThat(index.contains(10)).isTrue();
+        assertThat(index.contains(20)).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void reset_emptyCollection_allocatesNothing() {
+        index.reset(List.of());
+
+        assertThat(index.wordCount()).isZero();
+        assertThat(index.size()).isZero();
+
+        index.add(130);
+        assertThat(index.contains(130)).isTrue();
+        assertThat(index.wordCount()).isEqualTo(3);
+    }
+
+    @Test
+    void contains_negativeOrUnknownId_returnsFalse() {
+        assertThat(index.contains(-1)).isFalse();
+        assertThat(index.contains(42)).isFalse();
+    }
+
+    @Test
+    void add_negativeId_throwsException() {
+        assertThatThrownBy(() -> index.add(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void add_concurrentWriters_noLostUpdates() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            int tourId = i;
+            pool.submit(() -> index.add(tourId));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(index.size()).isEqualTo(10_000);
+    }
+}
@@ -1,11 +1,16 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO;
+import com.kursova.kursovaapi.dto.FavoriteBatchResultDTO.Status;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
 import com.kursova.kursovaapi.entity.FavoriteEntity;
 import com.kursova.kursovaapi.entity.TourEntity;
 import com.kursova.kursovaapi.repository.FavoriteRepository;
 import com.kursova.kursovaapi.repository.TourRepository;
 import com.kursova.kursovaapi.mapper.TourMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -26,6 +31,12 @@ class FavoriteServiceTest {
     @Mock
     private TourRepository tourRepository;  // мок репозиторію для турів (для перевірки валідності ID)
 
+    @Spy
+    private FavoriteIdIndex favoriteIdIndex = new FavoriteIdIndex();  // справжній індекс, щоб перевіряти write-through
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();  // справжній реєстр, щоб перевіряти search.rows
+
     @InjectMocks
     private FavoriteService favoriteService;  // створює FavoriteService з моками замість реальних бінів
 
@@ -38,57 +49,141 @@ class FavoriteServiceTest {
 
     @Test
     void addToFavorites_tourExistsAndNotFavorite_addsSuccessfully() {
-        TourEntity tour = new TourEntity();
-        tour.setId(1);
-
-        // мок: знайдено тур за ID
-        when(tourRepository.findById(1)).thenReturn(Optional.of(tour));
-        // мок: ще не в обраних
-        when(favoriteRepository.existsByTour_Id(1)).thenReturn(false);
+        // мок: тур існує і ще не в обраних (INSERT змінив 1 рядок)
+        when(tourRepository.findExistingIds(List.of(1))).thenReturn(List.of(1));
+        when(favoriteRepository.insertIgnoringDuplicates(List.of(1))).thenReturn(new int[]{1});
 
         // дія: додаємо в обране
         favoriteService.addToFavorites(1);
 
-        // перевірка: викликано збереження
-        verify(favoriteRepository).save(any(FavoriteEntity.class));
+        // перевірка: викликано вставку, без окремих findById/existsByTour_Id
+        verify(favoriteRepository).insertIgnoringDuplicates(List.of(1));
+        verify(tourRepository, never()).findById(anyInt());
+        verify(favoriteRepository, never()).existsByTour_Id(anyInt());
+        // і індекс оновлено
+        assertThat(favoriteService.isFavorite(1)).isTrue();
     }
 
     @Test
     void addToFavorites_tourDoesNotExist_throwsException() {
         // мок: тур не існує
-        when(tourRepository.findById(99)).thenReturn(Optional.empty());
+        when(tourRepository.findExistingIds(List.of(99))).thenReturn(List.of());
+        when(favoriteRepository.insertIgnoringDuplicates(List.of())).thenReturn(new int[0]);
 
         // дія + перевірка: очікуємо виняток
         assertThatThrownBy(() -> favoriteService.addToFavorites(99))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Invalid tour ID");
 
-        // перевірка: не було спроб збереження
-        verifyNoInteractions(favoriteRepository);
+        // перевірка: нічого не вставлено
+        verify(favoriteRepository).insertIgnoringDuplicates(List.of());
+        assertThat(favoriteService.isFavorite(99)).isFalse();
     }
 
     @Test
-    void addToFavorites_alreadyFavorite_doesNotAddAgain() {
-        TourEntity tour = new TourEntity();
-        tour.setId(5);
-
-        // тур знайдено
-        when(tourRepository.findById(5)).thenReturn(Optional.of(tour));
-        // тур вже в обраних
-        when(favoriteRepository.existsByTour_Id(5)).thenReturn(true);
+    void addToFavorites_alreadyFavorite_doesNotFail() {
+        // тур знайдено, але ON CONFLICT DO NOTHING нічого не вставив
+        when(tourRepository.findExistingIds(List.of(5))).thenReturn(List.of(5));
+        when(favoriteRepository.insertIgnoringDuplicates(List.of(5))).thenReturn(new int[]{0});
 
         favoriteService.addToFavorites(5);
 
-        // збереження не викликається повторно
         verify(favoriteRepository, never()).save(any());
+        assertThat(favoriteService.isFavorite(5)).isTrue();
+    }
+
+    // --- addAll() / removeAll() ---
+
+    @Test
+    void addAll_reportsResultPerDistinctIdInRequestOrder() {
+        // 3 і 1 існують (1 уже в обраних), 42 — ні; дубль 3 ігнорується
+        when(tourRepository.findExistingIds(List.of(3, 42, 1))).thenReturn(List.of(1, 3));
+        // пакет іде в порядку зростання ID (без deadlock між паралельними пакетами), відповідь — у порядку запиту
+        when(favoriteRepository.insertIgnoringDuplicates(List.of(1, 3))).thenReturn(new int[]{0, 1});
+
+        List<FavoriteBatchResultDTO> results = favoriteService.addAll(List.of(3, 42, 3, 1));
+
+        assertThat(results).containsExactly(
+                new FavoriteBatchResultDTO(3, Status.ADDED),
+                new FavoriteBatchResultDTO(42, Status.NOT_FOUND),
+                new FavoriteBatchResultDTO(1, Status.ALREADY_FAVORITE));
+        // один IN-запит і один пакет INSERT на весь список
+        verify(tourRepository).findExistingIds(anyCollection());
+        verify(favoriteRepository).insertIgnoringDuplicates(anyList());
+        assertThat(favoriteService.isFavorite(3)).isTrue();
+        assertThat(favoriteService.isFavorite(42)).isFalse();
+    }
+
+    @Test
+    void addAll_emptyList_doesNotQueryDatabase() {
+        assertThat(favoriteService.addAll(List.of())).isEmpty();
+        verifyNoInteractions(favoriteRepository, tourRepository);
+    }
+
+    @Test
+    void addAll_nullId_throwsException() {
+        assertThatThrownBy(() -> favoriteService.addAll(Arrays.asList(1, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(favoriteRepository, tourRepository);
+    }
+
+    @Test
+    void addAll_tooManyIds_throwsException() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i <= FavoriteService.MAX_BATCH_SIZE; i++) {
+            ids.add(i);
+        }
+
+        assertThatThrownBy(() -> favoriteService.addAll(ids))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Too many tour IDs");
+        verifyNoInteractions(favoriteRepository, tourRepository);
+    }
+
+    @Test
+    void removeAll_reportsRemovedAndNotFavorite() {
+        favoriteIdIndex.add(2);
+        when(favoriteRepository.deleteByTourIds(List.of(2, 8))).thenReturn(new int[]{1, 0});
+
+        List<FavoriteBatchResultDTO> results = favoriteService.removeAll(List.of(8, 2));
+
+        assertThat(results).containsExactly(
+                new FavoriteBatchResultDTO(8, Status.NOT_FAVORITE),
+                new FavoriteBatchResultDTO(2, Status.REMOVED));
+        assertThat(favoriteService.isFavorite(2)).isFalse();
+        verifyNoInteractions(tourRepository);
     }
 
     // --- removeByTourId() ---
 
     @Test
     void removeByTourId_deletesFromFavorites() {
+        favoriteIdIndex.add(3);
+
         favoriteService.removeByTourId(3);
         verify(favoriteRepository).deleteByTourId(3);  // перевірка, що виклик був
+        assertThat(favoriteService.isFavorite(3)).isFalse();  // і тур прибрано з індексу
+    }
+
+    // --- loadFavoriteIndex() / isFavorite() ---
+
+    @Test
+    void loadFavoriteIndex_loadsTourIdsFromRepository() {
+        when(favoriteRepository.findAllTourIds()).thenReturn(List.of(2, 70));
+
+        favoriteService.loadFavoriteIndex();
+
+        assertThat(favoriteService.isFavorite(2)).isTrue();
+        assertThat(favoriteService.isFavorite(70)).isTrue();
+        assertThat(favoriteService.isFavorite(3)).isFalse();
+    }
+
+    @Test
+    void isFavorite_doesNotQueryDatabase() {
+        favoriteIdIndex.add(4);
+
+        assertThat(favoriteService.isFavorite(4)).isTrue();
+        verifyNoInteractions(favoriteRepository, tourRepository);
     }
 
     // --- getAll() ---
@@ -126,16 +221,16 @@ class FavoriteServiceTest {
 
     @Test
     void searchFavorites_filtersApplied_returnsFilteredPage() {
-        // є один тур в обраних
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // тур, який БД повертає як обраний і відфільтрований
         TourEntity favoriteTour = new TourEntity();
         favoriteTour.setId(1);
         favoriteTour.setName("Filtered Tour");
 
-        FavoriteEntity favoriteEntity = new FavoriteEntity(favoriteTour);
-        when(favoriteRepository.findAll()).thenReturn(List.of(favoriteEntity));
-
-        // і саме його повертає фільтроване запитування
-        when(tourRepository.findAll(any(Specification.class))).thenReturn(List.of(favoriteTour));
+        // фільтрація й пагінація виконуються одним запитом у БД
+        when(tourRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(favoriteTour), pageable, 1));
 
         // результат, який має повернути TourMapper
         TourDTO dto = new TourDTO();
@@ -146,34 +241,55 @@ class FavoriteServiceTest {
             mapperMock.when(() -> TourMapper.toDto(favoriteTour)).thenReturn(dto);
 
             Page<TourDTO> result = favoriteService.searchFavorites(
-                    "Filtered", null, null,
-                    null, null, null, null,
-                    null, null, null,
-                    PageRequest.of(0, 10)
+                    new TourFilter(
+                            "Filtered", null, null,
+                            null, null, null, null,
+                            null, null, null
+                    ),
+                    pageable
             );
 
             assertThat(result.getTotalElements()).isEqualTo(1);
             assertThat(result.getContent().get(0).getId()).isEqualTo(1);
             assertThat(result.getContent().get(0).getIsFavorite()).isTrue();  // прапор встановлено вручну в сервісі
         }
+
+        // усі обрані більше не завантажуються в пам'ять
+        verify(favoriteRepository, never()).findAll();
+        verify(tourRepository, never()).findAll(any(Specification.class));
+        assertThat(meterRegistry.get("search.rows").tag("operation", "favorites").summary().totalAmount()).isEqualTo(1.0);
     }
 
     @Test
     void searchFavorites_noMatch_returnsEmptyPage() {
-        // жодного улюбленого туру
-        when(favoriteRepository.findAll()).thenReturn(List.of());
-        // фільтр теж не дає результатів
-        when(tourRepository.findAll(any(Specification.class))).thenReturn(List.of());
-
-        Page<TourDTO> result = favoriteService.searchFavorites(
-                null, null, null,
-                null, null, null, null,
-                null, null, null,
-                PageRequest.of(0, 10)
-        );
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // БД не повертає жодного обраного туру
+        when(tourRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(Page.empty(pageable));
+
+        Page<TourDTO> result = favoriteService.searchFavorites(TourFilter.empty(), pageable);
 
         // результат — порожня сторінка
         assertThat(result.getTotalElements()).isZero();
         assertThat(result.getContent()).isEmpty();
     }
+
+    @Test
+    void searchFavorites_passesPageableToRepository() {
+        Pageable pageable = PageRequest.of(2, 5);
+
+        // БД сама рахує загальну кількість і повертає лише потрібну сторінку
+        TourEntity tour = new TourEntity();
+        tour.setId(11);
+        when(tourRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(tour), pageable, 11));
+
+        Page<TourDTO> result = favoriteService.searchFavorites(TourFilter.empty(), pageable);
+
+        assertThat(result.getTotalElements()).isEqualTo(11);
+        assertThat(result.getNumber()).isEqualTo(2);
+        assertThat(result.getContent()).hasSize(1);
+        verify(tourRepository).findAll(any(Specification.class), eq(pageable));
+    }
 }
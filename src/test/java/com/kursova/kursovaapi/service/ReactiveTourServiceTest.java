@@ -0,0 +1,77 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.repository.reactive.ReactiveTourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveTourServiceTest {
+
+    @Mock
+    private ReactiveTourRepository reactiveTourRepository;
+
+    @InjectMocks
+    private ReactiveTourService reactiveTourService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void searchTours_combinesPageContentAndCount() {
+        TourFilter filter = TourFilter.empty();
+        Pageable pageable = PageRequest.of(1, 2);
+        when(reactiveTourRepository.findPage(filter, false, pageable)).thenReturn(Flux.just(tour(3), tour(4)));
+        when(reactiveTourRepository.count(filter, false)).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(reactiveTourService.searchTours(filter, pageable))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).extracting(TourDTO::getId).containsExactly(3, 4);
+                    assertThat(page.getTotalElements()).isEqualTo(5);
+                    assertThat(page.getTotalPages()).isEqualTo(3);
+                    assertThat(page.getNumber()).isEqualTo(1);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void searchFavorites_queriesOnlyFavorites() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(reactiveTourRepository.findPage(any(), eq(true), eq(pageable))).thenReturn(Flux.empty());
+        when(reactiveTourRepository.count(any(), eq(true))).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(reactiveTourService.searchFavorites(TourFilter.empty(), pageable))
+                .assertNext(page -> assertThat(page.getContent()).isEmpty())
+                .verifyComplete();
+
+        verify(reactiveTourRepository, never()).findPage(any(), eq(false), any());
+    }
+
+    @Test
+    void searchTours_databaseError_propagatesToSubscriber() {
+        when(reactiveTourRepository.findPage(any(), anyBoolean(), any())).thenReturn(Flux.error(new IllegalStateException("boom")));
+        when(reactiveTourRepository.count(any(), anyBoolean())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(reactiveTourService.searchTours(TourFilter.empty(), PageRequest.of(0, 20)))
+                .expectErrorMessage("boom")
+                .verify();
+    }
+
+    private static TourDTO tour(int id) {
+        TourDTO dto = new TourDTO();
+        dto.setId(id);
+        return dto;
+    }
+}
@@ -0,0 +1,275 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TourColumnIndexTest {
+
+    private final TourColumnIndex index = new TourColumnIndex();
+
+    @Test
+    void search_appliesAllFiltersLikeSpecification() {
+        index.add(tour(1, "Carpathian Weekend", "Hiking", "Breakfast", 1, 3, 300, 4.5));
+        index.add(tour(2, "Odesa beach", "Beach", "All inclusive", 2, 7, 900, 4.8));
+        index.add(tour(3, "Odesa city", "Excursion", null, 2, 2, 150, 3.9));
+        index.add(tour(4, "Carpathian lakes", "hiking", "breakfast", 1, 5, 500, 4.1));
+
+        // тип і харчування — без урахування регістру, назва — підрядок
+        assertThat(ids(search(filter("carpathian", "HIKING", "Breakfast", null, null, null, null, null, null), null)))
+                .containsExactly(1, 4);
+        assertThat(ids(search(filter(null, null, null, 3, 5, null, null, null, null), null))).containsExactly(1, 4);
+        assertThat(ids(search(filter(null, null, null, null, null, 300, 900, 4.5, null), null))).containsExactly(1, 2);
+        // NULL не дорівнює жодному значенню
+        assertThat(ids(search(filter(null, null, "all inclusive", null, null, null, null, null, null), null))).containsExactly(2);
+        // фільтр за транспортом — через ID транспортів з потрібною назвою
+        assertThat(ids(search(TourFilter.empty(), Set.of(2)))).containsExactly(2, 3);
+        assertThat(ids(search(TourFilter.empty(), Set.of()))).isEmpty();
+    }
+
+    @Test
+    void search_sortsAndPagesWithIdAsTieBreaker() {
+        for (int id = 1; id <= 10; id++) {
+            index.add(tour(id, "Tour " + id, "Beach", "Breakfast", 1, 3, 100 * (id % 3), id / 2.0));
+        }
+
+        Page<TourDTO> first = index.search(TourFilter.empty(), null, PageRequest.of(0, 4, Sort.by("price")));
+        Page<TourDTO> second = index.search(TourFilter.empty(), null, PageRequest.of(1, 4, Sort.by("price")));
+
+        // price: 0 -> 3, 6, 9; 100 -> 1, 4, 7, 10; 200 -> 2, 5, 8
+        assertThat(ids(first)).containsExactly(3, 6, 9, 1);
+        assertThat(ids(second)).containsExactly(4, 7, 10, 2);
+        assertThat(first.getTotalElements()).isEqualTo(10);
+        assertThat(ids(index.search(TourFilter.empty(), null, PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "rating")))))
+                .containsExactly(10, 9, 8);
+        assertThat(ids(index.search(TourFilter.empty(), null, PageRequest.of(5, 4)))).isEmpty();
+    }
+
+    @Test
+    void search_returnsStoredFields() {
+        index.add(tour(7, "Lviv coffee", "City", null, 3, 2, 250, 4.9));
+
+        TourDTO dto = index.search(TourFilter.empty(), null, PageRequest.of(0, 1)).getContent().get(0);
+
+        assertThat(dto.getId()).isEqualTo(7);
+        assertThat(dto.getName()).isEqualTo("Lviv coffee");
+        assertThat(dto.getType()).isEqualTo("City");
+        assertThat(dto.getMealOption()).isNull();
+        assertThat(dto.getTransportId()).isEqualTo(3);
+        assertThat(dto.getNumberOfDays()).isEqualTo(2);
+        assertThat(dto.getPrice()).isEqualTo(250);
+        assertThat(dto.getRating()).isEqualTo(4.9);
+    }
+
+    @Test
+    void add_ignoresDuplicateIdsAndClearResets() {
+        assertThat(index.add(tour(1, "A", "Beach", null, 1, 1, 1, 1.0))).isTrue();
+        assertThat(index.add(tour(1, "A", "Beach", null, 1, 1, 1, 1.0))).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.clear();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.add(tour(1, "A", "Beach", null, 1, 1, 1, 1.0))).isTrue();
+    }
+
+    @Test
+    void valueCounts_comeFromBitmapsMostFrequentFirst() {
+        index.addAll(List.of(
+                tour(1, "A", "Beach", "Breakfast", 1, 1, 1, 1.0),
+                tour(2, "B", "Ski", null, 1, 1, 1, 1.0),
+                tour(3, "C", "Beach", "Breakfast", 2, 1, 1, 1.0),
+                tour(4, "D", "beach", "All inclusive", 2, 1, 1, 1.0)));
+
+        assertThat(index.typeCounts()).extracting(TourFacetsDTO.ValueCount::getValue, TourFacetsDTO.ValueCount::getCount)
+                .containsExactly(tuple("Beach", 2L), tuple("Ski", 1L), tuple("beach", 1L));
+        assertThat(index.mealOptionCounts()).extracting(TourFacetsDTO.ValueCount::getValue)
+                .containsExactly("Breakfast", "All inclusive");
+        assertThat(index.bitmapSizeInBytes()).isPositive();
+    }
+
+    @Test
+    void addAll_doesNotChangeBitmapsOfEarlierSearches() {
+        index.add(tour(1, "A", "Beach", null, 1, 1, 1, 1.0));
+        List<TourFacetsDTO.ValueCount> before = index.typeCounts();
+
+        assertThat(index.addAll(List.of(tour(1, "A", "Beach", null, 1, 1, 1, 1.0),
+                tour(2, "B", "Beach", null, 1, 1, 1, 1.0)))).isEqualTo(1);
+
+        // Опублікований бітмап незмінний: порція пише в копію
+        assertThat(before).singleElement().extracting(TourFacetsDTO.ValueCount::getCount).isEqualTo(1L);
+        assertThat(index.typeCounts()).singleElement().extracting(TourFacetsDTO.ValueCount::getCount).isEqualTo(2L);
+        assertThat(ids(index.search(filter(null, "beach", null, null, null, null, null, null, null), Set.of(1),
+                PageRequest.of(0, 10)))).containsExactly(1, 2);
+    }
+
+    @Test
+    void supports_onlyNumericColumnProperties() {
+        assertThat(index.supports(Sort.unsorted())).isTrue();
+        assertThat(index.supports(Sort.by("price", "rating", "numberOfDays", "id"))).isTrue();
+        // порядок рядків задає collation бази, тож такі сортування лишаються SQL
+        assertThat(index.supports(Sort.by("price", "name"))).isFalse();
+        assertThat(index.supports(Sort.by("type"))).isFalse();
+        assertThat(index.supports(Sort.by("mealOption"))).isFalse();
+        assertThat(index.supports(Sort.by("transport.name"))).isFalse();
+    }
+
+    @Test
+    void nullValues_haveOwnBitmapThatNoEqualityFilterMatches() {
+        index.addAll(List.of(
+                tour(1, "A", null, null, 1, 1, 1, 1.0),
+                tour(2, "B", "Beach", "Breakfast", 1, 1, 1, 1.0),
+                tour(3, "C", null, "Breakfast", 1, 1, 1, 1.0)));
+
+        assertThat(index.withoutTypeCount()).isEqualTo(2);
+        assertThat(index.typeCounts()).extracting(TourFacetsDTO.ValueCount::getValue).containsExactly("Beach");
+        // як LOWER(type) = 'beach' у SQL: рядки з NULL не відповідають
+        assertThat(ids(search(filter(null, "beach", null, null, null, null, null, null, null), null))).containsExactly(2);
+        assertThat(ids(search(filter(null, null, "breakfast", null, null, null, null, null, null), null))).containsExactly(2, 3);
+        // без фільтрів рядки з NULL у вибірці
+        assertThat(ids(search(TourFilter.empty(), null))).containsExactly(1, 2, 3);
+
+        index.add(tour(4, "D", null, null, 1, 1, 1, 1.0));
+
+        assertThat(index.withoutTypeCount()).isEqualTo(3);
+    }
+
+    @Test
+    void search_matchesReferenceImplementationOnRandomCatalog() {
+        // Порівняння з наївним фільтром і сортуванням потоком на 5 000 турах (кілька слів маски, неповне останнє)
+        String[] types = {"Beach", "Ski", "beach", null};
+        String[] meals = {"Breakfast", "All inclusive", null};
+        SplittableRandom random = new SplittableRandom(7);
+        List<TourDTO> tours = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            TourDTO tour = tour(id, random.nextInt(5) == 0 ? null : "Tour " + random.nextInt(500),
+                    types[random.nextInt(types.length)], meals[random.nextInt(meals.length)],
+                    1 + random.nextInt(3), 1 + random.nextInt(14), random.nextInt(10_000), random.nextInt(50) / 10.0);
+            tours.add(tour);
+            index.add(tour);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            TourFilter filter = filter(
+                    random.nextInt(3) == 0 ? "our " + random.nextInt(10) : null,
+                    random.nextInt(3) == 0 ? "BEACH" : null,
+                    random.nextInt(3) == 0 ? "breakfast" : null,
+                    random.nextBoolean() ? random.nextInt(14) : null, random.nextBoolean() ? random.nextInt(14) : null,
+                    random.nextBoolean() ? random.nextInt(10_000) : null, random.nextBoolean() ? random.nextInt(10_000) : null,
+                    random.nextBoolean() ? random.nextInt(50) / 10.0 : null, null);
+            Set<Integer> transports = random.nextBoolean() ? Set.of(1 + random.nextInt(3)) : null;
+            Sort sort = switch (random.nextInt(4)) {
+                case 0 -> Sort.unsorted();
+                case 1 -> Sort.by("price");
+                case 2 -> Sort.by(Sort.Order.desc("rating"), Sort.Order.asc("price"));
+                default -> Sort.by(Sort.Order.desc("numberOfDays"), Sort.Order.asc("id"));
+            };
+            Pageable pageable = PageRequest.of(random.nextInt(3), 1 + random.nextInt(30), sort);
+
+            List<TourDTO> expected = tours.stream().filter(reference(filter, transports)).sorted(reference(sort)).toList();
+            Page<TourDTO> actual = index.search(filter, transports, pageable);
+
+            assertThat(actual.getTotalElements()).as("%s %s", filter, sort).isEqualTo(expected.size());
+            int from = (int) Math.min(pageable.getOffset(), expected.size());
+            int to = Math.min(from + pageable.getPageSize(), expected.size());
+            assertThat(ids(actual)).as("%s %s", filter, pageable).containsExactlyElementsOf(
+                    expected.subList(from, to).stream().map(TourDTO::getId).toList());
+        }
+    }
+
+    @Test
+    void search_presortedOrderMatchesHeapSelection() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int id = 1; id <= 3_000; id++) {
+            index.add(tour(id, "Tour " + id, "Beach", null, 1 + random.nextInt(3),
+                    1 + random.nextInt(14), random.nextInt(300), random.nextInt(50) / 10.0));
+        }
+        List<Sort> sorts = List.of(Sort.by("price"), Sort.by(Sort.Direction.DESC, "price"),
+                Sort.by(Sort.Direction.DESC, "rating"), Sort.by("numberOfDays"));
+        TourFilter selective = filter(null, null, null, null, null, 100, 200, null, null);
+        List<List<Integer>> beforeRebuild = new ArrayList<>();
+        for (Sort sort : sorts) {
+            beforeRebuild.add(ids(index.search(TourFilter.empty(), null, PageRequest.of(7, 25, sort))));
+            beforeRebuild.add(ids(index.search(selective, Set.of(2), PageRequest.of(1, 10, sort))));
+        }
+
+        index.rebuildSortedRows();
+
+        // Після перебудови ті самі сторінки йдуть готовим порядком; рівні ключі — за зростанням id і для DESC
+        List<List<Integer>> afterRebuild = new ArrayList<>();
+        for (Sort sort : sorts) {
+            afterRebuild.add(ids(index.search(TourFilter.empty(), null, PageRequest.of(7, 25, sort))));
+            afterRebuild.add(ids(index.search(selective, Set.of(2), PageRequest.of(1, 10, sort))));
+        }
+        assertThat(afterRebuild).isEqualTo(beforeRebuild);
+    }
+
+    private Page<TourDTO> search(TourFilter filter, Set<Integer> transportIds) {
+        return index.search(filter, transportIds, PageRequest.of(0, 100));
+    }
+
+    // Та сама семантика, що в TourSpecification: LOWER(x) = LOWER(:x), LIKE '%x%', межі включно
+    private static Predicate<TourDTO> reference(TourFilter f, Set<Integer> transportIds) {
+        return tour -> (f.name() == null || tour.getName() != null && tour.getName().toLowerCase().contains(f.name().toLowerCase()))
+                && (f.type() == null || f.type().equalsIgnoreCase(tour.getType()))
+                && (f.mealOption() == null || f.mealOption().equalsIgnoreCase(tour.getMealOption()))
+                && (f.minDays() == null || tour.getNumberOfDays() >= f.minDays())
+                && (f.maxDays() == null || tour.getNumberOfDays() <= f.maxDays())
+                && (f.minPrice() == null || tour.getPrice() >= f.minPrice())
+                && (f.maxPrice() == null || tour.getPrice() <= f.maxPrice())
+                && (f.minRating() == null || tour.getRating() >= f.minRating())
+                && (transportIds == null || transportIds.contains(tour.getTransportId()));
+    }
+
+    private static Comparator<TourDTO> reference(Sort sort) {
+        Comparator<TourDTO> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<TourDTO> next = switch (order.getProperty()) {
+                case "price" -> Comparator.comparingInt(TourDTO::getPrice);
+                case "rating" -> Comparator.comparingDouble(TourDTO::getRating);
+                case "numberOfDays" -> Comparator.comparingInt(TourDTO::getNumberOfDays);
+                case "id" -> Comparator.comparingInt(TourDTO::getId);
+                default -> throw new IllegalArgumentException(order.getProperty());
+            };
+            comparator = comparator.thenComparing(order.isDescending() ? next.reversed() : next);
+        }
+        return comparator.thenComparingInt(TourDTO::getId);
+    }
+
+    private static TourFilter filter(String name, String type, String mealOption, Integer minDays, Integer maxDays,
+                                     Integer minPrice, Integer maxPrice, Double minRating, Double maxRating) {
+        return new TourFilter(name, type, mealOption, minDays, maxDays, minPrice, maxPrice, minRating, maxRating, null);
+    }
+
+    private static TourDTO tour(int id, String name, String type, String mealOption, int transportId,
+                                int days, int price, double rating) {
+        TourDTO tour = new TourDTO();
+        tour.setId(id);
+        tour.setName(name);
+        tour.setType(type);
+        tour.setMealOption(mealOption);
+        tour.setTransportId(transportId);
+        tour.setNumberOfDays(days);
+        tour.setPrice(price);
+        tour.setRating(rating);
+        return tour;
+    }
+
+    private static List<Integer> ids(Page<TourDTO> page) {
+        return page.getContent().stream().map(TourDTO::getId).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TourColumnSearchServiceTest {
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Mock
+    private TransportService transportService;
+
+    @Mock
+    private FavoriteService favoriteService;
+
+    private final TourColumnIndex tourColumnIndex = new TourColumnIndex();
+
+    private TourColumnSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = create(TourSearchProperties.Engine.MEMORY);
+
+        // БД віддає два тури курсором
+        TransportEntity bus = new TransportEntity("Bus");
+        bus.setId(1);
+        TransportEntity plane = new TransportEntity("Plane");
+        plane.setId(2);
+        when(tourRepository.forEachMatching(any(), any())).thenAnswer(invocation -> {
+            Consumer<TourEntity> action = invocation.getArgument(1);
+            action.accept(entity(10, bus, 300));
+            action.accept(entity(11, plane, 200));
+            return 2L;
+        });
+        when(transportService.getAll()).thenReturn(List.of(transport(1, "Bus"), transport(2, "Plane")));
+    }
+
+    @Test
+    void canSearch_onlyAfterLoadAndForSupportedSort() {
+        assertThat(service.canSearch(PageRequest.of(0, 10))).isFalse(); // ще не завантажено
+
+        service.loadColumnIndex();
+
+        assertThat(service.canSearch(PageRequest.of(0, 10, Sort.by("price")))).isTrue();
+        assertThat(service.canSearch(PageRequest.of(0, 10, Sort.by("transport.name")))).isFalse();
+        assertThat(service.canSearch(PageRequest.of(0, 10, Sort.by("name")))).isFalse(); // рядки — за collation БД
+    }
+
+    @Test
+    void search_resolvesTransportNamesAndFavorites() {
+        service.loadColumnIndex();
+        when(favoriteService.isFavorite(11)).thenReturn(true);
+
+        Page<TourDTO> page = service.search(
+                new TourFilter(null, null, null, null, null, null, null, null, null, "PLANE"), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(11);
+            assertThat(dto.getTransportName()).isEqualTo("Plane");
+            assertThat(dto.getIsFavorite()).isTrue();
+        });
+    }
+
+    @Test
+    void types_andMealOptionsComeFromIndex() {
+        assertThat(service.isLoaded()).isFalse();
+
+        service.loadColumnIndex();
+
+        assertThat(service.isLoaded()).isTrue();
+        assertThat(service.types()).containsExactly("Beach");
+        assertThat(service.mealOptions()).containsExactly("Breakfast");
+    }
+
+    @Test
+    void types_includeNullForToursWithoutTypeLikeSelectDistinct() {
+        service.loadColumnIndex();
+        TourDTO untyped = new TourDTO();
+        untyped.setId(12);
+        untyped.setTransportId(1);
+
+        service.onToursCreated(new ToursCreatedEvent(List.of(untyped)));
+
+        assertThat(service.types()).containsExactly("Beach", null);
+        assertThat(service.mealOptions()).containsExactly("Breakfast");
+    }
+
+    @Test
+    void onToursCreated_addsToursToIndex() {
+        service.loadColumnIndex();
+        TourDTO created = new TourDTO();
+        created.setId(12);
+        created.setTransportId(1);
+        created.setPrice(100);
+
+        service.onToursCreated(new ToursCreatedEvent(List.of(created)));
+
+        assertThat(service.search(TourFilter.empty(), PageRequest.of(0, 1, Sort.by("price"))).getContent())
+                .extracting(TourDTO::getId).containsExactly(12);
+    }
+
+    @Test
+    void sqlEngine_doesNotLoadOrServe() {
+        TourColumnSearchService sqlService = create(TourSearchProperties.Engine.SQL);
+
+        sqlService.loadColumnIndex();
+        sqlService.onToursCreated(new ToursCreatedEvent(List.of(new TourDTO())));
+
+        assertThat(sqlService.canSearch(PageRequest.of(0, 10))).isFalse();
+        verify(tourRepository, never()).forEachMatching(any(Specification.class), any());
+        assertThat(tourColumnIndex.size()).isZero();
+    }
+
+    private TourColumnSearchService create(TourSearchProperties.Engine engine) {
+        return new TourColumnSearchService(tourRepository, transportService, favoriteService, tourColumnIndex,
+                new TourSearchProperties(engine));
+    }
+
+    private static TourEntity entity(int id, TransportEntity transport, int price) {
+        TourEntity tour = new TourEntity("Tour " + id, "Beach", transport, "Breakfast", 5, price, 4.0);
+        tour.setId(id);
+        return tour;
+    }
+
+    private static TransportDTO transport(int id, String name) {
+        TransportDTO transport = new TransportDTO();
+        transport.setId(id);
+        transport.setName(name);
+        return transport;
+    }
+}
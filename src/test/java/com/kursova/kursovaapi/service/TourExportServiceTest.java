@@ -0,0 +1,135 @@
+package com.kursova.kursovaapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TourExportServiceTest {
+
+    private static final TourFilter NO_FILTER = new TourFilter(null, null, null, null, null, null, null, null, null, null);
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Mock
+    private FavoriteService favoriteService;
+
+    private TourExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new TourExportService(tourRepository, favoriteService, new ObjectMapper());
+
+        TransportEntity bus = new TransportEntity("Bus");
+        bus.setId(7);
+        TourEntity first = tour(1, "Carpathians, \"Hoverla\"", bus);
+        TourEntity second = tour(2, "Lviv", null);
+
+        // Як справжній forEachMatching: тури віддаються по одному в action
+        when(tourRepository.forEachMatching(any(), any())).thenAnswer(invocation -> {
+            Consumer<TourEntity> action = invocation.getArgument(1);
+            List.of(first, second).forEach(action);
+            return 2L;
+        });
+        when(favoriteService.isFavorite(2)).thenReturn(true);
+    }
+
+    @Test
+    void exportTours_ndjson_writesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportTours(NO_FILTER, TourDataFormat.NDJSON, out);
+
+        assertThat(count).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        ObjectMapper mapper = new ObjectMapper();
+        TourDTO first = mapper.readValue(lines[0], TourDTO.class);
+        TourDTO second = mapper.readValue(lines[1], TourDTO.class);
+        assertThat(first.getName()).isEqualTo("Carpathians, \"Hoverla\"");
+        assertThat(first.getTransportName()).isEqualTo("Bus");
+        assertThat(first.getIsFavorite()).isFalse();
+        assertThat(second.getIsFavorite()).isTrue();
+        verify(tourRepository).forEachMatching(any(Specification.class), any());
+    }
+
+    @Test
+    void exportTours_csv_writesHeaderAndQuotedFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportTours(NO_FILTER, TourDataFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,name,type,transportId,transportName,mealOption,numberOfDays,price,rating
+                1,"Carpathians, ""Hoverla""\",Hiking,7,Bus,,5,500,4.5
+                2,Lviv,Hiking,0,,,5,500,4.5
+                """);
+    }
+
+    @Test
+    void exportTours_csvHeader_containsAllImportColumns() {
+        // Експорт можна імпортувати назад через /api/tours/bulk
+        assertThat(TourImportService.splitCsvLine(TourExportService.CSV_HEADER))
+                .containsAll(TourImportService.CSV_COLUMNS);
+    }
+
+    @Test
+    void exportTours_clientDisconnects_propagatesIOException() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        // Більше турів, ніж вміщує буфер, щоб запис дійшов до потоку ще під час обходу
+        doAnswer(invocation -> {
+            Consumer<TourEntity> action = invocation.getArgument(1);
+            for (int i = 0; i < 10_000; i++) {
+                action.accept(tour(i, "Tour " + i, null));
+            }
+            return 10_000L;
+        }).when(tourRepository).forEachMatching(any(), any());
+
+        assertThatThrownBy(() -> exportService.exportTours(NO_FILTER, TourDataFormat.CSV, broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    @Test
+    void csvField_quotesOnlyWhenNeeded() {
+        assertThat(TourExportService.csvField(null)).isEmpty();
+        assertThat(TourExportService.csvField("Beach")).isEqualTo("Beach");
+        assertThat(TourExportService.csvField("a,b")).isEqualTo("\"a,b\"");
+        assertThat(TourExportService.csvField("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+    }
+
+    private static TourEntity tour(int id, String name, TransportEntity transport) {
+        TourEntity tour = new TourEntity(name, "Hiking", transport, null, 5, 500, 4.5);
+        tour.setId(id);
+        return tour;
+    }
+}
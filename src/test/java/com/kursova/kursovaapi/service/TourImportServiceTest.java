@@ -0,0 +1,208 @@
+package com.kursova.kursovaapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourImportResultDTO;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TourImportServiceTest {
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Mock
+    private TransportService transportService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TourImportService importService;
+
+    private final AtomicInteger nextId = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        importService = new TourImportService(tourRepository, transportService,
+                new TransactionTemplate(transactionManager), eventPublisher, new ObjectMapper());
+
+        TransportDTO bus = new TransportDTO();
+        bus.setId(1);
+        bus.setName("Bus");
+        when(transportService.getAll()).thenReturn(List.of(bus));
+
+        // Як справжній insertAll: кожен вставлений тур отримує id
+        doAnswer(invocation -> {
+            List<TourDTO> tours = invocation.getArgument(0);
+            tours.forEach(tour -> tour.setId(nextId.getAndIncrement()));
+            return null;
+        }).when(tourRepository).insertAll(anyList());
+    }
+
+    @Test
+    void importTours_ndjson_insertsValidRowsAndReportsInvalidOnes() throws Exception {
+        String body = """
+                {"name":"Carpathians","type":"Hiking","transportId":1,"numberOfDays":5,"price":500,"rating":4.5}
+
+                {"name":"Odesa","transportId":99}
+                {"name":
+                {"name":"Lviv","transportId":1}
+                {"transportId":1}
+                """;
+
+        TourImportResultDTO result = importService.importTours(stream(body), TourDataFormat.NDJSON);
+
+        assertThat(result.getReceived()).isEqualTo(5); // порожній рядок не рахується
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(TourImportResultDTO.RowError::getLine).containsExactly(3L, 4L, 6L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Invalid transport ID 99");
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("Malformed JSON");
+        assertThat(result.getErrors().get(2).getMessage()).isEqualTo("Name is required");
+
+        // Обидва валідні тури — одним батчем, без окремих запитів за транспортом
+        verify(tourRepository, times(1)).insertAll(anyList());
+        verify(transportService, never()).findById(anyInt());
+
+        ArgumentCaptor<ToursCreatedEvent> event = ArgumentCaptor.forClass(ToursCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().tours()).extracting(TourDTO::getId).containsExactly(100, 101);
+        assertThat(event.getValue().tours()).extracting(TourDTO::getTransportName).containsOnly("Bus");
+    }
+
+    @Test
+    void importTours_ndjsonNullLine_isRejectedAndImportContinues() throws Exception {
+        String body = """
+                {"name":"Carpathians","transportId":1}
+                null
+                {"name":"Lviv","transportId":1}
+                """;
+
+        TourImportResultDTO result = importService.importTours(stream(body), TourDataFormat.NDJSON);
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).isEqualTo("Empty row");
+        });
+    }
+
+    @Test
+    void importTours_csv_readsColumnsByHeaderAndQuotedFields() throws Exception {
+        String body = """
+                price,name,type,transportId,mealOption,numberOfDays,rating
+                500,"Carpathians, ""Hoverla""\",Hiking,1,,5,4.5
+                abc,Lviv,City,1,Breakfast,2,4.0
+                """;
+
+        TourImportResultDTO result = importService.importTours(stream(body), TourDataFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3);
+            assertThat(error.getMessage()).isEqualTo("Invalid price: 'abc'");
+        });
+
+        ArgumentCaptor<ToursCreatedEvent> event = ArgumentCaptor.forClass(ToursCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        TourDTO tour = event.getValue().tours().get(0);
+        assertThat(tour.getName()).isEqualTo("Carpathians, \"Hoverla\"");
+        assertThat(tour.getPrice()).isEqualTo(500);
+        assertThat(tour.getMealOption()).isNull();
+    }
+
+    @Test
+    void importTours_csvWithoutRequiredColumn_throwsException() {
+        assertThatThrownBy(() -> importService.importTours(stream("name,type\nA,B\n"), TourDataFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CSV header");
+
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    void importTours_manyRows_insertsInBatches() throws Exception {
+        StringBuilder body = new StringBuilder();
+        int rows = TourImportService.BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"name\":\"Tour ").append(i).append("\",\"transportId\":1}\n");
+        }
+
+        TourImportResultDTO result = importService.importTours(stream(body.toString()), TourDataFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(rows);
+        verify(tourRepository, times(3)).insertAll(anyList());
+        verify(transactionManager, times(3)).commit(any());
+        verify(eventPublisher, times(3)).publishEvent(any(ToursCreatedEvent.class));
+    }
+
+    @Test
+    void importTours_batchFailsInDatabase_retriesRowByRow() throws Exception {
+        doAnswer(invocation -> {
+            List<TourDTO> tours = invocation.getArgument(0);
+            if (tours.stream().anyMatch(tour -> tour.getName().length() > 255)) {
+                throw new DataIntegrityViolationException("value too long for type character varying(255)");
+            }
+            tours.forEach(tour -> tour.setId(nextId.getAndIncrement()));
+            return null;
+        }).when(tourRepository).insertAll(anyList());
+        String body = "{\"name\":\"Short\",\"transportId\":1}\n"
+                + "{\"name\":\"" + "x".repeat(300) + "\",\"transportId\":1}\n";
+
+        TourImportResultDTO result = importService.importTours(stream(body), TourDataFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).contains("value too long");
+        });
+        verify(tourRepository, times(3)).insertAll(anyList()); // батч + 2 окремі рядки
+    }
+
+    @Test
+    void importTours_reportsAtMostMaxErrors() throws Exception {
+        String body = "{\"name\":\"Bad\",\"transportId\":99}\n".repeat(TourImportService.MAX_REPORTED_ERRORS + 5);
+
+        TourImportResultDTO result = importService.importTours(stream(body), TourDataFormat.NDJSON);
+
+        assertThat(result.getFailed()).isEqualTo(TourImportService.MAX_REPORTED_ERRORS + 5);
+        assertThat(result.getErrors()).hasSize(TourImportService.MAX_REPORTED_ERRORS);
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    void splitCsvLine_handlesQuotesAndEmptyFields() {
+        assertThat(TourImportService.splitCsvLine("a,\"b,c\",,\"d\"\"e\""))
+                .containsExactly("a", "b,c", "", "d\"e");
+        assertThatThrownBy(() -> TourImportService.splitCsvLine("a,\"b"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TourNameIndexTest {
+
+    private final TourNameIndex index = new TourNameIndex();
+
+    @Test
+    void suggest_returnsPrefixMatchesByRatingDesc() {
+        index.reset(List.of(
+                new TourSuggestion(1, "Carpathian weekend", 4.2),
+                new TourSuggestion(2, "Carpathian hiking", 4.9),
+                new TourSuggestion(3, "Crimea", 5.0),
+                new TourSuggestion(4, "Kyiv walk", 4.5)
+        ));
+
+        // регістр і зайві пробіли не важливі
+        assertThat(index.suggest("  CARP ", 10)).extracting(TourSuggestion::id).containsExactly(2, 1);
+        assertThat(index.suggest("carpathian  w", 10)).extracting(TourSuggestion::id).containsExactly(1);
+        assertThat(index.suggest("c", 10)).extracting(TourSuggestion::id).containsExactly(3, 2, 1);
+        assertThat(index.suggest("lviv", 10)).isEmpty();
+        assertThat(index.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_respectsLimit() {
+        List<TourSuggestion> tours = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tours.add(new TourSuggestion(i, "Tour " + i, i / 10.0));
+        }
+        index.reset(tours);
+
+        assertThat(index.suggest("tour", 3)).extracting(TourSuggestion::id).containsExactly(99, 98, 97);
+        assertThat(index.suggest("tour", 100)).hasSize(TourNameIndex.MAX_LIMIT);
+    }
+
+    @Test
+    void add_updatesAlreadyCachedPrefixes() {
+        index.reset(List.of(new TourSuggestion(1, "Lviv coffee", 4.0)));
+        assertThat(index.suggest("l", 5)).extracting(TourSuggestion::id).containsExactly(1); // топ для "l" закешовано
+
+        index.add(new TourSuggestion(2, "Lviv night walk", 4.8));
+        index.add(new TourSuggestion(3, "Odesa beach", 5.0));
+
+        assertThat(index.suggest("l", 5)).extracting(TourSuggestion::id).containsExactly(2, 1);
+        assertThat(index.suggest("lviv n", 5)).extracting(TourSuggestion::id).containsExactly(2);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void sameName_differentTours_areBothKept() {
+        index.add(new TourSuggestion(1, "Weekend", 4.0));
+        index.add(new TourSuggestion(2, "Weekend", 4.5));
+
+        assertThat(index.suggest("week", 5)).extracting(TourSuggestion::id).containsExactly(2, 1);
+    }
+
+    @Test
+    void concurrentAddsAndReads_neverLoseTours() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1_000; i++) {
+            int id = i;
+            executor.submit(() -> index.add(new TourSuggestion(id, "Tour " + id, 1.0)));
+            executor.submit(() -> index.suggest("tour", 5));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // найкращий тур, доданий останнім, має з'явитися й у вже закешованих префіксах
+        index.add(new TourSuggestion(5_000, "Tour best", 5.0));
+        assertThat(index.size()).isEqualTo(1_001);
+        assertThat(index.suggest("t", 1)).extracting(TourSuggestion::id).containsExactly(5_000);
+        assertThat(index.suggest("tour", TourNameIndex.MAX_LIMIT)).hasSize(TourNameIndex.MAX_LIMIT);
+    }
+}
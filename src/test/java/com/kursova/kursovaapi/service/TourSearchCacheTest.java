@@ -0,0 +1,95 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TourSearchCacheTest {
+
+    private static final TourFilter BEACH = new TourFilter(null, "Beach", "All inclusive", null, null, 100, 500, null, null, null);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TourSearchCache cache = new TourSearchCache(
+            new TourSearchCacheProperties(true, DataSize.ofMegabytes(1)), meterRegistry);
+
+    @Test
+    void get_returnsStoredIdsAndTotalForSameGeneration() {
+        Pageable pageable = PageRequest.of(2, 2, Sort.by("price"));
+        cache.put(BEACH, pageable, 5, page(pageable, 40, 7, 3));
+
+        TourSearchCache.Entry entry = cache.get(BEACH, pageable, 5);
+
+        assertThat(entry.ids()).containsExactly(7, 3);
+        assertThat(entry.total()).isEqualTo(40);
+    }
+
+    @Test
+    void get_newerGenerationIsMiss() {
+        Pageable pageable = PageRequest.of(0, 2);
+        cache.put(BEACH, pageable, 5, page(pageable, 2, 1, 2));
+
+        // після запису турів версія каталогу інша
+        assertThat(cache.get(BEACH, pageable, 6)).isNull();
+    }
+
+    @Test
+    void key_ignoresCaseAndBlankFilters() {
+        Pageable pageable = PageRequest.of(0, 2);
+        cache.put(BEACH, pageable, 1, page(pageable, 1, 9));
+
+        TourFilter sameMeaning = new TourFilter("", "BEACH", "all inclusive", null, null, 100, 500, null, null, " ");
+        assertThat(cache.get(sameMeaning, pageable, 1)).isNotNull();
+        // інша сторінка, сортування чи межа — інший ключ
+        assertThat(cache.get(BEACH, PageRequest.of(1, 2), 1)).isNull();
+        assertThat(cache.get(BEACH, PageRequest.of(0, 2, Sort.by("rating")), 1)).isNull();
+        assertThat(cache.get(new TourFilter(null, "Beach", "All inclusive", null, null, 100, 600, null, null, null),
+                pageable, 1)).isNull();
+    }
+
+    @Test
+    void metrics_exposeHitsMissesAndSize() {
+        Pageable pageable = PageRequest.of(0, 2);
+        cache.get(BEACH, pageable, 1);
+        cache.put(BEACH, pageable, 1, page(pageable, 2, 1, 2));
+        cache.get(BEACH, pageable, 1);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tourSearch").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tourSearch").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tour.search.cache.size").gauge().value()).isPositive();
+    }
+
+    @Test
+    void disabled_neverStores() {
+        TourSearchCache disabled = new TourSearchCache(
+                new TourSearchCacheProperties(false, DataSize.ofMegabytes(1)), new SimpleMeterRegistry());
+        Pageable pageable = PageRequest.of(0, 2);
+        disabled.put(BEACH, pageable, 1, page(pageable, 1, 1));
+
+        assertThat(disabled.get(BEACH, pageable, 1)).isNull();
+    }
+
+    private static Page<TourDTO> page(Pageable pageable, long total, int... ids) {
+        List<TourDTO> content = new ArrayList<>();
+        for (int id : ids) {
+            TourDTO dto = new TourDTO();
+            dto.setId(id);
+            content.add(dto);
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+}
@@ -0,0 +1,135 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.entity.TourEntity;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.FavoriteRepository;
+import com.kursova.kursovaapi.repository.TourRepository;
+import com.kursova.kursovaapi.repository.TransportRepository;
+import com.kursova.kursovaapi.repository.custom.TourSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Той самий фільтр і сортування через обидва рушії: TourService з app.tour-search.engine=memory
+ * (TourColumnIndex, а для непідтримуваних сортувань — SQL) проти Specification-запиту до БД.
+ * Сторінки мають збігатися, зокрема для рядкових сортувань і турів без назви, типу чи харчування,
+ * а списки типів і харчування — з DISTINCT-запитами.
+ * За рівних ключів порядок у SQL не визначений, тож числові сортування завершуються id.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:engines;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.tour-search.engine=memory"
+})
+class TourSearchEnginesIntegrationTest {
+
+    private static final String[] NAMES = {"carpathian lakes", "Carpathian weekend", "Odesa beach", "odesa city", "Lviv"};
+    private static final String[] TYPES = {"Beach", "beach", "Hiking", null};
+    private static final String[] MEAL_OPTIONS = {"Breakfast", "All inclusive", null};
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private TourColumnSearchService columnSearch;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        favoriteRepository.deleteAll();
+        tourRepository.deleteAll();
+        transportRepository.deleteAll();
+
+        List<TransportEntity> transports = transportRepository.saveAll(
+                List.of(new TransportEntity("Bus"), new TransportEntity("Plane")));
+        SplittableRandom random = new SplittableRandom(3);
+        List<TourEntity> tours = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tours.add(new TourEntity(random.nextInt(10) == 0 ? null : NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(20),
+                    TYPES[random.nextInt(TYPES.length)], transports.get(random.nextInt(transports.size())),
+                    MEAL_OPTIONS[random.nextInt(MEAL_OPTIONS.length)], 1 + random.nextInt(14),
+                    100 * random.nextInt(20), random.nextInt(50) / 10.0));
+        }
+        tourRepository.saveAll(tours);
+        columnSearch.loadColumnIndex();
+    }
+
+    @Test
+    void searchToursWithPaging_returnsSamePagesAsSql() {
+        List<TourFilter> filters = List.of(
+                TourFilter.empty(),
+                filter(null, "BEACH", null, null, null),
+                filter(null, null, "breakfast", 300, null),
+                filter("carpathian", null, null, null, "plane"),
+                filter(null, "hiking", "all inclusive", null, "bus"));
+        List<Sort> sorts = List.of(
+                Sort.by("price", "id"),
+                Sort.by(Sort.Order.desc("rating"), Sort.Order.asc("id")),
+                Sort.by(Sort.Order.desc("numberOfDays"), Sort.Order.desc("price"), Sort.Order.asc("id")),
+                // рядкові сортування: з урахуванням регістру, NULL та collation бази
+                Sort.by("name", "id"),
+                Sort.by(Sort.Order.desc("type"), Sort.Order.asc("id")),
+                Sort.by("mealOption", "price", "id"));
+
+        for (TourFilter filter : filters) {
+            for (Sort sort : sorts) {
+                for (int page = 0; page < 3; page++) {
+                    Pageable pageable = PageRequest.of(page, 7, sort);
+
+                    Page<TourDTO> engine = tourService.searchToursWithPaging(filter, pageable);
+                    Page<TourEntity> sql = tourRepository.findAll(TourSpecification.matching(filter), pageable);
+
+                    assertThat(engine.getTotalElements()).as("%s %s", filter, pageable).isEqualTo(sql.getTotalElements());
+                    assertThat(engine.getContent()).extracting(TourDTO::getId).as("%s %s", filter, pageable)
+                            .containsExactlyElementsOf(sql.getContent().stream().map(TourEntity::getId).toList());
+                }
+            }
+        }
+    }
+
+    @Test
+    void typesAndMealOptions_matchDistinctQueries() {
+        assertThat(columnSearch.isLoaded()).isTrue();
+
+        // SELECT DISTINCT type містить NULL, опції харчування — без NULL
+        assertThat(tourService.getAllTypes()).containsExactlyInAnyOrderElementsOf(tourRepository.findAllDistinctTypes())
+                .containsNull();
+        assertThat(tourService.getAllMealOptions())
+                .containsExactlyInAnyOrderElementsOf(tourRepository.findAllDistinctMealOptions())
+                .doesNotContainNull();
+    }
+
+    private static TourFilter filter(String name, String type, String mealOption, Integer minPrice, String transportName) {
+        return new TourFilter(name, type, mealOption, null, null, minPrice, null, null, null, transportName);
+    }
+}
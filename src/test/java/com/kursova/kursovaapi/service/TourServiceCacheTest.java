@@ -0,0 +1,81 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.config.CacheConfig;
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.event.TransportChangedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Перевіряє кешування фасетів через справжній Spring-проксі (@Cacheable / @CacheEvict).
+ */
+@SpringJUnitConfig({CacheConfig.class, TourService.class, TourCatalogVersion.class, SimpleMeterRegistry.class})
+class TourServiceCacheTest {
+
+    @Autowired
+    private TourService tourService;
+
+    @Autowired
+    private TourCatalogVersion catalogVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private TourRepository tourRepository;
+
+    @MockBean
+    private TransportService transportService;
+
+    @MockBean
+    private FavoriteService favoriteService;
+
+    @MockBean
+    private TourColumnSearchService columnSearch;
+
+    @MockBean
+    private TourSearchCache searchCache;
+
+    @Test
+    void getAllTypes_cachedUntilToursCreated() {
+        when(tourRepository.findAllDistinctTypes()).thenReturn(List.of("Beach"), List.of("Beach", "Ski"));
+        when(tourRepository.findAllDistinctMealOptions()).thenReturn(List.of("Breakfast"));
+
+        // повторні виклики не йдуть у БД
+        assertThat(tourService.getAllTypes()).containsExactly("Beach");
+        assertThat(tourService.getAllTypes()).containsExactly("Beach");
+        tourService.getAllMealOptions();
+        tourService.getAllMealOptions();
+        verify(tourRepository, times(1)).findAllDistinctTypes();
+        verify(tourRepository, times(1)).findAllDistinctMealOptions();
+
+        long versionBefore = catalogVersion.current();
+        eventPublisher.publishEvent(new ToursCreatedEvent(List.of(new TourDTO())));
+
+        // після запису кеш скинуто, а версія каталогу (ETag) змінилась
+        assertThat(tourService.getAllTypes()).containsExactly("Beach", "Ski");
+        verify(tourRepository, times(2)).findAllDistinctTypes();
+        assertThat(catalogVersion.current()).isGreaterThan(versionBefore);
+    }
+
+    @Test
+    void catalogVersion_changesWithTransport() {
+        long versionBefore = catalogVersion.current();
+
+        // перейменування транспорту змінює відповіді з турами (transportName), тож і ETag/покоління кешу пошуку
+        eventPublisher.publishEvent(new TransportChangedEvent(1));
+
+        assertThat(catalogVersion.current()).isGreaterThan(versionBefore);
+    }
+}
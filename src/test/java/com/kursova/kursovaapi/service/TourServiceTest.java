@@ -1,14 +1,24 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.dto.TourCursor;
 import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourFacetsDTO;
+import com.kursova.kursovaapi.dto.TourFilter;
+import com.kursova.kursovaapi.dto.TourSliceDTO;
+import com.kursova.kursovaapi.dto.TransportDTO;
 import com.kursova.kursovaapi.entity.TourEntity;
 import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
 import com.kursova.kursovaapi.mapper.TourMapper;
 import com.kursova.kursovaapi.repository.TourRepository;
-import com.kursova.kursovaapi.repository.TransportRepository;
+import com.kursova.kursovaapi.repository.custom.TourFacetRow;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -23,11 +33,26 @@ public class TourServiceTest {
     private TourRepository tourRepository;
 
     @Mock
-    private TransportRepository transportRepository;
+    private TransportService transportService;
 
     @Mock
     private FavoriteService favoriteService;
 
+    @Mock
+    private TourCatalogVersion catalogVersion;
+
+    @Mock
+    private TourColumnSearchService columnSearch;  // за замовчуванням canSearch() = false, тобто SQL
+
+    @Mock
+    private TourSearchCache searchCache;  // за замовчуванням get() = null, тобто промах
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TourService tourService;
 
@@ -44,7 +69,10 @@ public class TourServiceTest {
         input.setName("Test Tour");
         input.setTransportId(1);
 
-        // Мокаємо транспорт
+        // Мокаємо транспорт (з кешу TransportService)
+        TransportDTO transportDto = new TransportDTO();
+        transportDto.setId(1);
+        transportDto.setName("Bus");
         TransportEntity transport = new TransportEntity("Bus");
         transport.setId(1);
 
@@ -54,7 +82,7 @@ public class TourServiceTest {
         savedEntity.setId(10);
         savedEntity.setTransport(transport);
 
-        when(transportRepository.findById(1)).thenReturn(Optional.of(transport));
+        when(transportService.findById(1)).thenReturn(Optional.of(transportDto));
         when(tourRepository.save(any())).thenReturn(savedEntity);
 
         // Виклик методу
@@ -64,8 +92,16 @@ public class TourServiceTest {
         assertThat(result.getId()).isEqualTo(10);
         assertThat(result.getName()).isEqualTo("Test Tour");
 
-        verify(tourRepository).save(any());
-        verify(transportRepository).findById(1);
+        // у збережену сутність передано транспорт з тим самим id
+        ArgumentCaptor<TourEntity> saved = ArgumentCaptor.forClass(TourEntity.class);
+        verify(tourRepository).save(saved.capture());
+        assertThat(saved.getValue().getTransport().getId()).isEqualTo(1);
+        verify(transportService).findById(1);
+
+        // кеші/індекси дізнаються про новий тур через подію
+        ArgumentCaptor<ToursCreatedEvent> event = ArgumentCaptor.forClass(ToursCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().tours()).extracting(TourDTO::getId).containsExactly(10);
     }
 
     @Test
@@ -73,14 +109,15 @@ public class TourServiceTest {
         TourDTO input = new TourDTO();
         input.setTransportId(99);
 
-        when(transportRepository.findById(99)).thenReturn(Optional.empty());
+        when(transportService.findById(99)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> tourService.createTour(input))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Invalid transport ID");
 
-        verify(transportRepository).findById(99);
+        verify(transportService).findById(99);
         verifyNoMoreInteractions(tourRepository); // не має бути збережень
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -99,11 +136,8 @@ public class TourServiceTest {
         // Сторінка з одним результатом
         Page<TourEntity> tourEntityPage = new PageImpl<>(List.of(entity), pageable, 1);
 
-        // Фаворити (один тур)
-        TourDTO favoriteDto = new TourDTO();
-        favoriteDto.setId(1);
-
-        when(favoriteService.getAll()).thenReturn(List.of(favoriteDto));
+        // Фаворити (один тур) — перевірка йде через індекс у FavoriteService
+        when(favoriteService.isFavorite(1)).thenReturn(true);
         when(tourRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(tourEntityPage);
 
         // Підготовка мапінгу
@@ -116,11 +150,14 @@ public class TourServiceTest {
             mocked.when(() -> TourMapper.toDto(entity)).thenReturn(mappedDto);
 
             Page<TourDTO> result = tourService.searchToursWithPaging(
-                    "Beach", "Vacation", "All inclusive",
-                    3, 10,
-                    200, 1000,
-                    4.0, 5.0,
-                    "Bus", pageable
+                    new TourFilter(
+                            "Beach", "Vacation", "All inclusive",
+                            3, 10,
+                            200, 1000,
+                            4.0, 5.0,
+                            "Bus"
+                    ),
+                    pageable
             );
 
             // Перевірка
@@ -134,7 +171,75 @@ public class TourServiceTest {
         }
 
         verify(tourRepository).findAll(any(Specification.class), any(Pageable.class));
-        verify(favoriteService).getAll();
+        verify(favoriteService).isFavorite(1);
+        verify(favoriteService, never()).getAll(); // усі обрані більше не завантажуються
+    }
+
+    @Test
+    void searchToursWithPaging_memoryEngine_skipsDatabase() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("price"));
+        TourFilter filter = new TourFilter(null, "Beach", null, null, null, null, 500, null, null, null);
+        TourDTO dto = new TourDTO();
+        dto.setId(3);
+        Page<TourDTO> page = new PageImpl<>(List.of(dto), pageable, 1);
+
+        // app.tour-search.engine=memory, індекс завантажено
+        when(columnSearch.canSearch(pageable)).thenReturn(true);
+        when(columnSearch.search(filter, pageable)).thenReturn(page);
+
+        assertThat(tourService.searchToursWithPaging(filter, pageable)).isSameAs(page);
+        verifyNoInteractions(tourRepository);
+        assertThat(meterRegistry.get("search.rows").tag("operation", "tours").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void searchToursWithPaging_cacheMiss_storesPageWithVersionReadBeforeQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        TourEntity entity = new TourEntity();
+        entity.setId(5);
+        Page<TourEntity> entityPage = new PageImpl<>(List.of(entity), pageable, 1);
+        when(catalogVersion.current()).thenReturn(7L);
+        when(tourRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(entityPage);
+
+        Page<TourDTO> result = tourService.searchToursWithPaging(TourFilter.empty(), pageable);
+
+        verify(searchCache).get(TourFilter.empty(), pageable, 7L);
+        verify(searchCache).put(TourFilter.empty(), pageable, 7L, result);
+    }
+
+    @Test
+    void searchToursWithPaging_cacheHit_loadsToursByIdAndMarksFavorites() {
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("price"));
+        TourFilter filter = new TourFilter(null, "Beach", null, null, null, null, null, null, null, null);
+        when(catalogVersion.current()).thenReturn(7L);
+        when(searchCache.get(filter, pageable, 7L)).thenReturn(new TourSearchCache.Entry(7L, new int[]{4, 2}, 9));
+        // БД віддає тури в довільному порядку
+        TourEntity second = new TourEntity();
+        second.setId(2);
+        TourEntity fourth = new TourEntity();
+        fourth.setId(4);
+        when(tourRepository.findWithTransportByIdIn(List.of(4, 2))).thenReturn(List.of(second, fourth));
+        when(favoriteService.isFavorite(2)).thenReturn(true);
+
+        Page<TourDTO> result = tourService.searchToursWithPaging(filter, pageable);
+
+        assertThat(result.getContent()).extracting(TourDTO::getId).containsExactly(4, 2);
+        assertThat(result.getContent()).extracting(TourDTO::getIsFavorite).containsExactly(false, true);
+        assertThat(result.getTotalElements()).isEqualTo(9);
+        verify(tourRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(searchCache, never()).put(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void searchToursWithPaging_cachedTourMissing_fallsBackToQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(searchCache.get(TourFilter.empty(), pageable, 0L)).thenReturn(new TourSearchCache.Entry(0L, new int[]{3}, 1));
+        when(tourRepository.findWithTransportByIdIn(List.of(3))).thenReturn(List.of());
+        when(tourRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty(pageable));
+
+        assertThat(tourService.searchToursWithPaging(TourFilter.empty(), pageable)).isEmpty();
+        verify(searchCache).invalidateAll();
+        verify(tourRepository).findAll(any(Specification.class), any(Pageable.class));
     }
 
     @Test
@@ -146,7 +251,7 @@ public class TourServiceTest {
 
         Page<TourEntity> entityPage = new PageImpl<>(List.of(entity), pageable, 1);
 
-        when(favoriteService.getAll()).thenReturn(List.of());
+        when(favoriteService.isFavorite(5)).thenReturn(false);
         when(tourRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(entityPage);
 
         TourDTO mappedDto = new TourDTO();
@@ -156,23 +261,155 @@ public class TourServiceTest {
         try (MockedStatic<TourMapper> mapperMock = mockStatic(TourMapper.class)) {
             mapperMock.when(() -> TourMapper.toDto(entity)).thenReturn(mappedDto);
 
-            Page<TourDTO> result = tourService.searchToursWithPaging(
-                    null, null, null,
-                    null, null,
-                    null, null,
-                    null, null,
-                    null, pageable
-            );
+            Page<TourDTO> result = tourService.searchToursWithPaging(TourFilter.empty(), pageable);
 
             assertThat(result.getTotalElements()).isEqualTo(1);
 
             TourDTO dto = result.getContent().get(0);
             assertThat(dto.getId()).isEqualTo(5);
-            assertThat(dto.getIsFavorite()).isFalse(); // тому що список фаворитів — порожній
+            assertThat(dto.getIsFavorite()).isFalse(); // тому що тур не в індексі фаворитів
         }
 
-        verify(favoriteService).getAll();
+        verify(favoriteService).isFavorite(5);
         verify(tourRepository).findAll(any(Specification.class), any(Pageable.class));
+
+        // кількість повернутих турів потрапляє в search.rows
+        DistributionSummary rows = meterRegistry.get("search.rows").tag("operation", "tours").summary();
+        assertThat(rows.count()).isEqualTo(1);
+        assertThat(rows.totalAmount()).isEqualTo(1.0);
+    }
+
+    @Test
+    void searchByText_unsorted_ordersByRelevanceAndMarksFavorites() {
+        Pageable pageable = PageRequest.of(0, 10);
+        TourEntity entity = new TourEntity("Carpathian weekend", "Hiking", null, "Breakfast", 3, 900, 4.7);
+        entity.setId(3);
+        when(tourRepository.findAll(any(Specification.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(entity), pageable, 1));
+        when(favoriteService.isFavorite(3)).thenReturn(true);
+
+        Page<TourDTO> result = tourService.searchByText("Carp wee", TourFilter.empty(), pageable);
+
+        assertThat(result.getContent()).extracting(TourDTO::getName).containsExactly("Carpathian weekend");
+        assertThat(result.getContent().get(0).getIsFavorite()).isTrue();
+    }
+
+    @Test
+    void searchByText_noWords_throwsException() {
+        // лише розділові знаки — немає жодного слова для пошуку
+        assertThatThrownBy(() -> tourService.searchByText(" & | ! ", TourFilter.empty(), PageRequest.of(0, 10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Search query");
+
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    void scrollTours_fullPage_returnsNextCursor() {
+        TourEntity first = new TourEntity();
+        first.setId(3);
+        first.setPrice(100);
+        TourEntity second = new TourEntity();
+        second.setId(8);
+        second.setPrice(150);
+
+        // репозиторій повертає 2 тури і повідомляє, що є ще
+        Window<TourEntity> window = Window.from(List.of(first, second), ScrollPosition::offset, true);
+        when(tourRepository.findBy(any(Specification.class), any())).thenReturn(window);
+        when(favoriteService.isFavorite(8)).thenReturn(true);
+
+        TourSliceDTO result = tourService.scrollTours(TourFilter.empty(), null, 2, Sort.by("price"));
+
+        assertThat(result.getContent()).extracting(TourDTO::getId).containsExactly(3, 8);
+        assertThat(result.getContent().get(1).getIsFavorite()).isTrue();
+        assertThat(result.isHasNext()).isTrue();
+
+        // курсор містить ключ сортування і ID останнього туру
+        TourCursor cursor = TourCursor.decode(result.getNextCursor());
+        assertThat(cursor.sortProperty()).isEqualTo("price");
+        assertThat(cursor.sortValue()).isEqualTo(150);
+        assertThat(cursor.id()).isEqualTo(8);
+
+        // COUNT-запит не виконується
+        verify(tourRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void scrollTours_lastPage_hasNoCursor() {
+        TourEntity entity = new TourEntity();
+        entity.setId(1);
+        when(tourRepository.findBy(any(Specification.class), any()))
+                .thenReturn(Window.from(List.of(entity), ScrollPosition::offset, false));
+
+        TourSliceDTO result = tourService.scrollTours(TourFilter.empty(), null, 20, Sort.unsorted());
+
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void scrollTours_unsupportedSort_throwsException() {
+        assertThatThrownBy(() -> tourService.scrollTours(TourFilter.empty(), null, 20, Sort.by("name")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Keyset pagination supports sorting");
+
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    void scrollTours_cursorForOtherSort_throwsException() {
+        String cursor = new TourCursor("rating", Sort.Direction.DESC, 4.5, 10).encode();
+
+        assertThatThrownBy(() -> tourService.scrollTours(TourFilter.empty(), cursor, 20, Sort.by("price")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor does not match");
+    }
+
+    @Test
+    void scrollTours_malformedCursor_throwsException() {
+        assertThatThrownBy(() -> tourService.scrollTours(TourFilter.empty(), "not-a-cursor", 20, Sort.by("price")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    void getFacets_aggregatesGroupedRows() {
+        when(tourRepository.countFacets(any(Specification.class))).thenReturn(List.of(
+                new TourFacetRow(TourFacetRow.Facet.TYPE, "Beach", null, 5),
+                new TourFacetRow(TourFacetRow.Facet.TYPE, "Ski", null, 4),
+                new TourFacetRow(TourFacetRow.Facet.MEAL_OPTION, "All inclusive", null, 3),
+                new TourFacetRow(TourFacetRow.Facet.MEAL_OPTION, "Breakfast", null, 2),
+                new TourFacetRow(TourFacetRow.Facet.MEAL_OPTION, null, null, 4),
+                new TourFacetRow(TourFacetRow.Facet.TRANSPORT, "Bus", null, 7),
+                new TourFacetRow(TourFacetRow.Facet.TRANSPORT, "Plane", null, 2),
+                new TourFacetRow(TourFacetRow.Facet.PRICE, null, 0, 3),
+                new TourFacetRow(TourFacetRow.Facet.PRICE, null, 1, 2),
+                new TourFacetRow(TourFacetRow.Facet.PRICE, null, 4, 4),
+                new TourFacetRow(TourFacetRow.Facet.DAYS, null, 1, 5),
+                new TourFacetRow(TourFacetRow.Facet.DAYS, null, 2, 4),
+                new TourFacetRow(TourFacetRow.Facet.RATING, null, 2, 3),
+                new TourFacetRow(TourFacetRow.Facet.RATING, null, 3, 6)
+        ));
+
+        TourFacetsDTO facets = tourService.getFacets(TourFilter.empty());
+
+        assertThat(facets.getTotal()).isEqualTo(9);
+        // значення відсортовані за кількістю
+        assertThat(facets.getTypes()).extracting(TourFacetsDTO.ValueCount::getValue).containsExactly("Beach", "Ski");
+        assertThat(facets.getTypes()).extracting(TourFacetsDTO.ValueCount::getCount).containsExactly(5L, 4L);
+        assertThat(facets.getTransports()).extracting(TourFacetsDTO.ValueCount::getValue).containsExactly("Bus", "Plane");
+        assertThat(facets.getMealOptions()).hasSize(2); // null не рахується як значення
+
+        // усі діапазони присутні, навіть порожні
+        assertThat(facets.getPrice()).hasSize(5);
+        assertThat(facets.getPrice()).extracting(TourFacetsDTO.RangeCount::getCount).containsExactly(3L, 2L, 0L, 0L, 4L);
+        assertThat(facets.getPrice().get(0).getFrom()).isNull();
+        assertThat(facets.getPrice().get(0).getTo()).isEqualTo(500);
+        assertThat(facets.getPrice().get(4).getFrom()).isEqualTo(5000);
+        assertThat(facets.getPrice().get(4).getTo()).isNull();
+        assertThat(facets.getRating()).extracting(TourFacetsDTO.RangeCount::getCount).containsExactly(0L, 0L, 3L, 6L);
+
+        verify(tourRepository).countFacets(any(Specification.class));
     }
 
     @Test
@@ -186,6 +423,15 @@ public class TourServiceTest {
         verify(tourRepository).findAllDistinctTypes();
     }
 
+    @Test
+    void getAllTypes_memoryEngine_readsIndexBitmaps() {
+        when(columnSearch.isLoaded()).thenReturn(true);
+        when(columnSearch.types()).thenReturn(List.of("Beach", "Mountain"));
+
+        assertThat(tourService.getAllTypes()).containsExactly("Beach", "Mountain");
+        verify(tourRepository, never()).findAllDistinctTypes();
+    }
+
     @Test
     void getAllMealOptions_delegatesToRepository() {
         List<String> options = List.of("Breakfast", "Full board");
@@ -196,4 +442,11 @@ public class TourServiceTest {
         assertThat(result).isEqualTo(options);
         verify(tourRepository).findAllDistinctMealOptions();
     }
+
+    @Test
+    void getCatalogVersion_delegatesToCatalogVersion() {
+        when(catalogVersion.current()).thenReturn(42L);
+
+        assertThat(tourService.getCatalogVersion()).isEqualTo(42L);
+    }
 }
@@ -0,0 +1,70 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.dto.TourDTO;
+import com.kursova.kursovaapi.dto.TourSuggestion;
+import com.kursova.kursovaapi.event.ToursCreatedEvent;
+import com.kursova.kursovaapi.repository.TourRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TourSuggestionServiceTest {
+
+    @Mock
+    private TourRepository tourRepository;
+
+    @Spy
+    private TourNameIndex tourNameIndex = new TourNameIndex(); // справжній індекс
+
+    @InjectMocks
+    private TourSuggestionService tourSuggestionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(tourRepository.findAllSuggestions()).thenReturn(List.of(
+                new TourSuggestion(1, "Carpathian weekend", 4.2),
+                new TourSuggestion(2, "Kyiv walk", 4.5)
+        ));
+        tourSuggestionService.loadNameIndex();
+    }
+
+    @Test
+    void suggest_servedFromIndexWithoutDatabase() {
+        clearInvocations(tourRepository);
+
+        assertThat(tourSuggestionService.suggest("carp", 5))
+                .extracting(TourSuggestion::name)
+                .containsExactly("Carpathian weekend");
+
+        verifyNoInteractions(tourRepository);
+    }
+
+    @Test
+    void onToursCreated_addsNewToursToIndex() {
+        TourDTO created = new TourDTO();
+        created.setId(3);
+        created.setName("Carpathian lakes");
+        created.setRating(4.9);
+
+        tourSuggestionService.onToursCreated(new ToursCreatedEvent(List.of(created)));
+
+        assertThat(tourSuggestionService.suggest("carp", 5))
+                .extracting(TourSuggestion::id)
+                .containsExactly(3, 1);
+    }
+
+    @Test
+    void suggest_invalidLimit_throwsException() {
+        assertThatThrownBy(() -> tourSuggestionService.suggest("carp", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tourSuggestionService.suggest("carp", TourNameIndex.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Limit");
+    }
+}
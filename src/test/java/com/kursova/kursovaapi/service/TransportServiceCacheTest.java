@@ -0,0 +1,130 @@
+package com.kursova.kursovaapi.service;
+
+import com.kursova.kursovaapi.config.CacheConfig;
+import com.kursova.kursovaapi.dto.TransportDTO;
+import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.repository.TransportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Перевіряє кешування транспорту через справжній Spring-проксі:
+ * читання з кешу, оновлення кешу при update/create і скидання при delete.
+ */
+@SpringJUnitConfig({CacheConfig.class, TransportService.class})
+class TransportServiceCacheTest {
+
+    @Autowired
+    private TransportService transportService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private TransportRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        when(repository.findById(1)).thenReturn(Optional.of(transport(1, "Bus")));
+        when(repository.findById(99)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void getByIdAndFindById_shareCacheAndHitDatabaseOnce() {
+        assertThat(transportService.getById(1).getName()).isEqualTo("Bus");
+        assertThat(transportService.getById(1).getName()).isEqualTo("Bus");
+        assertThat(transportService.findById(1)).map(TransportDTO::getName).contains("Bus");
+
+        verify(repository, times(1)).findById(1);
+    }
+
+    @Test
+    void findById_missingTransport_isNotCached() {
+        assertThat(transportService.findById(99)).isEmpty();
+        assertThat(transportService.findById(99)).isEmpty();
+
+        verify(repository, times(2)).findById(99);
+    }
+
+    @Test
+    void update_putsNewValueAndEvictsList() {
+        when(repository.findAll()).thenReturn(List.of(transport(1, "Bus")));
+        when(repository.save(any(TransportEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        transportService.getById(1);
+        transportService.getAll();
+
+        TransportDTO changes = new TransportDTO();
+        changes.setName("Coach");
+        transportService.update(1, changes);
+        when(repository.findAll()).thenReturn(List.of(transport(1, "Coach")));
+
+        // getById бере вже оновлене значення з кешу, список перечитується
+        assertThat(transportService.getById(1).getName()).isEqualTo("Coach");
+        assertThat(transportService.getAll()).extracting(TransportDTO::getName).containsExactly("Coach");
+        verify(repository, times(2)).findById(1); // перший getById + update
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void create_cachesNewTransportAndEvictsList() {
+        when(repository.findAll()).thenReturn(List.of());
+        when(repository.save(any(TransportEntity.class))).thenReturn(transport(2, "Train"));
+        transportService.getAll();
+
+        TransportDTO dto = new TransportDTO();
+        dto.setName("Train");
+        transportService.create(dto);
+
+        assertThat(transportService.getById(2).getName()).isEqualTo("Train");
+        transportService.getAll();
+        verify(repository, never()).findById(2);
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void delete_evictsTransport() {
+        transportService.getById(1);
+
+        transportService.delete(1);
+        transportService.getById(1);
+
+        verify(repository, times(2)).findById(1);
+    }
+
+    @Test
+    void writes_bumpVersionAndListIsCachedPerVersion() {
+        when(repository.findAll()).thenReturn(List.of(transport(1, "Bus")));
+        when(repository.save(any(TransportEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        long initial = transportService.getVersion();
+        transportService.getAll();
+        transportService.getAll();
+
+        TransportDTO changes = new TransportDTO();
+        changes.setName("Coach");
+        transportService.update(1, changes);
+        transportService.delete(1);
+
+        assertThat(transportService.getVersion()).isEqualTo(initial + 2);
+        // Старий список лежав під ключем попередньої версії, тож нова версія читає БД
+        transportService.getAll();
+        verify(repository, times(2)).findAll();
+    }
+
+    private static TransportEntity transport(int id, String name) {
+        TransportEntity entity = new TransportEntity(name);
+        entity.setId(id);
+        return entity;
+    }
+}
@@ -1,11 +1,17 @@
 package com.kursova.kursovaapi.service;
 
+import com.kursova.kursovaapi.config.CacheConfig;
 import com.kursova.kursovaapi.dto.TransportDTO;
 import com.kursova.kursovaapi.entity.TransportEntity;
+import com.kursova.kursovaapi.event.TransportChangedEvent;
 import com.kursova.kursovaapi.repository.TransportRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,12 +24,22 @@ class TransportServiceTest {
     @Mock
     private TransportRepository repository; // мок репозиторію, що працює з TransportEntity
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache transportsById;
+
     @InjectMocks
     private TransportService transportService; // створює об'єкт з мокнутим репозиторієм усередині
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this); // ініціалізація моків
+        when(cacheManager.getCache(CacheConfig.TRANSPORTS_BY_ID)).thenReturn(transportsById);
     }
 
     @Test
@@ -54,6 +70,23 @@ class TransportServiceTest {
                 .hasMessageContaining("Transport not found");
     }
 
+    @Test
+    void findById_existingId_returnsDTO() {
+        TransportEntity entity = new TransportEntity("Plane");
+        entity.setId(2);
+        when(repository.findById(2)).thenReturn(Optional.of(entity));
+
+        assertThat(transportService.findById(2)).map(TransportDTO::getName).contains("Plane");
+    }
+
+    @Test
+    void findById_notFound_returnsEmpty() {
+        when(repository.findById(99)).thenReturn(Optional.empty());
+
+        // на відміну від getById, виняток не кидається
+        assertThat(transportService.findById(99)).isEmpty();
+    }
+
     @Test
     void getAll_returnsAllTransportsMapped() {
         // два записи в базі
@@ -99,6 +132,7 @@ class TransportServiceTest {
         // просто перевірка, що метод deleteById викликається
         transportService.delete(7);
         verify(repository).deleteById(7);
+        verify(eventPublisher).publishEvent(new TransportChangedEvent(7));
     }
 
     @Test
@@ -125,6 +159,7 @@ class TransportServiceTest {
         // перевірка
         assertThat(result.getId()).isEqualTo(5);
         assertThat(result.getName()).isEqualTo("New");
+        verify(eventPublisher).publishEvent(new TransportChangedEvent(5));
 
         verify(repository).save(any());
     }
@@ -144,5 +179,42 @@ class TransportServiceTest {
 
         // збереження не має бути викликане
         verify(repository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void update_staleVersion_throwsConflictWithoutSaving() {
+        TransportEntity existing = new TransportEntity("Old");
+        existing.setId(5);
+        existing.setVersion(2);
+        when(repository.findById(5)).thenReturn(Optional.of(existing));
+
+        TransportDTO dto = new TransportDTO();
+        dto.setName("New");
+        dto.setVersion(1L); // клієнт читав версію 1, відтоді транспорт уже змінили
+
+        assertThatThrownBy(() -> transportService.update(5, dto))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(repository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+        // клієнт міг узяти версію 1 із застарілого кешу — після 409 він має перечитати з БД
+        verify(transportsById).evict(5);
+    }
+
+    @Test
+    void update_concurrentSaveConflict_evictsCachedTransport() {
+        TransportEntity existing = new TransportEntity("Old");
+        existing.setId(5);
+        when(repository.findById(5)).thenReturn(Optional.of(existing));
+        // інший запис встиг змінити рядок між читанням і UPDATE
+        when(repository.save(any())).thenThrow(new ObjectOptimisticLockingFailureException(TransportEntity.class, 5));
+
+        TransportDTO dto = new TransportDTO();
+        dto.setName("New");
+
+        assertThatThrownBy(() -> transportService.update(5, dto))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(transportsById).evict(5);
+        verifyNoInteractions(eventPublisher);
     }
 }